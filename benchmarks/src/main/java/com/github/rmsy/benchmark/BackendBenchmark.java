@@ -0,0 +1,46 @@
+package com.github.rmsy.benchmark;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import tc.oc.api.Player;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks for {@link com.github.rmsy.impl.SimpleBackend}.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class BackendBenchmark {
+
+    /**
+     * The index of the next player to look up, so that every player in the backend gets looked up in turn.
+     */
+    private int next;
+
+    @Benchmark
+    public Player getPlayer(MatchFixture fixture) {
+        org.bukkit.entity.Player[] players = fixture.bukkitPlayers;
+        if (++this.next >= players.length) {
+            this.next = 0;
+        }
+        return fixture.backend.getPlayer(players[this.next]);
+    }
+
+    @Benchmark
+    public List<Player> findPlayers(MatchFixture fixture) {
+        return fixture.backend.findPlayers("pl9", 10);
+    }
+}
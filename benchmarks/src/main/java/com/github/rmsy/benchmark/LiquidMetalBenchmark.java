@@ -0,0 +1,48 @@
+package com.github.rmsy.benchmark;
+
+import com.github.rmsy.impl.TeamMatcher;
+import com.github.rmsy.util.LiquidMetal;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks for {@link LiquidMetal}, scoring an abbreviation against the name of every player in the match, and for
+ * {@link TeamMatcher}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class LiquidMetalBenchmark {
+
+    /**
+     * The abbreviation to score the players' names against.
+     */
+    @Param({"pl", "yer9"})
+    public String abbreviation;
+
+    @Benchmark
+    public void score(MatchFixture fixture, Blackhole blackhole) {
+        for (org.bukkit.entity.Player player : fixture.bukkitPlayers) {
+            blackhole.consume(LiquidMetal.score(player.getName(), this.abbreviation));
+        }
+    }
+
+    @Benchmark
+    public Object matchTeam(MatchFixture fixture) {
+        return TeamMatcher.match(fixture.match.getParticipatingTeams(), "blue");
+    }
+}
@@ -0,0 +1,35 @@
+package com.github.rmsy.benchmark;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Warmup;
+import tc.oc.api.Player;
+
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks for {@link com.github.rmsy.impl.SimpleMatch}.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class MatchBenchmark {
+
+    @Benchmark
+    public Set<Player> getParticipatingPlayers(MatchFixture fixture) {
+        return fixture.match.getParticipatingPlayers();
+    }
+
+    @Benchmark
+    public void broadcast(MatchFixture fixture) {
+        fixture.match.broadcast("Benchmark message.");
+        fixture.tick();
+    }
+}
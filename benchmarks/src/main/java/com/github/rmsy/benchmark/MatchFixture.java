@@ -0,0 +1,94 @@
+package com.github.rmsy.benchmark;
+
+import com.github.rmsy.impl.BroadcastDispatcher;
+import com.github.rmsy.impl.SimpleBackend;
+import com.github.rmsy.impl.SimpleMatch;
+import com.github.rmsy.impl.SimplePlayer;
+import com.github.rmsy.impl.SimpleTeam;
+import com.github.rmsy.stubs.StubServer;
+import org.bukkit.Bukkit;
+import org.bukkit.ChatColor;
+import org.bukkit.World;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+/**
+ * A backend holding a single match with two participating teams and an observer team, populated with players on a
+ * {@link StubServer}.
+ * Every tenth player observes; the rest are split evenly between the participating teams.
+ * <p/>
+ * The match broadcasts either directly, or through a started {@link BroadcastDispatcher}, as it does on a server.
+ * Nothing ticks the batched dispatcher, so benchmarks that broadcast call {@link #tick()} to deliver what they queued.
+ */
+@State(Scope.Benchmark)
+public class MatchFixture {
+
+    /**
+     * The number of players in the match.
+     */
+    @Param({"10", "100", "1000"})
+    public int players;
+    /**
+     * How the match delivers broadcasts: "direct", on the calling thread, or "batched", through a started dispatcher.
+     */
+    @Param({"direct", "batched"})
+    public String delivery;
+
+    public SimpleBackend backend;
+    public StubServer server;
+    public World world;
+    public BroadcastDispatcher dispatcher;
+    public SimpleMatch match;
+    public SimpleTeam red;
+    public SimpleTeam blue;
+    public SimpleTeam observers;
+    public org.bukkit.entity.Player[] bukkitPlayers;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        this.backend = new SimpleBackend();
+        this.server = new StubServer();
+        this.world = this.server.createWorld("world");
+        if (this.delivery.equals("batched")) {
+            //  Bukkit's server can only be set once, but nothing ticks it, so any stub server will do
+            if (Bukkit.getServer() == null) {
+                Bukkit.setServer(this.server.getServer());
+            }
+            //  deliver a whole broadcast per tick, so that the queue does not grow between invocations
+            this.dispatcher = new BroadcastDispatcher(Integer.MAX_VALUE);
+            this.dispatcher.start(this.server.getPlugin());
+            this.match = new SimpleMatch(this.world, this.dispatcher);
+        } else {
+            this.match = new SimpleMatch(this.world);
+        }
+        this.red = new SimpleTeam("Red Team", ChatColor.RED, true, true, false);
+        this.blue = new SimpleTeam("Blue Team", ChatColor.BLUE, true, true, false);
+        this.observers = new SimpleTeam("Observers", ChatColor.AQUA, false, false, true);
+        this.match.addTeam(this.red);
+        this.match.addTeam(this.blue);
+        this.match.addTeam(this.observers);
+        this.backend.mapMatch(this.world, this.match);
+
+        this.bukkitPlayers = new org.bukkit.entity.Player[this.players];
+        for (int i = 0; i < this.players; i++) {
+            org.bukkit.entity.Player bukkit = this.server.connect("Player" + i, this.world);
+            SimpleTeam team = i % 10 == 0 ? this.observers : (i % 2 == 0 ? this.red : this.blue);
+            SimplePlayer player = new SimplePlayer(bukkit, team);
+            this.match.join(player, team);
+            this.backend.mapPlayer(bukkit, player);
+            this.bukkitPlayers[i] = bukkit;
+        }
+    }
+
+    /**
+     * Delivers the broadcasts queued on the batched dispatcher, as the server would on the next tick.
+     */
+    public void tick() {
+        if (this.dispatcher != null) {
+            this.dispatcher.run();
+        }
+    }
+}
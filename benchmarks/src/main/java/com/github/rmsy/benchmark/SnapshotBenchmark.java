@@ -0,0 +1,66 @@
+package com.github.rmsy.benchmark;
+
+import com.github.rmsy.impl.BackendSnapshot;
+import com.github.rmsy.impl.SimpleBackend;
+import org.bukkit.Server;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks for {@link BackendSnapshot}: how long saving the fixture's match takes on disable, and how long restoring
+ * it into an empty backend takes on enable.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class SnapshotBenchmark {
+
+    public File file;
+    public Server server;
+    public SimpleBackend target;
+
+    @Setup(Level.Trial)
+    public void setUpTrial(MatchFixture fixture) throws IOException {
+        this.file = File.createTempFile("backend", ".snapshot");
+        this.server = fixture.server.getServer();
+    }
+
+    @Setup(Level.Invocation)
+    public void setUpInvocation(MatchFixture fixture) throws IOException {
+        //  restoring consumes the snapshot, so write a new one, and restore into a new backend, every time
+        BackendSnapshot.save(fixture.backend, this.file);
+        this.target = new SimpleBackend();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        this.file.delete();
+    }
+
+    @Benchmark
+    public int save(MatchFixture fixture) throws IOException {
+        return BackendSnapshot.save(fixture.backend, this.file);
+    }
+
+    @Benchmark
+    public int restore() throws IOException {
+        return BackendSnapshot.restore(this.target, this.server, this.file);
+    }
+}
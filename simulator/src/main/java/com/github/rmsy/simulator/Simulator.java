@@ -0,0 +1,181 @@
+package com.github.rmsy.simulator;
+
+import com.github.rmsy.impl.SimpleBackend;
+import com.github.rmsy.listeners.BackendListener;
+import com.github.rmsy.stubs.StubServer;
+import org.bukkit.Bukkit;
+import org.bukkit.plugin.Plugin;
+
+import javax.annotation.Nonnull;
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.util.Arrays;
+import java.util.Locale;
+
+/**
+ * Runs PretendGM's backend headless, on a {@link StubServer}, under the load of a {@link Workload}, and reports
+ * how long each tick took, how much work was done and how much memory was allocated doing it. Ticks run back to back
+ * rather than every 50 milliseconds, so the report shows how much of a tick the backend would use, not whether it
+ * keeps up.
+ * <p/>
+ * Usage: {@code java -jar simulator.jar [--matches n] [--teams n] [--players n] [--ticks n] [--warmup n] [--churn r]
+ * [--switches r] [--chat r] [--match-length ticks] [--seed n]}
+ */
+public final class Simulator {
+
+    /**
+     * How often teams are rebalanced, in ticks, as on a real server.
+     */
+    private static final long REBALANCE_PERIOD = 20L;
+    /**
+     * The number of nanoseconds in a millisecond.
+     */
+    private static final double NANOS_PER_MILLI = 1000000.0D;
+
+    private Simulator() {
+    }
+
+    /**
+     * Runs the simulation.
+     *
+     * @param args The command-line options.
+     */
+    public static void main(@Nonnull final String[] args) {
+        Workload.Settings settings = new Workload.Settings();
+        long ticks = 6000L;
+        long warmup = 1200L;
+        for (int i = 0; i < args.length; i++) {
+            String option = args[i];
+            if (i + 1 >= args.length) {
+                usage("Missing value for " + option);
+                return;
+            }
+            String value = args[++i];
+            try {
+                if (option.equals("--matches")) {
+                    settings.matches = Integer.parseInt(value);
+                } else if (option.equals("--teams")) {
+                    settings.teams = Integer.parseInt(value);
+                } else if (option.equals("--players")) {
+                    settings.players = Integer.parseInt(value);
+                } else if (option.equals("--ticks")) {
+                    ticks = Long.parseLong(value);
+                } else if (option.equals("--warmup")) {
+                    warmup = Long.parseLong(value);
+                } else if (option.equals("--churn")) {
+                    settings.churn = Double.parseDouble(value);
+                } else if (option.equals("--switches")) {
+                    settings.switches = Double.parseDouble(value);
+                } else if (option.equals("--chat")) {
+                    settings.chat = Double.parseDouble(value);
+                } else if (option.equals("--match-length")) {
+                    settings.matchLength = Long.parseLong(value);
+                } else if (option.equals("--seed")) {
+                    settings.seed = Long.parseLong(value);
+                } else {
+                    usage("Unknown option " + option);
+                    return;
+                }
+            } catch (NumberFormatException exception) {
+                usage("Invalid value for " + option + ": " + value);
+                return;
+            }
+        }
+        if (settings.matches < 1 || settings.teams < 2 || settings.players < 0 || ticks < 1L || warmup < 0L) {
+            usage("Need at least one match, two teams and one tick.");
+            return;
+        }
+
+        StubServer server = new StubServer();
+        Bukkit.setServer(server.getServer());
+        Plugin plugin = server.getPlugin();
+        final SimpleBackend backend = new SimpleBackend();
+        backend.getDispatcher().start(plugin);
+        backend.getExecutor().start(plugin);
+        backend.getBus().start(plugin);
+        server.getServer().getScheduler().runTaskTimer(plugin, new Runnable() {
+            @Override
+            public void run() {
+                backend.rebalanceMatches();
+            }
+        }, REBALANCE_PERIOD, REBALANCE_PERIOD);
+
+        Workload workload = new Workload(server, backend, new BackendListener(backend), settings);
+        workload.setUp();
+        System.out.println(String.format(Locale.ROOT, "Simulating %d matches of %d players for %d ticks, after %d ticks of warmup", settings.matches, settings.players, ticks, warmup));
+        for (long i = 0L; i < warmup; i++) {
+            workload.tick();
+            server.tick();
+        }
+
+        ThreadMXBean threads = ManagementFactory.getThreadMXBean();
+        long operationsBefore = workload.getOperations();
+        long messagesBefore = server.getMessagesSent();
+        long allocatedBefore = allocatedBytes(threads);
+        long[] tickTimes = new long[(int) Math.min(ticks, Integer.MAX_VALUE)];
+        long runStart = System.nanoTime();
+        for (int i = 0; i < tickTimes.length; i++) {
+            long tickStart = System.nanoTime();
+            workload.tick();
+            server.tick();
+            tickTimes[i] = System.nanoTime() - tickStart;
+        }
+        long runTime = System.nanoTime() - runStart;
+        long allocated = allocatedBytes(threads) - allocatedBefore;
+        long operations = workload.getOperations() - operationsBefore;
+        long messages = server.getMessagesSent() - messagesBefore;
+
+        backend.getExecutor().stop();
+        backend.getDispatcher().stop();
+        backend.getBus().stop();
+
+        Arrays.sort(tickTimes);
+        double seconds = runTime / (NANOS_PER_MILLI * 1000.0D);
+        System.out.println(String.format(Locale.ROOT, "Tick time (ms): p50 %.3f, p90 %.3f, p99 %.3f, p99.9 %.3f, max %.3f", percentile(tickTimes, 0.5D), percentile(tickTimes, 0.9D), percentile(tickTimes, 0.99D), percentile(tickTimes, 0.999D), tickTimes[tickTimes.length - 1] / NANOS_PER_MILLI));
+        System.out.println(String.format(Locale.ROOT, "Throughput: %.0f ticks/s, %.0f actions/s, %.0f messages/s", tickTimes.length / seconds, operations / seconds, messages / seconds));
+        System.out.println(String.format(Locale.ROOT, "Players: %d online in %d matches", backend.getPlayerCount(), backend.getMatchCount()));
+        if (allocated >= 0L) {
+            System.out.println(String.format(Locale.ROOT, "Allocated on the main thread: %.1f MB/s, %.1f KB/tick", allocated / seconds / (1024.0D * 1024.0D), allocated / 1024.0D / tickTimes.length));
+        } else {
+            System.out.println("Allocated on the main thread: not measurable on this JVM");
+        }
+    }
+
+    /**
+     * Gets the number of bytes allocated by the current thread so far, if the JVM can measure it.
+     *
+     * @param threads The thread management bean.
+     * @return The number of bytes allocated, or -1 if it can not be measured.
+     */
+    private static long allocatedBytes(@Nonnull final ThreadMXBean threads) {
+        if (threads instanceof com.sun.management.ThreadMXBean) {
+            com.sun.management.ThreadMXBean sunThreads = (com.sun.management.ThreadMXBean) threads;
+            if (sunThreads.isThreadAllocatedMemorySupported() && sunThreads.isThreadAllocatedMemoryEnabled()) {
+                return sunThreads.getThreadAllocatedBytes(Thread.currentThread().getId());
+            }
+        }
+        return -1L;
+    }
+
+    /**
+     * Gets a percentile of a set of tick times.
+     *
+     * @param sortedTimes The tick times, in nanoseconds, sorted in ascending order.
+     * @param percentile  The percentile, between zero and one.
+     * @return The tick time at the percentile, in milliseconds.
+     */
+    private static double percentile(@Nonnull final long[] sortedTimes, final double percentile) {
+        int index = (int) Math.ceil(percentile * sortedTimes.length) - 1;
+        return sortedTimes[Math.max(0, Math.min(index, sortedTimes.length - 1))] / NANOS_PER_MILLI;
+    }
+
+    /**
+     * Prints an error and the usage.
+     *
+     * @param error The error.
+     */
+    private static void usage(@Nonnull final String error) {
+        System.err.println(error);
+        System.err.println("Usage: java -jar simulator.jar [--matches n] [--teams n] [--players n] [--ticks n] [--warmup n] [--churn r] [--switches r] [--chat r] [--match-length ticks] [--seed n]");
+    }
+}
@@ -0,0 +1,294 @@
+package com.github.rmsy.simulator;
+
+import com.github.rmsy.impl.MatchState;
+import com.github.rmsy.impl.SimpleBackend;
+import com.github.rmsy.impl.SimpleMatch;
+import com.github.rmsy.impl.SimplePlayer;
+import com.github.rmsy.impl.SimpleTeam;
+import com.github.rmsy.listeners.BackendListener;
+import com.github.rmsy.stubs.StubServer;
+import com.google.common.base.Preconditions;
+import org.bukkit.ChatColor;
+import org.bukkit.World;
+import org.bukkit.entity.Player;
+import org.bukkit.event.player.PlayerJoinEvent;
+import org.bukkit.event.player.PlayerQuitEvent;
+import org.bukkit.plugin.Plugin;
+
+import javax.annotation.Nonnull;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * The scripted activity of a simulated server: players connecting and quitting, switching teams and chatting, and
+ * matches counting down, running, ending and cycling, all driven through the same entry points the real server uses.
+ * Every action is picked with the workload's random number generator, so a run with the same seed and settings does
+ * the same work.
+ */
+public final class Workload {
+
+    /**
+     * The length of the countdowns to start and cycle a match, in seconds.
+     */
+    private static final int COUNTDOWN_SECONDS = 5;
+    /**
+     * The colors the participating teams of each match are given, in order.
+     */
+    private static final ChatColor[] TEAM_COLORS = {ChatColor.RED, ChatColor.BLUE, ChatColor.GREEN, ChatColor.YELLOW};
+    /**
+     * The server the workload runs on.
+     */
+    @Nonnull
+    private final StubServer server;
+    /**
+     * The backend under test, and the listener players join and quit through.
+     */
+    @Nonnull
+    private final SimpleBackend backend;
+    @Nonnull
+    private final BackendListener listener;
+    /**
+     * The random number generator every action is picked with.
+     */
+    @Nonnull
+    private final Random random;
+    /**
+     * The settings of the workload.
+     */
+    @Nonnull
+    private final Settings settings;
+    /**
+     * The simulated matches.
+     */
+    @Nonnull
+    private final List<Arena> arenas;
+    /**
+     * The number of actions performed.
+     */
+    private long operations;
+    /**
+     * The number of players who have connected, used to name new players.
+     */
+    private int connections;
+
+    /**
+     * Creates a new workload, with no matches.
+     *
+     * @param server   The server the workload runs on.
+     * @param backend  The backend under test.
+     * @param listener The listener players join and quit through.
+     * @param settings The settings of the workload.
+     */
+    public Workload(@Nonnull final StubServer server, @Nonnull final SimpleBackend backend, @Nonnull final BackendListener listener, @Nonnull final Settings settings) {
+        this.server = Preconditions.checkNotNull(server, "server");
+        this.backend = Preconditions.checkNotNull(backend, "backend");
+        this.listener = Preconditions.checkNotNull(listener, "listener");
+        this.settings = Preconditions.checkNotNull(settings, "settings");
+        this.random = new Random(settings.seed);
+        this.arenas = new ArrayList<Arena>(settings.matches);
+    }
+
+    /**
+     * Gets the number of actions performed so far.
+     *
+     * @return The number of actions performed.
+     */
+    public long getOperations() {
+        return this.operations;
+    }
+
+    /**
+     * Creates the matches, each with its participating teams and a spectating team, and connects their players.
+     */
+    public void setUp() {
+        for (int i = 0; i < this.settings.matches; i++) {
+            World world = this.server.createWorld("match-" + i);
+            SimpleMatch match = this.backend.createMatch(world);
+            Arena arena = new Arena(world, match);
+            for (int j = 0; j < this.settings.teams; j++) {
+                ChatColor color = TEAM_COLORS[j % TEAM_COLORS.length];
+                SimpleTeam team = this.backend.createTeam(color.name().toLowerCase() + " team", color, true, true, false);
+                match.addTeam(team);
+                arena.teams.add(team);
+            }
+            match.addTeam(this.backend.createTeam("Observers", ChatColor.AQUA, false, false, true));
+            this.arenas.add(arena);
+            for (int j = 0; j < this.settings.players; j++) {
+                this.connect(arena);
+            }
+        }
+    }
+
+    /**
+     * Performs one tick's worth of actions in every match.
+     */
+    public void tick() {
+        long tick = this.server.getCurrentTick();
+        for (Arena arena : this.arenas) {
+            this.tickPlayers(arena);
+            this.tickMatch(arena, tick);
+        }
+    }
+
+    /**
+     * Lets the players of a match quit, rejoin, switch teams and chat.
+     *
+     * @param arena The match.
+     */
+    private void tickPlayers(@Nonnull final Arena arena) {
+        List<Player> players = arena.players;
+        for (int i = this.count(players.size(), this.settings.churn); i > 0 && !players.isEmpty(); i--) {
+            this.disconnect(arena, this.random.nextInt(players.size()));
+            this.connect(arena);
+        }
+        for (int i = this.count(players.size(), this.settings.switches); i > 0 && !players.isEmpty(); i--) {
+            SimplePlayer player = this.lookUp(players.get(this.random.nextInt(players.size())));
+            if (player != null) {
+                List<SimpleTeam> teams = arena.teams;
+                arena.match.move(player, teams.get(this.random.nextInt(teams.size())));
+                this.operations++;
+            }
+        }
+        for (int i = this.count(players.size(), this.settings.chat); i > 0 && !players.isEmpty(); i--) {
+            SimplePlayer player = this.lookUp(players.get(this.random.nextInt(players.size())));
+            if (player != null) {
+                player.getTeam().broadcastMessage(player.getBukkit().getName() + ": gg");
+                this.operations++;
+            }
+        }
+    }
+
+    /**
+     * Moves a match along its lifecycle: counting down once it is idle and ready, ending once it has run for the
+     * match length, and cycling once it has ended.
+     *
+     * @param arena The match.
+     * @param tick  The current tick.
+     */
+    private void tickMatch(@Nonnull final Arena arena, final long tick) {
+        SimpleMatch match = arena.match;
+        Plugin plugin = this.server.getPlugin();
+        MatchState state = match.getState();
+        if (state == MatchState.IDLE && match.isReady()) {
+            match.startCountdown(plugin, COUNTDOWN_SECONDS);
+            this.operations++;
+        } else if (state == MatchState.RUNNING) {
+            if (arena.startTick < 0L) {
+                arena.startTick = tick;
+            } else if (tick - arena.startTick >= this.settings.matchLength) {
+                List<SimpleTeam> teams = arena.teams;
+                match.end(teams.get(this.random.nextInt(teams.size())));
+                arena.startTick = -1L;
+                this.operations++;
+            }
+        } else if (state == MatchState.FINISHED) {
+            match.cycle(plugin, COUNTDOWN_SECONDS);
+            this.operations++;
+        }
+    }
+
+    /**
+     * Connects a new player to a match's world, and puts them on the smallest participating team.
+     *
+     * @param arena The match.
+     */
+    private void connect(@Nonnull final Arena arena) {
+        Player bukkit = this.server.connect("player" + this.connections++, arena.world);
+        this.listener.onPlayerJoin(new PlayerJoinEvent(bukkit, null));
+        arena.players.add(bukkit);
+        SimplePlayer player = this.lookUp(bukkit);
+        if (player != null) {
+            arena.match.joinSmallestTeam(player);
+        }
+        this.operations++;
+    }
+
+    /**
+     * Disconnects one of a match's players.
+     *
+     * @param arena The match.
+     * @param index The position of the player in the match's list of players.
+     */
+    private void disconnect(@Nonnull final Arena arena, final int index) {
+        //  swap the last player into the gap rather than shifting the list
+        List<Player> players = arena.players;
+        Player bukkit = players.get(index);
+        players.set(index, players.get(players.size() - 1));
+        players.remove(players.size() - 1);
+        this.listener.onPlayerQuit(new PlayerQuitEvent(bukkit, null));
+        this.server.disconnect(bukkit);
+        this.operations++;
+    }
+
+    /**
+     * Looks up the backend's player for a Bukkit player.
+     *
+     * @param bukkit The Bukkit player.
+     * @return The player, or null if the player is not mapped.
+     */
+    private SimplePlayer lookUp(@Nonnull final Player bukkit) {
+        tc.oc.api.Player player = this.backend.getPlayer(bukkit);
+        return player instanceof SimplePlayer ? (SimplePlayer) player : null;
+    }
+
+    /**
+     * Picks how many of a group perform an action this tick, given how often each of them performs it on average.
+     *
+     * @param size The size of the group.
+     * @param rate How many times each member performs the action per tick, on average.
+     * @return The number of times the action is performed this tick.
+     */
+    private int count(final int size, final double rate) {
+        double expected = size * rate;
+        int count = (int) expected;
+        if (this.random.nextDouble() < expected - count) {
+            count++;
+        }
+        return count;
+    }
+
+    /**
+     * The settings of a workload.
+     */
+    public static final class Settings {
+
+        /**
+         * The number of matches, participating teams per match and players per match.
+         */
+        public int matches = 50, teams = 2, players = 40;
+        /**
+         * How many times per tick each player quits and is replaced, switches teams and chats, on average.
+         */
+        public double churn = 0.0005D, switches = 0.001D, chat = 0.005D;
+        /**
+         * How long each match runs before it is ended, in ticks.
+         */
+        public long matchLength = 1200L;
+        /**
+         * The seed of the random number generator.
+         */
+        public long seed = 1L;
+    }
+
+    /**
+     * A simulated match, with its world, its participating teams in the order they were created, and the players
+     * connected to it.
+     */
+    private static final class Arena {
+
+        private final World world;
+        private final SimpleMatch match;
+        private final List<SimpleTeam> teams;
+        private final List<Player> players;
+        private long startTick;
+
+        private Arena(@Nonnull final World world, @Nonnull final SimpleMatch match) {
+            this.world = world;
+            this.match = match;
+            this.teams = new ArrayList<SimpleTeam>();
+            this.players = new ArrayList<Player>();
+            this.startTick = -1L;
+        }
+    }
+}
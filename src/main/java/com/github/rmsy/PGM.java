@@ -1,17 +1,198 @@
 package com.github.rmsy;
 
 
+import com.github.rmsy.directory.DirectoryPublisher;
+import com.github.rmsy.directory.DirectoryTransport;
+import com.github.rmsy.directory.MatchDirectory;
+import com.github.rmsy.directory.UdpTransport;
+import com.github.rmsy.impl.BackendSnapshot;
 import com.github.rmsy.impl.SimpleBackend;
+import com.github.rmsy.listeners.BackendListener;
+import com.github.rmsy.listeners.MatchResultListener;
+import com.github.rmsy.metrics.MetricsBean;
+import com.github.rmsy.results.MatchLog;
+import com.github.rmsy.results.MatchResultStore;
 import org.bukkit.plugin.java.JavaPlugin;
 import tc.oc.api.backend.BackendManager;
 
+import javax.annotation.Nullable;
+import javax.management.JMException;
+import java.io.File;
+import java.io.IOException;
+import java.util.logging.Level;
+
 public class PGM extends JavaPlugin {
 
-    public void onDisable() {
+    /**
+     * How often teams are rebalanced, in ticks.
+     */
+    private static final long REBALANCE_PERIOD = 20L;
+    /**
+     * The name of the file the backend is saved to when the plugin is disabled.
+     */
+    private static final String SNAPSHOT_FILE = "backend.snapshot";
+    /**
+     * The system properties configuring the match directory: the comma-separated ports of the directories to publish
+     * this server's matches to, the port to listen on as a directory, and the ID to publish this server under, which
+     * defaults to its port.
+     */
+    private static final String DIRECTORY_TARGETS_PROPERTY = "pgm.directory.targets", DIRECTORY_LISTEN_PROPERTY = "pgm.directory.listen", DIRECTORY_SERVER_PROPERTY = "pgm.directory.server";
+    /**
+     * The backend, while the plugin is enabled.
+     */
+    private SimpleBackend backend;
+    /**
+     * The store match results are recorded in, while the plugin is enabled, or null if it could not be opened.
+     */
+    private MatchResultStore results;
+    /**
+     * The JMX bean publishing the plugin's metrics, while the plugin is enabled, or null if it could not be registered.
+     */
+    private MetricsBean metrics;
+    /**
+     * The transport carrying match directory packets, the publisher of this server's matches, and the directory of
+     * the matches on every server, while the plugin is enabled and each is configured.
+     */
+    private DirectoryTransport directoryTransport;
+    private DirectoryPublisher directoryPublisher;
+    private MatchDirectory directory;
 
+    /**
+     * Gets the directory of the matches on every server publishing to this one.
+     *
+     * @return The directory, or null if this server is not listening as a directory.
+     */
+    @Nullable
+    public MatchDirectory getDirectory() {
+        return this.directory;
+    }
+
+    public void onDisable() {
+        if (this.metrics != null) {
+            try {
+                this.metrics.unregister();
+            } catch (JMException exception) {
+                this.getLogger().log(Level.WARNING, "Could not unregister metrics bean", exception);
+            }
+            this.metrics = null;
+        }
+        if (this.directoryPublisher != null) {
+            this.directoryPublisher.stop();
+            this.directoryPublisher = null;
+        }
+        if (this.directoryTransport != null) {
+            try {
+                this.directoryTransport.close();
+            } catch (IOException exception) {
+                this.getLogger().log(Level.WARNING, "Could not close match directory transport", exception);
+            }
+            this.directoryTransport = null;
+            this.directory = null;
+        }
+        if (this.backend != null) {
+            this.backend.getExecutor().stop();
+            this.backend.getDispatcher().stop();
+            this.backend.getBus().stop();
+            try {
+                BackendSnapshot.save(this.backend, new File(this.getDataFolder(), SNAPSHOT_FILE));
+            } catch (IOException exception) {
+                this.getLogger().log(Level.WARNING, "Could not save backend snapshot; matches will not survive a reload", exception);
+            }
+            this.backend = null;
+        }
+        if (this.results != null) {
+            try {
+                this.results.close();
+            } catch (IOException exception) {
+                this.getLogger().log(Level.WARNING, "Could not close match log", exception);
+            }
+            this.results = null;
+        }
     }
 
     public void onEnable() {
-        BackendManager.setBackend(new SimpleBackend());
+        this.backend = new SimpleBackend();
+        this.backend.getDispatcher().start(this);
+        this.backend.getExecutor().start(this);
+        this.backend.getBus().start(this);
+        BackendManager.setBackend(this.backend);
+        try {
+            int restored = BackendSnapshot.restore(this.backend, this.getServer(), new File(this.getDataFolder(), SNAPSHOT_FILE));
+            if (restored > 0) {
+                this.getLogger().info("Restored " + restored + " match(es) from backend snapshot");
+            }
+        } catch (IOException exception) {
+            this.getLogger().log(Level.WARNING, "Could not restore backend snapshot", exception);
+        }
+        BackendListener listener = new BackendListener(this.backend);
+        listener.attachUnmapped(this.getServer().getOnlinePlayers());
+        this.getServer().getPluginManager().registerEvents(listener, this);
+        final SimpleBackend backend = this.backend;
+        this.getServer().getScheduler().runTaskTimer(this, new Runnable() {
+            @Override
+            public void run() {
+                backend.rebalanceMatches();
+            }
+        }, REBALANCE_PERIOD, REBALANCE_PERIOD);
+        MatchLog log = null;
+        try {
+            log = new MatchLog(new File(this.getDataFolder(), "matches"));
+        } catch (IOException exception) {
+            this.getLogger().log(Level.SEVERE, "Could not open match log; match results will not be recorded", exception);
+        }
+        if (log != null) {
+            try {
+                log.replay(this.backend.getStatistics());
+            } catch (IOException exception) {
+                this.getLogger().log(Level.WARNING, "Could not replay match log; match statistics will only cover new matches", exception);
+            }
+            if (log.getDamagedSegments() > 0) {
+                this.getLogger().warning("Skipped damaged records in " + log.getDamagedSegments() + " match log segment(s)");
+            }
+        }
+        this.results = log;
+        this.getServer().getPluginManager().registerEvents(new MatchResultListener(this.results, this.backend.getStatistics(), this.getLogger()), this);
+        this.metrics = new MetricsBean(this.backend);
+        try {
+            this.metrics.register();
+        } catch (JMException exception) {
+            this.getLogger().log(Level.WARNING, "Could not register metrics bean; metrics will not be available over JMX", exception);
+            this.metrics = null;
+        }
+        this.openDirectory();
+    }
+
+    /**
+     * Starts publishing this server's matches to the match directories, and listening as a directory, as configured by
+     * the directory system properties. Does nothing if neither is configured.
+     */
+    private void openDirectory() {
+        String targets = System.getProperty(DIRECTORY_TARGETS_PROPERTY);
+        String listen = System.getProperty(DIRECTORY_LISTEN_PROPERTY);
+        if (targets == null && listen == null) {
+            return;
+        }
+        try {
+            String[] targetNames = targets == null || targets.trim().isEmpty() ? new String[0] : targets.split(",");
+            int[] targetPorts = new int[targetNames.length];
+            for (int i = 0; i < targetNames.length; i++) {
+                targetPorts[i] = Integer.parseInt(targetNames[i].trim());
+            }
+            int listenPort = listen == null ? 0 : Integer.parseInt(listen.trim());
+            this.directoryTransport = new UdpTransport(listenPort, targetPorts);
+            if (listenPort != 0) {
+                MatchDirectory directory = new MatchDirectory();
+                this.directoryTransport.listen(directory);
+                this.directory = directory;
+            }
+            if (targetPorts.length > 0) {
+                this.directoryPublisher = new DirectoryPublisher(this.backend, this.directoryTransport, System.getProperty(DIRECTORY_SERVER_PROPERTY, String.valueOf(this.getServer().getPort())));
+                this.directoryPublisher.start(this);
+            }
+        } catch (IllegalArgumentException exception) {
+            this.getLogger().log(Level.SEVERE, "Invalid match directory configuration; matches will not be shared", exception);
+        } catch (IOException exception) {
+            this.getLogger().log(Level.SEVERE, "Could not open match directory transport; matches will not be shared", exception);
+        }
     }
 }
@@ -0,0 +1,50 @@
+package com.github.rmsy.change;
+
+import com.google.common.base.Preconditions;
+
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+
+/**
+ * A change to a match, team or player, published to a {@link ChangeBus}. Changes of the same type to the same subject
+ * published in the same tick are coalesced into one before they are delivered.
+ */
+public abstract class Change {
+
+    /**
+     * The match, team or player that changed.
+     */
+    @Nonnull
+    private final Object subject;
+
+    /**
+     * Creates a new Change.
+     *
+     * @param subject The match, team or player that changed.
+     */
+    protected Change(@Nonnull final Object subject) {
+        this.subject = Preconditions.checkNotNull(subject, "subject");
+    }
+
+    /**
+     * Gets the match, team or player that changed. Subjects are compared by identity.
+     *
+     * @return The subject.
+     */
+    @Nonnull
+    public Object getSubject() {
+        return this.subject;
+    }
+
+    /**
+     * Combines this change with a later change of the same type to the same subject. By default, the later change
+     * replaces this one.
+     *
+     * @param later The later change.
+     * @return The combined change, or null if the two changes cancel each other out.
+     */
+    @Nullable
+    protected Change coalesce(@Nonnull final Change later) {
+        return later;
+    }
+}
@@ -0,0 +1,269 @@
+package com.github.rmsy.change;
+
+import com.google.common.base.Preconditions;
+import org.bukkit.Bukkit;
+import org.bukkit.plugin.Plugin;
+import org.bukkit.scheduler.BukkitTask;
+
+import javax.annotation.Nonnull;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.logging.Level;
+
+/**
+ * Delivers changes to matches, teams and players to the listeners subscribed to them, once per tick and in batches.
+ * Changes of the same type to the same subject published in the same tick are coalesced, so that, for example, a team
+ * renamed three times in a tick is delivered as one change. Until the bus is started, changes are delivered
+ * immediately on the calling thread.
+ */
+public final class ChangeBus implements Runnable {
+
+    /**
+     * A bus that discards every change, used by matches and teams that have not been given one.
+     */
+    public static final ChangeBus NONE = new ChangeBus();
+    /**
+     * The subscribed listeners.
+     */
+    @Nonnull
+    private final List<Subscription<?>> subscriptions;
+    /**
+     * The callbacks run after every delivery.
+     */
+    @Nonnull
+    private final List<Runnable> deliveryCallbacks;
+    /**
+     * The changes published since the last tick, by type and subject, oldest first.
+     */
+    @Nonnull
+    private final Map<Key, Change> pending;
+    /**
+     * The task running the bus, or null if it is not started.
+     */
+    private volatile BukkitTask task;
+
+    /**
+     * Creates a new bus.
+     */
+    public ChangeBus() {
+        this.subscriptions = new CopyOnWriteArrayList<Subscription<?>>();
+        this.deliveryCallbacks = new CopyOnWriteArrayList<Runnable>();
+        this.pending = new LinkedHashMap<Key, Change>();
+    }
+
+    /**
+     * Starts delivering changes every tick.
+     *
+     * @param plugin The plugin to run the bus under.
+     * @throws IllegalStateException If the bus is already started.
+     */
+    public synchronized void start(@Nonnull final Plugin plugin) throws IllegalStateException {
+        Preconditions.checkState(this != NONE, "Discarding bus can not be started.");
+        Preconditions.checkState(this.task == null, "Bus is already started.");
+        this.task = Bukkit.getScheduler().runTaskTimer(Preconditions.checkNotNull(plugin, "plugin"), this, 1L, 1L);
+    }
+
+    /**
+     * Stops the bus, delivering all pending changes immediately. Changes published after the bus is stopped are
+     * delivered immediately as well.
+     */
+    public void stop() {
+        synchronized (this) {
+            if (this.task != null) {
+                this.task.cancel();
+                this.task = null;
+            }
+        }
+        this.run();
+    }
+
+    /**
+     * Subscribes a listener to changes of the specified type, and its subtypes.
+     *
+     * @param type     The type of change.
+     * @param listener The listener.
+     * @param <T>      The type of change.
+     * @throws IllegalStateException If this is the discarding bus.
+     */
+    public <T extends Change> void subscribe(@Nonnull final Class<T> type, @Nonnull final ChangeListener<T> listener) throws IllegalStateException {
+        Preconditions.checkState(this != NONE, "Can not subscribe to discarding bus.");
+        this.subscriptions.add(new Subscription<T>(Preconditions.checkNotNull(type, "type"), Preconditions.checkNotNull(listener, "listener")));
+    }
+
+    /**
+     * Adds a callback run after every delivery, once every listener has seen the changes delivered. Once the bus is
+     * started, callbacks run every tick, whether or not there were changes to deliver; until then, they run after each
+     * change is delivered.
+     *
+     * @param callback The callback.
+     * @throws IllegalStateException If this is the discarding bus.
+     */
+    public void addDeliveryCallback(@Nonnull final Runnable callback) throws IllegalStateException {
+        Preconditions.checkState(this != NONE, "Can not add callback to discarding bus.");
+        this.deliveryCallbacks.add(Preconditions.checkNotNull(callback, "callback"));
+    }
+
+    /**
+     * Unsubscribes a listener from every type of change it was subscribed to.
+     *
+     * @param listener The listener.
+     * @return Whether or not the listener was subscribed.
+     */
+    public boolean unsubscribe(@Nonnull final ChangeListener<?> listener) {
+        Preconditions.checkNotNull(listener, "listener");
+        List<Subscription<?>> removed = new ArrayList<Subscription<?>>();
+        for (Subscription<?> subscription : this.subscriptions) {
+            if (subscription.listener == listener) {
+                removed.add(subscription);
+            }
+        }
+        return this.subscriptions.removeAll(removed);
+    }
+
+    /**
+     * Publishes a change.
+     *
+     * @param change The change.
+     */
+    public void publish(@Nonnull final Change change) {
+        Preconditions.checkNotNull(change, "change");
+        if (this.subscriptions.isEmpty()) {
+            return;
+        } else if (this.task == null) {
+            this.deliver(Collections.singletonList(change));
+            return;
+        }
+
+        Key key = new Key(change);
+        synchronized (this.pending) {
+            Change previous = this.pending.get(key);
+            if (previous == null) {
+                this.pending.put(key, change);
+            } else {
+                //  keep the change's place in line, so that delivery order follows the first change to each subject
+                Change coalesced = previous.coalesce(change);
+                if (coalesced == null) {
+                    this.pending.remove(key);
+                } else {
+                    this.pending.put(key, coalesced);
+                }
+            }
+        }
+    }
+
+    /**
+     * Delivers the changes published since the last tick, and then runs the delivery callbacks.
+     */
+    @Override
+    public void run() {
+        List<Change> changes = null;
+        synchronized (this.pending) {
+            if (!this.pending.isEmpty()) {
+                changes = new ArrayList<Change>(this.pending.values());
+                this.pending.clear();
+            }
+        }
+        if (changes != null) {
+            this.deliver(changes);
+        } else {
+            this.runDeliveryCallbacks();
+        }
+    }
+
+    /**
+     * Delivers changes to each subscribed listener, and then runs the delivery callbacks.
+     *
+     * @param changes The changes, oldest first.
+     */
+    private void deliver(@Nonnull final List<Change> changes) {
+        for (Subscription<?> subscription : this.subscriptions) {
+            try {
+                subscription.deliver(changes);
+            } catch (RuntimeException exception) {
+                Bukkit.getLogger().log(Level.SEVERE, "Change listener threw an exception", exception);
+            }
+        }
+        this.runDeliveryCallbacks();
+    }
+
+    /**
+     * Runs each delivery callback.
+     */
+    private void runDeliveryCallbacks() {
+        for (Runnable callback : this.deliveryCallbacks) {
+            try {
+                callback.run();
+            } catch (RuntimeException exception) {
+                Bukkit.getLogger().log(Level.SEVERE, "Change bus callback threw an exception", exception);
+            }
+        }
+    }
+
+    /**
+     * A listener subscribed to a type of change.
+     *
+     * @param <T> The type of change.
+     */
+    private static final class Subscription<T extends Change> {
+
+        private final Class<T> type;
+        private final ChangeListener<T> listener;
+
+        private Subscription(@Nonnull final Class<T> type, @Nonnull final ChangeListener<T> listener) {
+            this.type = type;
+            this.listener = listener;
+        }
+
+        /**
+         * Delivers the changes of the subscribed type, if there are any.
+         *
+         * @param changes The changes, oldest first.
+         */
+        private void deliver(@Nonnull final List<Change> changes) {
+            List<T> matching = null;
+            for (Change change : changes) {
+                if (this.type.isInstance(change)) {
+                    if (matching == null) {
+                        matching = new ArrayList<T>();
+                    }
+                    matching.add(this.type.cast(change));
+                }
+            }
+            if (matching != null) {
+                this.listener.onChanges(Collections.unmodifiableList(matching));
+            }
+        }
+    }
+
+    /**
+     * Identifies the pending change of a given type to a given subject. Subjects are compared by identity.
+     */
+    private static final class Key {
+
+        private final Class<?> type;
+        private final Object subject;
+
+        private Key(@Nonnull final Change change) {
+            this.type = change.getClass();
+            this.subject = change.getSubject();
+        }
+
+        @Override
+        public boolean equals(Object object) {
+            if (!(object instanceof Key)) {
+                return false;
+            }
+            Key key = (Key) object;
+            return this.type == key.type && this.subject == key.subject;
+        }
+
+        @Override
+        public int hashCode() {
+            return 31 * this.type.hashCode() + System.identityHashCode(this.subject);
+        }
+    }
+}
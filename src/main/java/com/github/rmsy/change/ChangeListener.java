@@ -0,0 +1,19 @@
+package com.github.rmsy.change;
+
+import javax.annotation.Nonnull;
+import java.util.List;
+
+/**
+ * Receives changes from a {@link ChangeBus}.
+ *
+ * @param <T> The type of change received.
+ */
+public interface ChangeListener<T extends Change> {
+
+    /**
+     * Called once per tick with the changes published since the last tick, oldest first.
+     *
+     * @param changes The changes. Never empty.
+     */
+    void onChanges(@Nonnull List<T> changes);
+}
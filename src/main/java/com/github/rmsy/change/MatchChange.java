@@ -0,0 +1,76 @@
+package com.github.rmsy.change;
+
+import com.github.rmsy.impl.MatchState;
+import com.github.rmsy.impl.SimpleMatch;
+import com.google.common.base.Preconditions;
+
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+
+/**
+ * Published when a match moves from one state to another, such as when it starts or ends. Several moves in one tick
+ * are delivered as a single move from the first state to the last.
+ */
+public final class MatchChange extends Change {
+
+    /**
+     * The state the match moved from.
+     */
+    @Nonnull
+    private final MatchState oldState;
+    /**
+     * The state the match moved to.
+     */
+    @Nonnull
+    private final MatchState newState;
+
+    /**
+     * Creates a new MatchChange.
+     *
+     * @param match    The match.
+     * @param oldState The state the match moved from.
+     * @param newState The state the match moved to.
+     */
+    public MatchChange(@Nonnull final SimpleMatch match, @Nonnull final MatchState oldState, @Nonnull final MatchState newState) {
+        super(match);
+        this.oldState = Preconditions.checkNotNull(oldState, "old state");
+        this.newState = Preconditions.checkNotNull(newState, "new state");
+    }
+
+    /**
+     * Gets the match.
+     *
+     * @return The match.
+     */
+    @Nonnull
+    public SimpleMatch getMatch() {
+        return (SimpleMatch) this.getSubject();
+    }
+
+    /**
+     * Gets the state the match moved from.
+     *
+     * @return The old state.
+     */
+    @Nonnull
+    public MatchState getOldState() {
+        return this.oldState;
+    }
+
+    /**
+     * Gets the state the match moved to.
+     *
+     * @return The new state.
+     */
+    @Nonnull
+    public MatchState getNewState() {
+        return this.newState;
+    }
+
+    @Nullable
+    @Override
+    protected Change coalesce(@Nonnull final Change later) {
+        MatchState newState = ((MatchChange) later).newState;
+        return newState == this.oldState ? null : new MatchChange(this.getMatch(), this.oldState, newState);
+    }
+}
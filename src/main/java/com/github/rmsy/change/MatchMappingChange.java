@@ -0,0 +1,78 @@
+package com.github.rmsy.change;
+
+import com.github.rmsy.impl.SimpleMatch;
+
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+
+/**
+ * Published when a match is mapped to or removed from the backend. Changes in the same tick are delivered as the last
+ * one, except that a match that is mapped and removed again in the same tick is not delivered at all.
+ */
+public final class MatchMappingChange extends Change {
+
+    /**
+     * Whether the match was mapped (true) or removed (false).
+     */
+    private final boolean mapped;
+    /**
+     * Whether the first change to the match in this tick was a mapping (true) or a removal (false).
+     */
+    private final boolean firstMapped;
+
+    /**
+     * Creates a new MatchMappingChange.
+     *
+     * @param match  The match.
+     * @param mapped Whether the match was mapped (true) or removed (false).
+     */
+    public MatchMappingChange(@Nonnull final SimpleMatch match, final boolean mapped) {
+        this(match, mapped, mapped);
+    }
+
+    /**
+     * Creates a new MatchMappingChange standing for several changes in the same tick.
+     *
+     * @param match       The match.
+     * @param mapped      Whether the match was last mapped (true) or removed (false).
+     * @param firstMapped Whether the match was first mapped (true) or removed (false).
+     */
+    private MatchMappingChange(@Nonnull final SimpleMatch match, final boolean mapped, final boolean firstMapped) {
+        super(match);
+        this.mapped = mapped;
+        this.firstMapped = firstMapped;
+    }
+
+    /**
+     * Gets the match.
+     *
+     * @return The match.
+     */
+    @Nonnull
+    public SimpleMatch getMatch() {
+        return (SimpleMatch) this.getSubject();
+    }
+
+    /**
+     * Gets whether the match was mapped or removed.
+     *
+     * @return True if the match was mapped, false if it was removed.
+     */
+    public boolean isMapped() {
+        return this.mapped;
+    }
+
+    @Nullable
+    @Override
+    protected Change coalesce(@Nonnull final Change later) {
+        MatchMappingChange last = (MatchMappingChange) later;
+        if (this.firstMapped && !last.mapped) {
+            //  mapped and removed again, so there is nothing to deliver
+            return null;
+        } else if (this.firstMapped == last.firstMapped) {
+            return last;
+        } else {
+            return new MatchMappingChange(last.getMatch(), last.mapped, this.firstMapped);
+        }
+    }
+}
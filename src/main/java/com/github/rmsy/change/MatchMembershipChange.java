@@ -0,0 +1,32 @@
+package com.github.rmsy.change;
+
+import com.github.rmsy.impl.SimpleMatch;
+
+import javax.annotation.Nonnull;
+
+/**
+ * Published when players join or leave a match, or move between its teams, including moves made by the balancer. Any
+ * number of joins, leaves and moves in one tick are delivered as one change; the match's members, and their teams, can
+ * be read when it is delivered.
+ */
+public final class MatchMembershipChange extends Change {
+
+    /**
+     * Creates a new MatchMembershipChange.
+     *
+     * @param match The match.
+     */
+    public MatchMembershipChange(@Nonnull final SimpleMatch match) {
+        super(match);
+    }
+
+    /**
+     * Gets the match.
+     *
+     * @return The match.
+     */
+    @Nonnull
+    public SimpleMatch getMatch() {
+        return (SimpleMatch) this.getSubject();
+    }
+}
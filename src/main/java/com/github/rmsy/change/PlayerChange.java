@@ -0,0 +1,78 @@
+package com.github.rmsy.change;
+
+import tc.oc.api.Player;
+
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+
+/**
+ * Published when a player is mapped to or removed from the backend. Changes in the same tick are delivered as the last
+ * one, except that a player who is mapped and removed again in the same tick is not delivered at all.
+ */
+public final class PlayerChange extends Change {
+
+    /**
+     * Whether the player was mapped (true) or removed (false).
+     */
+    private final boolean mapped;
+    /**
+     * Whether the first change to the player in this tick was a mapping (true) or a removal (false).
+     */
+    private final boolean firstMapped;
+
+    /**
+     * Creates a new PlayerChange.
+     *
+     * @param player The player.
+     * @param mapped Whether the player was mapped (true) or removed (false).
+     */
+    public PlayerChange(@Nonnull final Player player, final boolean mapped) {
+        this(player, mapped, mapped);
+    }
+
+    /**
+     * Creates a new PlayerChange standing for several changes in the same tick.
+     *
+     * @param player      The player.
+     * @param mapped      Whether the player was last mapped (true) or removed (false).
+     * @param firstMapped Whether the player was first mapped (true) or removed (false).
+     */
+    private PlayerChange(@Nonnull final Player player, final boolean mapped, final boolean firstMapped) {
+        super(player);
+        this.mapped = mapped;
+        this.firstMapped = firstMapped;
+    }
+
+    /**
+     * Gets the player.
+     *
+     * @return The player.
+     */
+    @Nonnull
+    public Player getPlayer() {
+        return (Player) this.getSubject();
+    }
+
+    /**
+     * Gets whether the player was mapped or removed.
+     *
+     * @return True if the player was mapped, false if they were removed.
+     */
+    public boolean isMapped() {
+        return this.mapped;
+    }
+
+    @Nullable
+    @Override
+    protected Change coalesce(@Nonnull final Change later) {
+        PlayerChange last = (PlayerChange) later;
+        if (this.firstMapped && !last.mapped) {
+            //  mapped and removed again, so there is nothing to deliver
+            return null;
+        } else if (this.firstMapped == last.firstMapped) {
+            return last;
+        } else {
+            return new PlayerChange(last.getPlayer(), last.mapped, this.firstMapped);
+        }
+    }
+}
@@ -0,0 +1,72 @@
+package com.github.rmsy.change;
+
+import com.github.rmsy.impl.SimpleTeam;
+import com.google.common.base.Preconditions;
+
+import javax.annotation.Nonnull;
+
+/**
+ * Published when a team's name or color changes. Several changes in one tick are delivered as one; read the team's
+ * current name and color when handling it.
+ */
+public final class TeamChange extends Change {
+
+    /**
+     * Whether or not the team's name changed.
+     */
+    private final boolean nameChanged;
+    /**
+     * Whether or not the team's color changed.
+     */
+    private final boolean colorChanged;
+
+    /**
+     * Creates a new TeamChange.
+     *
+     * @param team         The team.
+     * @param nameChanged  Whether or not the team's name changed.
+     * @param colorChanged Whether or not the team's color changed.
+     * @throws IllegalArgumentException If neither the name nor the color changed.
+     */
+    public TeamChange(@Nonnull final SimpleTeam team, final boolean nameChanged, final boolean colorChanged) throws IllegalArgumentException {
+        super(team);
+        Preconditions.checkArgument(nameChanged || colorChanged, "Team change must change something.");
+        this.nameChanged = nameChanged;
+        this.colorChanged = colorChanged;
+    }
+
+    /**
+     * Gets the team.
+     *
+     * @return The team.
+     */
+    @Nonnull
+    public SimpleTeam getTeam() {
+        return (SimpleTeam) this.getSubject();
+    }
+
+    /**
+     * Gets whether or not the team's name changed.
+     *
+     * @return Whether or not the name changed.
+     */
+    public boolean isNameChanged() {
+        return this.nameChanged;
+    }
+
+    /**
+     * Gets whether or not the team's color changed.
+     *
+     * @return Whether or not the color changed.
+     */
+    public boolean isColorChanged() {
+        return this.colorChanged;
+    }
+
+    @Nonnull
+    @Override
+    protected Change coalesce(@Nonnull final Change later) {
+        TeamChange change = (TeamChange) later;
+        return new TeamChange(this.getTeam(), this.nameChanged || change.nameChanged, this.colorChanged || change.colorChanged);
+    }
+}
@@ -1,8 +1,13 @@
 package com.github.rmsy.commands;
 
+import com.github.rmsy.impl.MatchExecutor;
 import com.github.rmsy.impl.SimpleBackend;
 import com.github.rmsy.impl.SimpleMatch;
-import com.github.rmsy.util.LiquidMetal;
+import com.github.rmsy.impl.TeamMatcher;
+import com.github.rmsy.message.Messages;
+import com.github.rmsy.metrics.Histogram;
+import com.github.rmsy.metrics.Metrics;
+import com.github.rmsy.results.MatchStatistics;
 import com.google.common.base.Preconditions;
 import com.sk89q.minecraft.util.commands.*;
 import org.bukkit.World;
@@ -14,9 +19,12 @@ import tc.oc.api.Team;
 import tc.oc.api.backend.BackendManager;
 
 import javax.annotation.Nonnull;
+import java.util.ArrayList;
+import java.util.List;
 
 /**
- * Commands for handling matches.
+ * Commands for handling matches. Work that does not change a match, such as resolving team names, is done on the
+ * {@link MatchExecutor}'s worker, and only the change itself is committed on the main thread.
  */
 public final class MatchCommands {
     @Command(
@@ -27,12 +35,24 @@ public final class MatchCommands {
             max = 0
     )
     public static void createMatch(@Nonnull final CommandContext arguments, @Nonnull final CommandSender sender) throws CommandException {
-        World world = ((Player) Preconditions.checkNotNull(sender, "sender")).getWorld();
-        if (MatchManager.getMatch(world) != null) {
-            throw new WrappedCommandException(new IllegalStateException("Match can not be created in world where match is already present."));
-        } else {
-            ((SimpleBackend) BackendManager.getBackend()).mapMatch(world, new SimpleMatch(world));
-            sender.sendMessage(ChatColor.RED + "Match created.");
+        long start = System.nanoTime();
+        try {
+            World world = ((Player) Preconditions.checkNotNull(sender, "sender")).getWorld();
+            if (MatchManager.getMatch(world) != null) {
+                throw new WrappedCommandException(new IllegalStateException("Match can not be created in world where match is already present."));
+            } else {
+                try {
+                    ((SimpleBackend) BackendManager.getBackend()).createMatch(world);
+                } catch (IllegalStateException exception) {
+                    throw new WrappedCommandException(exception);
+                }
+                sender.sendMessage(Messages.MATCH_CREATED.render());
+            }
+        } catch (CommandException exception) {
+            Metrics.COMMAND_FAILURES.increment();
+            throw exception;
+        } finally {
+            Metrics.COMMANDS.recordSince(start);
         }
     }
 
@@ -44,17 +64,25 @@ public final class MatchCommands {
             max = 0
     )
     public static void startMatch(@Nonnull final CommandContext arguments, @Nonnull final CommandSender sender) throws CommandException {
-        Match match = MatchManager.getMatch(((Player) Preconditions.checkNotNull(sender, "sender")).getWorld());
-        if (match == null) {
-            throw new WrappedCommandException(new IllegalStateException("Match can not be started in world where no match is present."));
-        } else {
-            try {
-                if (!match.start()) {
-                    throw new WrappedCommandException(new IllegalStateException("Match can not be started when not enough teams are ready."));
+        long start = System.nanoTime();
+        try {
+            Match match = MatchManager.getMatch(((Player) Preconditions.checkNotNull(sender, "sender")).getWorld());
+            if (match == null) {
+                throw new WrappedCommandException(new IllegalStateException("Match can not be started in world where no match is present."));
+            } else {
+                try {
+                    if (!match.start()) {
+                        throw new WrappedCommandException(new IllegalStateException("Match can not be started when not enough teams are ready."));
+                    }
+                } catch (IllegalStateException exception) {
+                    throw new WrappedCommandException(exception);
                 }
-            } catch (IllegalStateException exception) {
-                throw new WrappedCommandException(exception);
             }
+        } catch (CommandException exception) {
+            Metrics.COMMAND_FAILURES.increment();
+            throw exception;
+        } finally {
+            Metrics.COMMANDS.recordSince(start);
         }
     }
 
@@ -66,31 +94,162 @@ public final class MatchCommands {
             max = -1
     )
     public static void endMatch(@Nonnull final CommandContext arguments, @Nonnull final CommandSender sender) throws CommandException {
-        Team winningTeam = null;
-        Match match = MatchManager.getMatch(((Player) Preconditions.checkNotNull(sender, "sender")).getWorld());
-        if (Preconditions.checkNotNull(arguments, "arguments").argsLength() >= 1) {
-            String userTeam = arguments.getJoinedStrings(0);
-            double highestScore = 0.0;
-            Team highestScoringTeam = null;
-            for (Team team : match.getParticipatingTeams()) {
-                double score = LiquidMetal.score(team.getName(), userTeam);
-                if (score > highestScore && score >= LiquidMetal.SCORE_TRAILING_BUT_STARTED) {
-                    highestScore = score;
-                    highestScoringTeam = team;
+        final long start = System.nanoTime();
+        //  once the work is submitted, the command is timed by whichever commit finishes it
+        boolean submitted = false;
+        try {
+            final World world = ((Player) Preconditions.checkNotNull(sender, "sender")).getWorld();
+            final Match match = MatchManager.getMatch(world);
+            if (match == null) {
+                throw new WrappedCommandException(new IllegalStateException("Match can not be ended in world where no match is present."));
+            }
+            //  the match may be removed, and recycled, before the commit runs
+            final int generation = match instanceof SimpleMatch ? ((SimpleMatch) match).getGeneration() : 0;
+            final String teamName = Preconditions.checkNotNull(arguments, "arguments").argsLength() >= 1 ? arguments.getJoinedStrings(0) : null;
+            //  teams may only be read on the main thread, so the team is resolved against a copy of their names
+            final List<Team> teams = new ArrayList<Team>(match.getParticipatingTeams());
+            final String[] names = new String[teams.size()];
+            final String[] lowerNames = new String[teams.size()];
+            for (int i = 0; i < names.length; i++) {
+                names[i] = teams.get(i).getName();
+                lowerNames[i] = TeamMatcher.getLowerCaseName(teams.get(i));
+            }
+            final MatchExecutor executor = ((SimpleBackend) BackendManager.getBackend()).getExecutor();
+            executor.execute(new Runnable() {
+                @Override
+                public void run() {
+                    int index = teamName == null ? -1 : TeamMatcher.match(names, lowerNames, teamName);
+                    if (teamName != null && index == -1) {
+                        fail(executor, sender, "Match can not be ended in favor of a non-existent team.", start);
+                        return;
+                    }
+                    final Team winningTeam = index == -1 ? null : teams.get(index);
+                    executor.commit(new Runnable() {
+                        @Override
+                        public void run() {
+                            if (MatchManager.getMatch(world) != match || (match instanceof SimpleMatch && ((SimpleMatch) match).getGeneration() != generation)) {
+                                failNow(sender, "Match was removed before it could be ended.", start);
+                                return;
+                            }
+                            if (!match.isRunning()) {
+                                failNow(sender, "Match can not be ended when not running.", start);
+                                return;
+                            }
+                            if (winningTeam != null && !match.getParticipatingTeams().contains(winningTeam)) {
+                                failNow(sender, "Match can not be ended in favor of a team that is no longer participating.", start);
+                                return;
+                            }
+                            try {
+                                match.end(winningTeam);
+                            } catch (IllegalStateException exception) {
+                                failNow(sender, exception.getMessage(), start);
+                                return;
+                            }
+                            Metrics.COMMANDS.recordSince(start);
+                        }
+                    });
                 }
+            });
+            submitted = true;
+        } catch (CommandException exception) {
+            Metrics.COMMAND_FAILURES.increment();
+            throw exception;
+        } finally {
+            if (!submitted) {
+                Metrics.COMMANDS.recordSince(start);
             }
+        }
+    }
 
-            if (highestScoringTeam != null) {
-                winningTeam = highestScoringTeam;
-            } else {
-                throw new WrappedCommandException(new IllegalArgumentException("Match can not be ended in favor of a non-existent team."));
+    /**
+     * Reports the failure of a command from off of the main thread.
+     *
+     * @param executor The executor to report the failure through.
+     * @param sender   The sender of the command.
+     * @param message  The reason the command failed.
+     * @param start    When the command started, from {@link System#nanoTime()}.
+     */
+    private static void fail(@Nonnull final MatchExecutor executor, @Nonnull final CommandSender sender, @Nonnull final String message, final long start) {
+        executor.commit(new Runnable() {
+            @Override
+            public void run() {
+                failNow(sender, message, start);
+            }
+        });
+    }
+
+    /**
+     * Reports the failure of a command on the main thread, and records how long it took.
+     *
+     * @param sender  The sender of the command.
+     * @param message The reason the command failed.
+     * @param start   When the command started, from {@link System#nanoTime()}.
+     */
+    private static void failNow(@Nonnull final CommandSender sender, @Nonnull final String message, final long start) {
+        Metrics.COMMAND_FAILURES.increment();
+        Metrics.COMMANDS.recordSince(start);
+        sender.sendMessage(Messages.COMMAND_FAILED.render(message));
+    }
+
+    @Command(
+            aliases = {"stats", "metrics"},
+            desc = "Shows match and backend metrics.",
+            anyFlags = false,
+            min = 0,
+            max = 0
+    )
+    public static void showStats(@Nonnull final CommandContext arguments, @Nonnull final CommandSender sender) throws CommandException {
+        SimpleBackend backend = (SimpleBackend) BackendManager.getBackend();
+        Preconditions.checkNotNull(sender, "sender");
+        sender.sendMessage(Messages.STATS_POPULATION.render(backend.getMatchCount(), backend.getPlayerCount()));
+        sender.sendMessage(Messages.STATS_LOOKUPS.render(Metrics.PLAYER_LOOKUPS.get(), Metrics.PARTICIPATING_PLAYER_QUERIES.get()));
+        sendHistogram(sender, "Match broadcasts", Metrics.MATCH_BROADCASTS);
+        sendHistogram(sender, "Team broadcasts", Metrics.TEAM_BROADCASTS);
+        sendHistogram(sender, "Commands", Metrics.COMMANDS);
+        sender.sendMessage(Messages.STATS_FAILURES.render(Metrics.COMMAND_FAILURES.get()));
+        sender.sendMessage(Messages.STATS_BROADCAST_QUEUE.render(backend.getDispatcher().getQueueDepth(), formatNanos(backend.getDispatcher().getAverageLatency())));
+        if (sender instanceof Player) {
+            World world = ((Player) sender).getWorld();
+            Match match = MatchManager.getMatch(world);
+            if (match != null) {
+                if (match instanceof SimpleMatch) {
+                    SimpleMatch simpleMatch = (SimpleMatch) match;
+                    sender.sendMessage(Messages.STATS_MATCH.render(simpleMatch.getBroadcastCount(), formatNanos(simpleMatch.getMeanBroadcastTime()), simpleMatch.getParticipatingPlayerQueries()));
+                }
+                MatchStatistics statistics = backend.getStatistics();
+                for (Team team : match.getParticipatingTeams()) {
+                    String name = team.getName();
+                    sender.sendMessage(Messages.STATS_TEAM_RECORD.render(team.getColoredName(), statistics.getWins(world.getName(), name), statistics.getLosses(world.getName(), name), statistics.getMatchesPlayed(world.getName(), name)));
+                }
             }
         }
+    }
 
-        try {
-            match.end(winningTeam);
-        } catch (IllegalStateException exception) {
-            throw new WrappedCommandException(exception);
+    /**
+     * Sends a one-line summary of a histogram.
+     *
+     * @param sender    The sender to send the summary to.
+     * @param name      The name of the histogram.
+     * @param histogram The histogram.
+     */
+    private static void sendHistogram(@Nonnull final CommandSender sender, @Nonnull final String name, @Nonnull final Histogram histogram) {
+        sender.sendMessage(Messages.STATS_HISTOGRAM.render(name, histogram.getCount(), formatNanos(histogram.getMean()), formatNanos(histogram.getPercentile(99.0))));
+    }
+
+    /**
+     * Formats a duration for display.
+     *
+     * @param nanos The duration, in nanoseconds.
+     * @return The formatted duration.
+     */
+    @Nonnull
+    private static String formatNanos(final long nanos) {
+        if (nanos == Long.MAX_VALUE) {
+            return "\u221e";
+        } else if (nanos < 1000000L) {
+            return String.format("%.1f\u00b5s", nanos / 1000.0);
+        } else {
+            return String.format("%.1fms", nanos / 1000000.0);
         }
     }
 
@@ -100,7 +259,7 @@ public final class MatchCommands {
                 desc = "Command for handling matches.",
                 min = 1,
                 max = -1,
-                usage = "<create | start | end [team]>"
+                usage = "<create | start | end [team] | stats>"
         )
         @NestedCommand(value = MatchCommands.class, executeBody = false)
         public static void matchCommands(@Nonnull final CommandContext arguments, @Nonnull final CommandSender sender) {
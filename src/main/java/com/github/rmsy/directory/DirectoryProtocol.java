@@ -0,0 +1,43 @@
+package com.github.rmsy.directory;
+
+/**
+ * The format of match directory packets.
+ * <p/>
+ * Every packet starts with a header: {@link #MAGIC}, {@link #FORMAT_VERSION}, the packet's kind, the publishing
+ * server's ID, its epoch (when the publisher started, so that a restarted server is told apart from reordered packets)
+ * and the packet's sequence number, which goes up by one with every packet the publisher sends. Snapshot packets then
+ * give the sequence number of the first packet of their snapshot and whether they are its last packet. The header is
+ * followed by a count of entries, each an operation, a match's unique ID and, for {@link #PUT}, the match's world name
+ * (cut to {@link #MAX_WORLD_NAME_LENGTH} characters, so that any entry fits in a packet), state and player count.
+ */
+final class DirectoryProtocol {
+
+    /**
+     * The first bytes of a packet: "PGMD".
+     */
+    static final int MAGIC = 0x50474D44;
+    /**
+     * The version of the packet format.
+     */
+    static final byte FORMAT_VERSION = 1;
+    /**
+     * The kinds of packet: changes since the last packet, part of a snapshot of every match on the server, and notice
+     * that the server has stopped publishing.
+     */
+    static final byte DELTA = 0, SNAPSHOT = 1, GOODBYE = 2;
+    /**
+     * The operations of an entry: a match's listing was added or changed, or the match was removed.
+     */
+    static final byte PUT = 0, REMOVE = 1;
+    /**
+     * The largest player count a listing can carry.
+     */
+    static final int MAX_PLAYER_COUNT = 0xFFFF;
+    /**
+     * The longest world name a listing can carry, in characters.
+     */
+    static final int MAX_WORLD_NAME_LENGTH = 64;
+
+    private DirectoryProtocol() {
+    }
+}
@@ -0,0 +1,367 @@
+package com.github.rmsy.directory;
+
+import com.github.rmsy.change.Change;
+import com.github.rmsy.change.ChangeListener;
+import com.github.rmsy.change.MatchChange;
+import com.github.rmsy.change.MatchMappingChange;
+import com.github.rmsy.change.MatchMembershipChange;
+import com.github.rmsy.impl.SimpleBackend;
+import com.github.rmsy.impl.SimpleMatch;
+import com.github.rmsy.util.HandleTable;
+import com.google.common.base.Preconditions;
+import org.bukkit.Bukkit;
+import org.bukkit.plugin.Plugin;
+import org.bukkit.scheduler.BukkitTask;
+import tc.oc.api.Match;
+
+import javax.annotation.Nonnull;
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.util.IdentityHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Publishes the matches of a {@link SimpleBackend} to match directories. Changes to matches arrive from the backend's
+ * {@link com.github.rmsy.change.ChangeBus} once per tick, already coalesced, and only the matches whose listing
+ * actually changed are sent, together in as few packets as fit. Every {@link #SNAPSHOT_PERIOD} ticks, a snapshot of
+ * every match is sent as well, so that directories that started late or lost a packet catch up.
+ */
+public final class DirectoryPublisher implements ChangeListener<Change> {
+
+    /**
+     * How often a snapshot of every match is sent, in ticks.
+     */
+    public static final long SNAPSHOT_PERIOD = 100L;
+    /**
+     * The backend whose matches are published.
+     */
+    @Nonnull
+    private final SimpleBackend backend;
+    /**
+     * The transport packets are sent over.
+     */
+    @Nonnull
+    private final DirectoryTransport transport;
+    /**
+     * The ID the server is listed under.
+     */
+    @Nonnull
+    private final String server;
+    /**
+     * When the publisher was created, in milliseconds since the epoch, which tells a restarted server's packets apart.
+     */
+    private final long epoch;
+    /**
+     * The size of a packet header, in bytes, which is the same for every packet but depends on the server's ID.
+     */
+    private final int headerSize;
+    /**
+     * The state and player count last published for each match, packed by {@link #pack(SimpleMatch)}.
+     */
+    @Nonnull
+    private final Map<SimpleMatch, Integer> published;
+    /**
+     * The sequence number of the last packet sent.
+     */
+    private long sequence;
+    /**
+     * The task sending snapshots, and the logger failures are reported to, while the publisher is started.
+     */
+    private BukkitTask task;
+    private Logger logger;
+
+    /**
+     * Creates a new publisher.
+     *
+     * @param backend   The backend whose matches are published.
+     * @param transport The transport packets are sent over.
+     * @param server    The ID the server is listed under.
+     */
+    public DirectoryPublisher(@Nonnull final SimpleBackend backend, @Nonnull final DirectoryTransport transport, @Nonnull final String server) {
+        this.backend = Preconditions.checkNotNull(backend, "backend");
+        this.transport = Preconditions.checkNotNull(transport, "transport");
+        this.server = Preconditions.checkNotNull(server, "server");
+        this.epoch = System.currentTimeMillis();
+        this.published = new IdentityHashMap<SimpleMatch, Integer>();
+        ByteArrayOutputStream header = new ByteArrayOutputStream();
+        try {
+            this.writeHeader(new DataOutputStream(header), DirectoryProtocol.SNAPSHOT, 0L, 0L, false, 0);
+        } catch (IOException exception) {
+            throw new IllegalStateException(exception);
+        }
+        this.headerSize = header.size();
+        Preconditions.checkArgument(this.headerSize <= DirectoryTransport.MAX_PACKET_SIZE / 2, "Server ID is too long.");
+    }
+
+    /**
+     * Starts publishing: subscribes to the backend's changes, and sends a snapshot now and every
+     * {@link #SNAPSHOT_PERIOD} ticks.
+     *
+     * @param plugin The plugin to run the publisher under.
+     * @throws IllegalStateException If the publisher is already started.
+     */
+    public void start(@Nonnull final Plugin plugin) throws IllegalStateException {
+        Preconditions.checkState(this.task == null, "Publisher is already started.");
+        this.logger = Preconditions.checkNotNull(plugin, "plugin").getLogger();
+        this.backend.getBus().subscribe(Change.class, this);
+        this.task = Bukkit.getScheduler().runTaskTimer(plugin, new Runnable() {
+            @Override
+            public void run() {
+                DirectoryPublisher.this.publishSnapshot();
+            }
+        }, 0L, SNAPSHOT_PERIOD);
+    }
+
+    /**
+     * Stops publishing, and tells the directories that the server's matches are gone.
+     */
+    public void stop() {
+        if (this.task != null) {
+            this.task.cancel();
+            this.task = null;
+            this.backend.getBus().unsubscribe(this);
+            this.published.clear();
+            new PacketBuilder(DirectoryProtocol.GOODBYE).finish(true);
+        }
+    }
+
+    /**
+     * Publishes the matches whose listing changed in the last tick.
+     *
+     * @param changes The changes.
+     */
+    @Override
+    public void onChanges(@Nonnull final List<Change> changes) {
+        Set<SimpleMatch> changed = new LinkedHashSet<SimpleMatch>();
+        for (Change change : changes) {
+            if (change instanceof MatchChange) {
+                changed.add(((MatchChange) change).getMatch());
+            } else if (change instanceof MatchMappingChange) {
+                changed.add(((MatchMappingChange) change).getMatch());
+            } else if (change instanceof MatchMembershipChange) {
+                changed.add(((MatchMembershipChange) change).getMatch());
+            }
+        }
+
+        PacketBuilder packet = new PacketBuilder(DirectoryProtocol.DELTA);
+        for (SimpleMatch match : changed) {
+            if (match.getHandle() != HandleTable.NO_HANDLE) {
+                Integer listing = pack(match);
+                if (!listing.equals(this.published.put(match, listing))) {
+                    packet.put(match);
+                }
+            } else if (this.published.remove(match) != null) {
+                packet.remove(match.getUUID());
+            }
+        }
+        packet.finish(false);
+    }
+
+    /**
+     * Sends a snapshot of every match.
+     */
+    public void publishSnapshot() {
+        this.published.clear();
+        PacketBuilder packet = new PacketBuilder(DirectoryProtocol.SNAPSHOT);
+        for (Match match : this.backend.getMatches()) {
+            if (match instanceof SimpleMatch) {
+                this.published.put((SimpleMatch) match, pack((SimpleMatch) match));
+                packet.put((SimpleMatch) match);
+            }
+        }
+        packet.finish(true);
+    }
+
+    /**
+     * Sends a packet, reporting any failure. A packet that can not be sent is dropped, and the rest of the batch is
+     * still sent.
+     *
+     * @param packet The packet.
+     */
+    private void send(@Nonnull final byte[] packet) {
+        try {
+            this.transport.send(packet);
+        } catch (IOException exception) {
+            this.getLogger().log(Level.WARNING, "Could not send match directory packet", exception);
+        } catch (IllegalArgumentException exception) {
+            this.getLogger().log(Level.WARNING, "Could not send match directory packet of " + packet.length + " bytes", exception);
+        }
+    }
+
+    /**
+     * Gets the logger failures are reported to.
+     *
+     * @return The plugin's logger, or the server's if the publisher has not been started.
+     */
+    @Nonnull
+    private Logger getLogger() {
+        return this.logger != null ? this.logger : Bukkit.getLogger();
+    }
+
+    /**
+     * Cuts a string to the specified number of characters, without splitting a surrogate pair.
+     *
+     * @param string    The string.
+     * @param maxLength The largest number of characters to keep.
+     * @return The string, or its first characters if it is too long.
+     */
+    @Nonnull
+    private static String truncate(@Nonnull final String string, final int maxLength) {
+        if (string.length() <= maxLength) {
+            return string;
+        }
+        int length = Character.isHighSurrogate(string.charAt(maxLength - 1)) ? maxLength - 1 : maxLength;
+        return string.substring(0, length);
+    }
+
+    /**
+     * Writes a packet header.
+     *
+     * @param out           The packet.
+     * @param kind          The kind of packet.
+     * @param sequence      The packet's sequence number.
+     * @param snapshotStart The sequence number of the first packet of the snapshot, for snapshot packets.
+     * @param last          Whether or not this is the last packet of the snapshot, for snapshot packets.
+     * @param count         The number of entries that follow.
+     * @throws IOException If the header could not be written.
+     */
+    private void writeHeader(@Nonnull final DataOutputStream out, final byte kind, final long sequence, final long snapshotStart, final boolean last, final int count) throws IOException {
+        out.writeInt(DirectoryProtocol.MAGIC);
+        out.writeByte(DirectoryProtocol.FORMAT_VERSION);
+        out.writeByte(kind);
+        out.writeUTF(this.server);
+        out.writeLong(this.epoch);
+        out.writeLong(sequence);
+        if (kind == DirectoryProtocol.SNAPSHOT) {
+            out.writeLong(snapshotStart);
+            out.writeBoolean(last);
+        }
+        out.writeShort(count);
+    }
+
+    /**
+     * Packs the parts of a match's listing that change into one value, so that unchanged listings are not resent.
+     *
+     * @param match The match.
+     * @return The match's state and player count.
+     */
+    @Nonnull
+    private static Integer pack(@Nonnull final SimpleMatch match) {
+        return (match.getState().ordinal() << 16) | Math.min(match.getPlayers().size(), DirectoryProtocol.MAX_PLAYER_COUNT);
+    }
+
+    /**
+     * Builds the packets of one batch of entries, sending a packet whenever the next entry would not fit.
+     */
+    private final class PacketBuilder {
+
+        private final byte kind;
+        private final ByteArrayOutputStream entries;
+        private final DataOutputStream out;
+        private final long snapshotStart;
+        private int count;
+
+        private PacketBuilder(final byte kind) {
+            this.kind = kind;
+            this.entries = new ByteArrayOutputStream(DirectoryTransport.MAX_PACKET_SIZE);
+            this.out = new DataOutputStream(this.entries);
+            this.snapshotStart = DirectoryPublisher.this.sequence + 1L;
+        }
+
+        /**
+         * Adds a match's listing.
+         *
+         * @param match The match.
+         */
+        private void put(@Nonnull final SimpleMatch match) {
+            int mark = this.entries.size();
+            try {
+                this.out.writeByte(DirectoryProtocol.PUT);
+                this.out.writeLong(match.getUUID().getMostSignificantBits());
+                this.out.writeLong(match.getUUID().getLeastSignificantBits());
+                this.out.writeUTF(truncate(match.getWorld().getName(), DirectoryProtocol.MAX_WORLD_NAME_LENGTH));
+                this.out.writeByte(match.getState().ordinal());
+                this.out.writeShort(Math.min(match.getPlayers().size(), DirectoryProtocol.MAX_PLAYER_COUNT));
+            } catch (IOException exception) {
+                //  never thrown when writing to memory
+                throw new IllegalStateException(exception);
+            }
+            this.entryAdded(mark);
+        }
+
+        /**
+         * Adds the removal of a match.
+         *
+         * @param uuid The match's unique ID.
+         */
+        private void remove(@Nonnull final UUID uuid) {
+            int mark = this.entries.size();
+            try {
+                this.out.writeByte(DirectoryProtocol.REMOVE);
+                this.out.writeLong(uuid.getMostSignificantBits());
+                this.out.writeLong(uuid.getLeastSignificantBits());
+            } catch (IOException exception) {
+                throw new IllegalStateException(exception);
+            }
+            this.entryAdded(mark);
+        }
+
+        /**
+         * Sends the entries before the one just added if that entry made the packet too large, and carries the entry
+         * over to the next packet.
+         *
+         * @param mark The size of the entries before the entry was added.
+         */
+        private void entryAdded(final int mark) {
+            if (DirectoryPublisher.this.headerSize + this.entries.size() > DirectoryTransport.MAX_PACKET_SIZE && this.count > 0) {
+                byte[] all = this.entries.toByteArray();
+                DirectoryPublisher.this.send(this.build(all, mark, false));
+                this.entries.reset();
+                this.entries.write(all, mark, all.length - mark);
+                this.count = 0;
+            }
+            this.count++;
+        }
+
+        /**
+         * Sends the last packet of the batch.
+         *
+         * @param always Whether or not to send the packet even if it has no entries.
+         */
+        private void finish(final boolean always) {
+            if (this.count > 0 || always) {
+                DirectoryPublisher.this.send(this.build(this.entries.toByteArray(), this.entries.size(), true));
+                this.entries.reset();
+                this.count = 0;
+            }
+        }
+
+        /**
+         * Builds a packet, giving it the next sequence number.
+         *
+         * @param entries The encoded entries.
+         * @param length  The length of the entries to include.
+         * @param last    Whether or not this is the last packet of the batch.
+         * @return The packet.
+         */
+        @Nonnull
+        private byte[] build(@Nonnull final byte[] entries, final int length, final boolean last) {
+            ByteArrayOutputStream bytes = new ByteArrayOutputStream(DirectoryPublisher.this.headerSize + length);
+            DataOutputStream packet = new DataOutputStream(bytes);
+            try {
+                DirectoryPublisher.this.writeHeader(packet, this.kind, ++DirectoryPublisher.this.sequence, this.snapshotStart, last, this.count);
+                packet.write(entries, 0, length);
+            } catch (IOException exception) {
+                throw new IllegalStateException(exception);
+            }
+            return bytes.toByteArray();
+        }
+    }
+}
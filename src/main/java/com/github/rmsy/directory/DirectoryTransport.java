@@ -0,0 +1,51 @@
+package com.github.rmsy.directory;
+
+import javax.annotation.Nonnull;
+import java.io.Closeable;
+import java.io.IOException;
+
+/**
+ * Carries match directory packets between the servers publishing their matches and the directories listening for
+ * them. Delivery is best effort: packets may be lost, duplicated or reordered, which the packet format is designed to
+ * survive.
+ */
+public interface DirectoryTransport extends Closeable {
+
+    /**
+     * The largest packet a transport must be able to carry, in bytes. Publishers split their updates into packets no
+     * larger than this, which keeps each one within a single loopback datagram.
+     */
+    int MAX_PACKET_SIZE = 8192;
+
+    /**
+     * Sends a packet to every directory listening.
+     *
+     * @param packet The packet, at most {@link #MAX_PACKET_SIZE} bytes long.
+     * @throws IOException              If the packet could not be sent.
+     * @throws IllegalArgumentException If the packet is longer than {@link #MAX_PACKET_SIZE} bytes.
+     */
+    void send(@Nonnull byte[] packet) throws IOException, IllegalArgumentException;
+
+    /**
+     * Starts passing the packets sent to this transport to the specified receiver.
+     *
+     * @param receiver The receiver.
+     * @throws IOException If the transport could not start listening.
+     */
+    void listen(@Nonnull Receiver receiver) throws IOException;
+
+    /**
+     * Receives packets from a transport.
+     */
+    interface Receiver {
+
+        /**
+         * Handles a received packet. May be called from a thread other than the main thread. The transport may reuse
+         * the array once this returns, so the receiver must not hold on to it.
+         *
+         * @param packet The array holding the packet, from its start.
+         * @param length The length of the packet.
+         */
+        void receive(@Nonnull byte[] packet, int length);
+    }
+}
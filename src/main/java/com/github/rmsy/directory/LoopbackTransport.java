@@ -0,0 +1,48 @@
+package com.github.rmsy.directory;
+
+import com.google.common.base.Preconditions;
+
+import javax.annotation.Nonnull;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+/**
+ * A transport that delivers packets within the JVM, synchronously and in order, to every receiver listening on it. Used
+ * to run a publisher and a directory together without a socket, such as in tests and the simulator.
+ */
+public final class LoopbackTransport implements DirectoryTransport {
+
+    /**
+     * The receivers listening.
+     */
+    @Nonnull
+    private final List<Receiver> receivers;
+
+    /**
+     * Creates a new transport with no receivers.
+     */
+    public LoopbackTransport() {
+        this.receivers = new CopyOnWriteArrayList<Receiver>();
+    }
+
+    @Override
+    public void send(@Nonnull final byte[] packet) {
+        Preconditions.checkArgument(Preconditions.checkNotNull(packet, "packet").length <= MAX_PACKET_SIZE, "Packet is too large.");
+        for (Receiver receiver : this.receivers) {
+            receiver.receive(packet, packet.length);
+        }
+    }
+
+    @Override
+    public void listen(@Nonnull final Receiver receiver) {
+        this.receivers.add(Preconditions.checkNotNull(receiver, "receiver"));
+    }
+
+    /**
+     * Stops delivering packets to every receiver.
+     */
+    @Override
+    public void close() {
+        this.receivers.clear();
+    }
+}
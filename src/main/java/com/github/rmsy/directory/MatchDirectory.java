@@ -0,0 +1,257 @@
+package com.github.rmsy.directory;
+
+import com.github.rmsy.impl.MatchState;
+import com.google.common.base.Preconditions;
+
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import java.io.ByteArrayInputStream;
+import java.io.DataInputStream;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * A view of the matches on every server publishing to it through a {@link DirectoryTransport}, such as for a lobby to
+ * list. Packets are applied as they arrive, and those arriving out of order are dropped, so each listing only moves
+ * forward. A listing missed because a packet was lost is corrected by the next snapshot, which also removes the
+ * listings of matches that are gone, provided every packet of the snapshot arrived. Servers that stop sending are
+ * dropped after a timeout.
+ * <p/>
+ * Safe for use from multiple threads.
+ */
+public final class MatchDirectory implements DirectoryTransport.Receiver {
+
+    /**
+     * The default time after which a server that has sent nothing is dropped, in milliseconds: three snapshot periods.
+     */
+    public static final long DEFAULT_TIMEOUT = 15000L;
+    /**
+     * The time after which a server that has sent nothing is dropped, in milliseconds.
+     */
+    private final long timeout;
+    /**
+     * The servers publishing, by ID.
+     */
+    @Nonnull
+    private final Map<String, ServerView> servers;
+    /**
+     * Every listing, by match unique ID.
+     */
+    @Nonnull
+    private final Map<UUID, MatchListing> listings;
+    /**
+     * The number of packets that were dropped because they were malformed, out of order or duplicated.
+     */
+    private long droppedPackets;
+
+    /**
+     * Creates a new, empty directory with the {@link #DEFAULT_TIMEOUT}.
+     */
+    public MatchDirectory() {
+        this(DEFAULT_TIMEOUT);
+    }
+
+    /**
+     * Creates a new, empty directory.
+     *
+     * @param timeout The time after which a server that has sent nothing is dropped, in milliseconds.
+     */
+    public MatchDirectory(final long timeout) {
+        Preconditions.checkArgument(timeout > 0L, "Timeout must be positive.");
+        this.timeout = timeout;
+        this.servers = new HashMap<String, ServerView>();
+        this.listings = new HashMap<UUID, MatchListing>();
+    }
+
+    /**
+     * Gets every listing.
+     *
+     * @return A copy of the listings of every match on every server.
+     */
+    @Nonnull
+    public synchronized List<MatchListing> getListings() {
+        this.expire();
+        return new ArrayList<MatchListing>(this.listings.values());
+    }
+
+    /**
+     * Gets the listings of the matches on a server.
+     *
+     * @param server The server's ID.
+     * @return A copy of the listings of the matches on the server; empty if the server is unknown.
+     */
+    @Nonnull
+    public synchronized List<MatchListing> getListings(@Nonnull final String server) {
+        this.expire();
+        ServerView view = this.servers.get(Preconditions.checkNotNull(server, "server"));
+        return view == null ? Collections.<MatchListing>emptyList() : new ArrayList<MatchListing>(view.listings.values());
+    }
+
+    /**
+     * Gets the listing of a match.
+     *
+     * @param uuid The match's unique ID.
+     * @return The match's listing, or null if it is not listed.
+     */
+    @Nullable
+    public synchronized MatchListing getListing(@Nonnull final UUID uuid) {
+        this.expire();
+        return this.listings.get(Preconditions.checkNotNull(uuid, "uuid"));
+    }
+
+    /**
+     * Gets the IDs of the servers publishing.
+     *
+     * @return A copy of the servers' IDs.
+     */
+    @Nonnull
+    public synchronized List<String> getServers() {
+        this.expire();
+        return new ArrayList<String>(this.servers.keySet());
+    }
+
+    /**
+     * Gets the number of packets that were dropped because they were malformed, out of order or duplicated.
+     *
+     * @return The number of packets dropped.
+     */
+    public synchronized long getDroppedPackets() {
+        return this.droppedPackets;
+    }
+
+    /**
+     * Applies a packet.
+     *
+     * @param packet The array holding the packet, from its start.
+     * @param length The length of the packet.
+     */
+    @Override
+    public synchronized void receive(@Nonnull final byte[] packet, final int length) {
+        DataInputStream in = new DataInputStream(new ByteArrayInputStream(Preconditions.checkNotNull(packet, "packet"), 0, length));
+        try {
+            if (in.readInt() != DirectoryProtocol.MAGIC || in.readByte() != DirectoryProtocol.FORMAT_VERSION) {
+                this.droppedPackets++;
+                return;
+            }
+            byte kind = in.readByte();
+            String server = in.readUTF();
+            long epoch = in.readLong();
+            long sequence = in.readLong();
+
+            ServerView view = this.servers.get(server);
+            if (view == null || epoch > view.epoch) {
+                //  a new server, or a restarted one, whose old listings are all stale
+                if (view != null) {
+                    this.removeAll(view);
+                }
+                view = new ServerView(epoch);
+                this.servers.put(server, view);
+            } else if (epoch < view.epoch || sequence <= view.sequence) {
+                this.droppedPackets++;
+                return;
+            }
+            boolean contiguous = sequence == view.sequence + 1L;
+            view.sequence = sequence;
+            view.lastHeard = System.currentTimeMillis();
+
+            if (kind == DirectoryProtocol.GOODBYE) {
+                this.removeAll(view);
+                this.servers.remove(server);
+                return;
+            }
+            long snapshotStart = 0L;
+            boolean last = false;
+            if (kind == DirectoryProtocol.SNAPSHOT) {
+                snapshotStart = in.readLong();
+                last = in.readBoolean();
+                //  the snapshot can only be trusted to be complete if none of its packets went missing
+                view.snapshotComplete = sequence == snapshotStart || (view.snapshotComplete && contiguous);
+            }
+            int count = in.readUnsignedShort();
+            MatchState[] states = MatchState.values();
+            for (int i = 0; i < count; i++) {
+                byte operation = in.readByte();
+                UUID uuid = new UUID(in.readLong(), in.readLong());
+                if (operation == DirectoryProtocol.PUT) {
+                    String world = in.readUTF();
+                    int state = in.readByte();
+                    int playerCount = in.readUnsignedShort();
+                    if (state < 0 || state >= states.length) {
+                        throw new IOException("Unknown match state " + state);
+                    }
+                    MatchListing listing = new MatchListing(server, uuid, world, states[state], playerCount, sequence);
+                    view.listings.put(uuid, listing);
+                    this.listings.put(uuid, listing);
+                } else if (operation == DirectoryProtocol.REMOVE) {
+                    if (view.listings.remove(uuid) != null) {
+                        this.listings.remove(uuid);
+                    }
+                } else {
+                    throw new IOException("Unknown operation " + operation);
+                }
+            }
+            if (last && view.snapshotComplete) {
+                //  every match still on the server was in the snapshot, so the rest are gone
+                for (Iterator<MatchListing> iterator = view.listings.values().iterator(); iterator.hasNext(); ) {
+                    MatchListing listing = iterator.next();
+                    if (listing.getVersion() < snapshotStart) {
+                        iterator.remove();
+                        this.listings.remove(listing.getUUID());
+                    }
+                }
+            }
+        } catch (IOException exception) {
+            //  a truncated or corrupt packet; whatever was applied before the fault is still valid
+            this.droppedPackets++;
+        }
+    }
+
+    /**
+     * Drops the servers that have sent nothing for longer than the timeout.
+     */
+    private void expire() {
+        long now = System.currentTimeMillis();
+        for (Iterator<ServerView> iterator = this.servers.values().iterator(); iterator.hasNext(); ) {
+            ServerView view = iterator.next();
+            if (now - view.lastHeard > this.timeout) {
+                this.removeAll(view);
+                iterator.remove();
+            }
+        }
+    }
+
+    /**
+     * Removes every listing of a server.
+     *
+     * @param view The server.
+     */
+    private void removeAll(@Nonnull final ServerView view) {
+        for (UUID uuid : view.listings.keySet()) {
+            this.listings.remove(uuid);
+        }
+        view.listings.clear();
+    }
+
+    /**
+     * What the directory knows of one server.
+     */
+    private static final class ServerView {
+
+        private final long epoch;
+        private final Map<UUID, MatchListing> listings;
+        private long sequence;
+        private long lastHeard;
+        private boolean snapshotComplete;
+
+        private ServerView(final long epoch) {
+            this.epoch = epoch;
+            this.listings = new HashMap<UUID, MatchListing>();
+        }
+    }
+}
@@ -0,0 +1,125 @@
+package com.github.rmsy.directory;
+
+import com.github.rmsy.impl.MatchState;
+import com.google.common.base.Preconditions;
+
+import javax.annotation.Nonnull;
+import java.util.UUID;
+
+/**
+ * A match as listed in a {@link MatchDirectory}: where it is, what state it is in and how many players it has.
+ */
+public final class MatchListing {
+
+    /**
+     * The ID of the server the match is on.
+     */
+    @Nonnull
+    private final String server;
+    /**
+     * The match's unique identifier.
+     */
+    @Nonnull
+    private final UUID uuid;
+    /**
+     * The name of the world the match is taking place in.
+     */
+    @Nonnull
+    private final String world;
+    /**
+     * The match's state.
+     */
+    @Nonnull
+    private final MatchState state;
+    /**
+     * The number of players in the match.
+     */
+    private final int playerCount;
+    /**
+     * The sequence number of the packet the listing came from.
+     */
+    private final long version;
+
+    /**
+     * Creates a new MatchListing.
+     *
+     * @param server      The ID of the server the match is on.
+     * @param uuid        The match's unique identifier.
+     * @param world       The name of the world the match is taking place in.
+     * @param state       The match's state.
+     * @param playerCount The number of players in the match.
+     * @param version     The sequence number of the packet the listing came from.
+     */
+    public MatchListing(@Nonnull final String server, @Nonnull final UUID uuid, @Nonnull final String world, @Nonnull final MatchState state, final int playerCount, final long version) {
+        this.server = Preconditions.checkNotNull(server, "server");
+        this.uuid = Preconditions.checkNotNull(uuid, "uuid");
+        this.world = Preconditions.checkNotNull(world, "world");
+        this.state = Preconditions.checkNotNull(state, "state");
+        this.playerCount = playerCount;
+        this.version = version;
+    }
+
+    /**
+     * Gets the ID of the server the match is on.
+     *
+     * @return The server's ID.
+     */
+    @Nonnull
+    public String getServer() {
+        return this.server;
+    }
+
+    /**
+     * Gets the match's unique identifier.
+     *
+     * @return The match's unique identifier.
+     */
+    @Nonnull
+    public UUID getUUID() {
+        return this.uuid;
+    }
+
+    /**
+     * Gets the name of the world the match is taking place in.
+     *
+     * @return The name of the world.
+     */
+    @Nonnull
+    public String getWorld() {
+        return this.world;
+    }
+
+    /**
+     * Gets the match's state.
+     *
+     * @return The match's state.
+     */
+    @Nonnull
+    public MatchState getState() {
+        return this.state;
+    }
+
+    /**
+     * Gets the number of players in the match.
+     *
+     * @return The number of players.
+     */
+    public int getPlayerCount() {
+        return this.playerCount;
+    }
+
+    /**
+     * Gets the version of the listing: the sequence number of the packet it came from. Later listings of the same
+     * match from the same server have higher versions.
+     *
+     * @return The listing's version.
+     */
+    public long getVersion() {
+        return this.version;
+    }
+
+    @Override
+    public String toString() {
+        return "MatchListing{server=" + this.server + ", uuid=" + this.uuid + ", world=" + this.world + ", state=" + this.state + ", players=" + this.playerCount + ", version=" + this.version + "}";
+    }
+}
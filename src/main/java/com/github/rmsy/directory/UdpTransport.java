@@ -0,0 +1,132 @@
+package com.github.rmsy.directory;
+
+import com.google.common.base.Preconditions;
+import org.bukkit.Bukkit;
+
+import javax.annotation.Nonnull;
+import java.io.IOException;
+import java.net.DatagramPacket;
+import java.net.DatagramSocket;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.SocketException;
+import java.util.logging.Level;
+
+/**
+ * A transport that sends packets as UDP datagrams to directories listening on ports of the loopback interface, so that
+ * the servers on one host can share their match listings. Each packet is one datagram.
+ */
+public final class UdpTransport implements DirectoryTransport {
+
+    /**
+     * The loopback address packets are sent to and received on.
+     */
+    @Nonnull
+    private final InetAddress loopback;
+    /**
+     * The port to listen on, or zero if the transport only sends.
+     */
+    private final int listenPort;
+    /**
+     * The ports of the directories packets are sent to.
+     */
+    @Nonnull
+    private final int[] targetPorts;
+    /**
+     * The socket packets are sent from.
+     */
+    @Nonnull
+    private final DatagramSocket sendSocket;
+    /**
+     * The socket packets are received on, and the thread receiving them, while listening.
+     */
+    private volatile DatagramSocket listenSocket;
+    private volatile Thread listenThread;
+
+    /**
+     * Creates a new transport.
+     *
+     * @param listenPort  The port to listen on, or zero if the transport only sends.
+     * @param targetPorts The ports of the directories to send packets to.
+     * @throws SocketException If the sending socket could not be opened.
+     */
+    public UdpTransport(final int listenPort, @Nonnull final int... targetPorts) throws SocketException {
+        Preconditions.checkArgument(listenPort >= 0 && listenPort <= 0xFFFF, "Invalid listen port.");
+        for (int port : Preconditions.checkNotNull(targetPorts, "target ports")) {
+            Preconditions.checkArgument(port > 0 && port <= 0xFFFF, "Invalid target port.");
+        }
+        this.loopback = InetAddress.getLoopbackAddress();
+        this.listenPort = listenPort;
+        this.targetPorts = targetPorts.clone();
+        this.sendSocket = new DatagramSocket(new InetSocketAddress(this.loopback, 0));
+    }
+
+    @Override
+    public void send(@Nonnull final byte[] packet) throws IOException {
+        Preconditions.checkArgument(Preconditions.checkNotNull(packet, "packet").length <= MAX_PACKET_SIZE, "Packet is too large.");
+        for (int port : this.targetPorts) {
+            this.sendSocket.send(new DatagramPacket(packet, packet.length, this.loopback, port));
+        }
+    }
+
+    /**
+     * Binds the listen port, and starts a daemon thread passing the datagrams received on it to the receiver.
+     *
+     * @param receiver The receiver.
+     * @throws IOException If the port could not be bound.
+     */
+    @Override
+    public synchronized void listen(@Nonnull final Receiver receiver) throws IOException {
+        Preconditions.checkNotNull(receiver, "receiver");
+        Preconditions.checkState(this.listenPort != 0, "Transport has no port to listen on.");
+        Preconditions.checkState(this.listenSocket == null, "Transport is already listening.");
+        final DatagramSocket socket = new DatagramSocket(new InetSocketAddress(this.loopback, this.listenPort));
+        this.listenSocket = socket;
+        this.listenThread = new Thread(new Runnable() {
+            @Override
+            public void run() {
+                byte[] buffer = new byte[MAX_PACKET_SIZE];
+                DatagramPacket datagram = new DatagramPacket(buffer, buffer.length);
+                while (!socket.isClosed()) {
+                    try {
+                        datagram.setLength(buffer.length);
+                        socket.receive(datagram);
+                        receiver.receive(buffer, datagram.getLength());
+                    } catch (IOException exception) {
+                        if (!socket.isClosed()) {
+                            Bukkit.getLogger().log(Level.WARNING, "Could not receive match directory packet", exception);
+                        }
+                    } catch (RuntimeException exception) {
+                        Bukkit.getLogger().log(Level.SEVERE, "Match directory receiver threw an exception", exception);
+                    }
+                }
+            }
+        }, "PGM match directory listener");
+        this.listenThread.setDaemon(true);
+        this.listenThread.start();
+    }
+
+    /**
+     * Closes the sockets, and waits briefly for the listening thread to finish.
+     */
+    @Override
+    public void close() {
+        this.sendSocket.close();
+        DatagramSocket socket;
+        Thread thread;
+        synchronized (this) {
+            socket = this.listenSocket;
+            thread = this.listenThread;
+            this.listenSocket = null;
+            this.listenThread = null;
+        }
+        if (socket != null) {
+            socket.close();
+            try {
+                thread.join(1000L);
+            } catch (InterruptedException exception) {
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+}
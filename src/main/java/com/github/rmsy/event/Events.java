@@ -0,0 +1,30 @@
+package com.github.rmsy.event;
+
+import org.bukkit.Bukkit;
+import org.bukkit.event.Event;
+
+import javax.annotation.Nonnull;
+
+/**
+ * Calls events on the server.
+ */
+public final class Events {
+
+    private Events() {
+    }
+
+    /**
+     * Calls the specified event. Does nothing when there is no server, such as when P(retend)GM is used outside of
+     * Bukkit for testing.
+     *
+     * @param event The event to call.
+     * @return The event.
+     */
+    @Nonnull
+    public static <T extends Event> T call(@Nonnull final T event) {
+        if (Bukkit.getServer() != null) {
+            Bukkit.getPluginManager().callEvent(event);
+        }
+        return event;
+    }
+}
@@ -0,0 +1,64 @@
+package com.github.rmsy.event;
+
+import com.github.rmsy.impl.SimpleMatch;
+import com.google.common.base.Preconditions;
+import org.bukkit.event.Event;
+import org.bukkit.event.HandlerList;
+
+import javax.annotation.Nonnull;
+
+/**
+ * Called when a match becomes ready to start, or stops being ready to start.
+ */
+public class MatchReadyStateChangeEvent extends Event {
+
+    private static final HandlerList handlers = new HandlerList();
+    /**
+     * The match.
+     */
+    @Nonnull
+    private final SimpleMatch match;
+    /**
+     * Whether or not the match is now ready to start.
+     */
+    private final boolean ready;
+
+    /**
+     * Creates a new MatchReadyStateChangeEvent.
+     *
+     * @param match The match.
+     * @param ready Whether or not the match is now ready to start.
+     */
+    public MatchReadyStateChangeEvent(@Nonnull final SimpleMatch match, final boolean ready) {
+        this.match = Preconditions.checkNotNull(match, "match");
+        this.ready = ready;
+    }
+
+    public static HandlerList getHandlerList() {
+        return handlers;
+    }
+
+    @Override
+    public HandlerList getHandlers() {
+        return handlers;
+    }
+
+    /**
+     * Gets the match.
+     *
+     * @return The match.
+     */
+    @Nonnull
+    public SimpleMatch getMatch() {
+        return this.match;
+    }
+
+    /**
+     * Gets whether or not the match is now ready to start.
+     *
+     * @return Whether or not the match is now ready to start.
+     */
+    public boolean isReady() {
+        return this.ready;
+    }
+}
@@ -0,0 +1,84 @@
+package com.github.rmsy.event;
+
+import com.github.rmsy.impl.MatchState;
+import com.github.rmsy.impl.SimpleMatch;
+import com.google.common.base.Preconditions;
+import org.bukkit.event.Event;
+import org.bukkit.event.HandlerList;
+
+import javax.annotation.Nonnull;
+
+/**
+ * Called when a match moves from one state to another.
+ */
+public class MatchStateChangeEvent extends Event {
+
+    private static final HandlerList handlers = new HandlerList();
+    /**
+     * The match.
+     */
+    @Nonnull
+    private final SimpleMatch match;
+    /**
+     * The state the match moved from.
+     */
+    @Nonnull
+    private final MatchState oldState;
+    /**
+     * The state the match moved to.
+     */
+    @Nonnull
+    private final MatchState newState;
+
+    /**
+     * Creates a new MatchStateChangeEvent.
+     *
+     * @param match    The match.
+     * @param oldState The state the match moved from.
+     * @param newState The state the match moved to.
+     */
+    public MatchStateChangeEvent(@Nonnull final SimpleMatch match, @Nonnull final MatchState oldState, @Nonnull final MatchState newState) {
+        this.match = Preconditions.checkNotNull(match, "match");
+        this.oldState = Preconditions.checkNotNull(oldState, "old state");
+        this.newState = Preconditions.checkNotNull(newState, "new state");
+    }
+
+    public static HandlerList getHandlerList() {
+        return handlers;
+    }
+
+    @Override
+    public HandlerList getHandlers() {
+        return handlers;
+    }
+
+    /**
+     * Gets the match.
+     *
+     * @return The match.
+     */
+    @Nonnull
+    public SimpleMatch getMatch() {
+        return this.match;
+    }
+
+    /**
+     * Gets the state the match moved from.
+     *
+     * @return The state the match moved from.
+     */
+    @Nonnull
+    public MatchState getOldState() {
+        return this.oldState;
+    }
+
+    /**
+     * Gets the state the match moved to.
+     *
+     * @return The state the match moved to.
+     */
+    @Nonnull
+    public MatchState getNewState() {
+        return this.newState;
+    }
+}
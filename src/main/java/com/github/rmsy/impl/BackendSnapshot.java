@@ -0,0 +1,358 @@
+package com.github.rmsy.impl;
+
+import com.google.common.base.Preconditions;
+import org.bukkit.ChatColor;
+import org.bukkit.Server;
+import org.bukkit.World;
+import tc.oc.api.Match;
+import tc.oc.api.Player;
+import tc.oc.api.Team;
+
+import javax.annotation.Nonnull;
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * Saves the matches of a {@link SimpleBackend} to a compact binary file, and restores them into a new backend, so that
+ * matches survive the plugin being reloaded. Matches, their teams, names, colors and state, and the memberships of
+ * their players are saved; players are identified by their Bukkit unique ID, and only those still online when the
+ * snapshot is restored rejoin their teams.
+ * <p/>
+ * A snapshot is only meant to bridge a reload, so it is ignored if it is older than {@link #MAX_AGE}.
+ */
+public final class BackendSnapshot {
+
+    /**
+     * The oldest snapshot that will be restored, in milliseconds.
+     */
+    public static final long MAX_AGE = 60000L;
+    /**
+     * The first bytes of a snapshot file: "PGMS".
+     */
+    private static final int MAGIC = 0x50474D53;
+    /**
+     * The version of the snapshot format.
+     */
+    private static final byte FORMAT_VERSION = 1;
+    /**
+     * The bits of a team's flags byte.
+     */
+    private static final int CAN_PARTICIPATE = 1, PARTICIPATING = 2, SPECTATING = 4;
+
+    private BackendSnapshot() {
+    }
+
+    /**
+     * Saves the matches of the specified backend. The snapshot is written next to the file and then moved into place,
+     * so an existing snapshot is never left half-written.
+     *
+     * @param backend The backend.
+     * @param file    The file to save the snapshot to.
+     * @return The number of matches saved.
+     * @throws IOException If the snapshot could not be written.
+     */
+    public static int save(@Nonnull final SimpleBackend backend, @Nonnull final File file) throws IOException {
+        Preconditions.checkNotNull(backend, "backend");
+        Preconditions.checkNotNull(file, "file");
+        List<SimpleMatch> matches = new ArrayList<SimpleMatch>();
+        for (Match match : backend.getMatches()) {
+            if (match instanceof SimpleMatch) {
+                matches.add((SimpleMatch) match);
+            }
+        }
+
+        File directory = file.getAbsoluteFile().getParentFile();
+        if (directory != null && !directory.isDirectory() && !directory.mkdirs()) {
+            throw new IOException("Could not create snapshot directory " + directory);
+        }
+        File temporary = new File(file.getPath() + ".tmp");
+        DataOutputStream out = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(temporary)));
+        try {
+            out.writeInt(MAGIC);
+            out.writeByte(FORMAT_VERSION);
+            out.writeLong(System.currentTimeMillis());
+            out.writeInt(matches.size());
+            for (SimpleMatch match : matches) {
+                writeMatch(out, match);
+            }
+        } finally {
+            out.close();
+        }
+        if (!temporary.renameTo(file) && !(file.delete() && temporary.renameTo(file))) {
+            throw new IOException("Could not move snapshot into place at " + file);
+        }
+        return matches.size();
+    }
+
+    /**
+     * Restores the matches in a snapshot into the specified backend, and deletes the snapshot. Matches whose world is
+     * no longer loaded, or already has a match, are skipped, as are players who are no longer online or have changed
+     * worlds.
+     *
+     * @param backend The backend.
+     * @param server  The server the worlds and players are looked up on.
+     * @param file    The file the snapshot was saved to.
+     * @return The number of matches restored, or zero if there was no snapshot or it was too old.
+     * @throws IOException If the snapshot could not be read.
+     */
+    public static int restore(@Nonnull final SimpleBackend backend, @Nonnull final Server server, @Nonnull final File file) throws IOException {
+        Preconditions.checkNotNull(backend, "backend");
+        Preconditions.checkNotNull(server, "server");
+        if (!Preconditions.checkNotNull(file, "file").isFile()) {
+            return 0;
+        }
+
+        int restored = 0;
+        DataInputStream in = new DataInputStream(new BufferedInputStream(new FileInputStream(file)));
+        try {
+            if (in.readInt() != MAGIC) {
+                throw new IOException("Not a backend snapshot: " + file);
+            }
+            byte version = in.readByte();
+            if (version != FORMAT_VERSION) {
+                throw new IOException("Unknown backend snapshot format version " + version);
+            }
+            if (System.currentTimeMillis() - in.readLong() > MAX_AGE) {
+                return 0;
+            }
+
+            Map<UUID, org.bukkit.entity.Player> online = new HashMap<UUID, org.bukkit.entity.Player>();
+            for (org.bukkit.entity.Player player : server.getOnlinePlayers()) {
+                online.put(player.getUniqueId(), player);
+            }
+            int matchCount = in.readInt();
+            for (int i = 0; i < matchCount; i++) {
+                if (readMatch(in, backend, server, online)) {
+                    restored++;
+                }
+            }
+        } finally {
+            in.close();
+            if (!file.delete()) {
+                file.deleteOnExit();
+            }
+        }
+        return restored;
+    }
+
+    /**
+     * Writes a match to a snapshot.
+     *
+     * @param out   The snapshot.
+     * @param match The match.
+     * @throws IOException If the match could not be written.
+     */
+    private static void writeMatch(@Nonnull final DataOutputStream out, @Nonnull final SimpleMatch match) throws IOException {
+        List<SimpleTeam> teams = new ArrayList<SimpleTeam>(match.getTeams().size());
+        for (Team team : match.getTeams()) {
+            if (team instanceof SimpleTeam) {
+                teams.add((SimpleTeam) team);
+            }
+        }
+        writeUUID(out, match.getWorld().getUID());
+        writeUUID(out, match.getUUID());
+        out.writeByte(match.getState().ordinal());
+        out.writeLong(match.getStartTime());
+        out.writeLong(match.getEndTime());
+        out.writeShort(teams.indexOf(match.getWinner()));
+        out.writeShort(teams.size());
+        for (SimpleTeam team : teams) {
+            out.writeUTF(team.getInitialName());
+            out.writeUTF(team.getInitialColor().name());
+            out.writeUTF(team.getName());
+            out.writeUTF(team.getColor().name());
+            out.writeByte((team.canParticipate() ? CAN_PARTICIPATE : 0) | (team.isParticipating() ? PARTICIPATING : 0) | (team.isSpectating() ? SPECTATING : 0));
+            out.writeInt(team.getMembers().size());
+            for (Player member : team.getMembers()) {
+                writeUUID(out, member.getBukkit().getUniqueId());
+            }
+        }
+    }
+
+    /**
+     * Reads a match from a snapshot, and restores it into the backend if its world is still loaded and has no match. The
+     * whole record is read and checked before anything is created, so a damaged record never leaves a match behind.
+     *
+     * @param in      The snapshot.
+     * @param backend The backend.
+     * @param server  The server the match's world is looked up on.
+     * @param online  The players online, by unique ID.
+     * @return Whether or not the match was restored.
+     * @throws IOException If the match could not be read, or the record is damaged.
+     */
+    private static boolean readMatch(@Nonnull final DataInputStream in, @Nonnull final SimpleBackend backend, @Nonnull final Server server, @Nonnull final Map<UUID, org.bukkit.entity.Player> online) throws IOException {
+        World world = server.getWorld(readUUID(in));
+        UUID uuid = readUUID(in);
+        int stateOrdinal = in.readByte();
+        long startTime = in.readLong();
+        long endTime = in.readLong();
+        int winnerIndex = in.readShort();
+        int teamCount = in.readShort();
+        MatchState[] states = MatchState.values();
+        if (stateOrdinal < 0 || stateOrdinal >= states.length) {
+            throw new IOException("Unknown match state " + stateOrdinal);
+        }
+        if (teamCount < 0) {
+            throw new IOException("Negative team count " + teamCount);
+        }
+        if (winnerIndex < -1 || winnerIndex >= teamCount) {
+            throw new IOException("Winner " + winnerIndex + " is not one of the match's " + teamCount + " teams");
+        }
+        List<TeamRecord> teams = new ArrayList<TeamRecord>(teamCount);
+        for (int i = 0; i < teamCount; i++) {
+            teams.add(readTeam(in));
+        }
+
+        if (world == null || backend.getMatch(world) != null) {
+            return false;
+        }
+        SimpleMatch match = backend.createMatch(world, uuid);
+        List<org.bukkit.entity.Player> mapped = new ArrayList<org.bukkit.entity.Player>();
+        try {
+            SimpleTeam winner = null;
+            for (int i = 0; i < teamCount; i++) {
+                TeamRecord record = teams.get(i);
+                SimpleTeam team = backend.createTeam(record.initialName, record.initialColor, (record.flags & CAN_PARTICIPATE) != 0, (record.flags & PARTICIPATING) != 0, (record.flags & SPECTATING) != 0);
+                team.setName(record.name);
+                team.setColor(record.color);
+                match.addTeam(team);
+                if (i == winnerIndex) {
+                    winner = team;
+                }
+                for (UUID member : record.members) {
+                    org.bukkit.entity.Player bukkit = online.get(member);
+                    if (bukkit != null && world.equals(bukkit.getWorld()) && backend.getPlayer(bukkit) == null) {
+                        SimplePlayer player = new SimplePlayer(bukkit, team);
+                        match.join(player, team);
+                        backend.mapPlayer(bukkit, player);
+                        mapped.add(bukkit);
+                    }
+                }
+            }
+            match.restore(states[stateOrdinal], startTime, endTime, winner);
+            return true;
+        } catch (RuntimeException exception) {
+            //  the match is still idle, so it can be taken apart again
+            for (org.bukkit.entity.Player bukkit : mapped) {
+                Player player = backend.removePlayer(bukkit);
+                if (player instanceof SimplePlayer) {
+                    match.leave((SimplePlayer) player);
+                }
+            }
+            backend.removeMatch(world);
+            throw new IOException("Could not restore match " + uuid, exception);
+        }
+    }
+
+    /**
+     * Reads a team, and the unique IDs of its members, from a snapshot.
+     *
+     * @param in The snapshot.
+     * @return The team's record.
+     * @throws IOException If the team could not be read, or the record is damaged.
+     */
+    @Nonnull
+    private static TeamRecord readTeam(@Nonnull final DataInputStream in) throws IOException {
+        TeamRecord record = new TeamRecord();
+        record.initialName = in.readUTF();
+        record.initialColor = readColor(in);
+        record.name = in.readUTF();
+        record.color = readColor(in);
+        record.flags = in.readByte();
+        if ((record.flags & PARTICIPATING) != 0 && (record.flags & CAN_PARTICIPATE) == 0) {
+            throw new IOException("Team " + record.name + " is participating but can not participate");
+        }
+        int memberCount = in.readInt();
+        if (memberCount < 0) {
+            throw new IOException("Negative member count " + memberCount);
+        }
+        record.members = new ArrayList<UUID>(Math.min(memberCount, 1024));
+        for (int i = 0; i < memberCount; i++) {
+            record.members.add(readUUID(in));
+        }
+        return record;
+    }
+
+    /**
+     * Reads a color from a snapshot.
+     *
+     * @param in The snapshot.
+     * @return The color.
+     * @throws IOException If the color could not be read, or is unknown.
+     */
+    @Nonnull
+    private static ChatColor readColor(@Nonnull final DataInputStream in) throws IOException {
+        String name = in.readUTF();
+        try {
+            return ChatColor.valueOf(name);
+        } catch (IllegalArgumentException exception) {
+            throw new IOException("Unknown team color " + name, exception);
+        }
+    }
+
+    /**
+     * Writes a unique ID to a snapshot.
+     *
+     * @param out  The snapshot.
+     * @param uuid The unique ID.
+     * @throws IOException If the unique ID could not be written.
+     */
+    private static void writeUUID(@Nonnull final DataOutputStream out, @Nonnull final UUID uuid) throws IOException {
+        out.writeLong(uuid.getMostSignificantBits());
+        out.writeLong(uuid.getLeastSignificantBits());
+    }
+
+    /**
+     * Reads a unique ID from a snapshot.
+     *
+     * @param in The snapshot.
+     * @return The unique ID.
+     * @throws IOException If the unique ID could not be read.
+     */
+    @Nonnull
+    private static UUID readUUID(@Nonnull final DataInputStream in) throws IOException {
+        return new UUID(in.readLong(), in.readLong());
+    }
+
+    /**
+     * A team read from a snapshot, before it is restored.
+     */
+    private static final class TeamRecord {
+
+        /**
+         * The team's initial name.
+         */
+        private String initialName;
+        /**
+         * The team's initial color.
+         */
+        private ChatColor initialColor;
+        /**
+         * The team's name.
+         */
+        private String name;
+        /**
+         * The team's color.
+         */
+        private ChatColor color;
+        /**
+         * The team's flags byte.
+         */
+        private int flags;
+        /**
+         * The unique IDs of the team's members.
+         */
+        private List<UUID> members;
+    }
+}
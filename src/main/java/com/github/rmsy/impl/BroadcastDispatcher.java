@@ -0,0 +1,349 @@
+package com.github.rmsy.impl;
+
+import com.google.common.base.Preconditions;
+import org.bukkit.Bukkit;
+import org.bukkit.plugin.Plugin;
+import org.bukkit.scheduler.BukkitTask;
+import tc.oc.api.Player;
+
+import javax.annotation.Nonnull;
+import java.util.ArrayDeque;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.Queue;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Delivers broadcasts to their recipients in batches spread across ticks, so that a burst of announcements to a large
+ * match does not stall a single tick. The same message broadcast by the same source more than once in a tick is only
+ * delivered once. Until the dispatcher is started, broadcasts are delivered immediately on the calling thread.
+ */
+public final class BroadcastDispatcher implements Runnable {
+
+    /**
+     * The default maximum number of messages sent per tick.
+     */
+    public static final int DEFAULT_SENDS_PER_TICK = 250;
+    /**
+     * A dispatcher that is never started, used by matches and teams that have not been given one.
+     */
+    static final BroadcastDispatcher DIRECT = new BroadcastDispatcher();
+    /**
+     * The maximum number of messages sent per tick.
+     */
+    private final int sendsPerTick;
+    /**
+     * Broadcasts that have not yet been fully delivered, oldest first.
+     */
+    @Nonnull
+    private final Queue<Broadcast> queue;
+    /**
+     * Broadcasts queued since the last tick, used to merge duplicates.
+     */
+    @Nonnull
+    private final Set<Broadcast> queuedThisTick;
+    /**
+     * The number of messages waiting to be sent.
+     */
+    @Nonnull
+    private final AtomicInteger queueDepth;
+    /**
+     * The total number of messages sent.
+     */
+    @Nonnull
+    private final AtomicLong messagesSent;
+    /**
+     * The total number of broadcasts dropped as duplicates.
+     */
+    @Nonnull
+    private final AtomicLong broadcastsMerged;
+    /**
+     * The total number of broadcasts fully delivered.
+     */
+    @Nonnull
+    private final AtomicLong broadcastsDelivered;
+    /**
+     * The sum and maximum of the time, in nanoseconds, between each delivered broadcast being queued and its last
+     * message being sent.
+     */
+    @Nonnull
+    private final AtomicLong totalLatency, maxLatency;
+    /**
+     * The task running the dispatcher, or null if it is not started.
+     */
+    private volatile BukkitTask task;
+
+    /**
+     * Creates a new dispatcher that sends up to {@link #DEFAULT_SENDS_PER_TICK} messages per tick.
+     */
+    public BroadcastDispatcher() {
+        this(DEFAULT_SENDS_PER_TICK);
+    }
+
+    /**
+     * Creates a new dispatcher.
+     *
+     * @param sendsPerTick The maximum number of messages sent per tick.
+     * @throws IllegalArgumentException If the number of messages sent per tick is not positive.
+     */
+    public BroadcastDispatcher(final int sendsPerTick) throws IllegalArgumentException {
+        Preconditions.checkArgument(sendsPerTick > 0, "Sends per tick must be positive.");
+        this.sendsPerTick = sendsPerTick;
+        this.queue = new ArrayDeque<Broadcast>();
+        this.queuedThisTick = new HashSet<Broadcast>();
+        this.queueDepth = new AtomicInteger();
+        this.messagesSent = new AtomicLong();
+        this.broadcastsMerged = new AtomicLong();
+        this.broadcastsDelivered = new AtomicLong();
+        this.totalLatency = new AtomicLong();
+        this.maxLatency = new AtomicLong();
+    }
+
+    /**
+     * Starts delivering queued broadcasts every tick.
+     *
+     * @param plugin The plugin to run the dispatcher under.
+     * @throws IllegalStateException If the dispatcher is already started.
+     */
+    public synchronized void start(@Nonnull final Plugin plugin) throws IllegalStateException {
+        Preconditions.checkState(this != DIRECT, "Direct dispatcher can not be started.");
+        Preconditions.checkState(this.task == null, "Dispatcher is already started.");
+        this.task = Bukkit.getScheduler().runTaskTimer(Preconditions.checkNotNull(plugin, "plugin"), this, 1L, 1L);
+    }
+
+    /**
+     * Stops the dispatcher, delivering all queued broadcasts immediately. Broadcasts made after the dispatcher is
+     * stopped are delivered immediately as well.
+     */
+    public void stop() {
+        synchronized (this) {
+            if (this.task != null) {
+                this.task.cancel();
+                this.task = null;
+            }
+        }
+        this.deliver(Integer.MAX_VALUE);
+    }
+
+    /**
+     * Gets whether or not the dispatcher is started.
+     *
+     * @return Whether or not the dispatcher is started.
+     */
+    public boolean isStarted() {
+        return this.task != null;
+    }
+
+    /**
+     * Broadcasts a message to the specified recipients.
+     *
+     * @param source     The object making the broadcast (e.g. a match or team), used to merge duplicates.
+     * @param recipients The recipients, captured at the time of the call.
+     * @param message    The message to be broadcast.
+     */
+    public void dispatch(@Nonnull final Object source, @Nonnull final Collection<Player> recipients, @Nonnull final String message) {
+        Preconditions.checkNotNull(source, "source");
+        Preconditions.checkNotNull(recipients, "recipients");
+        Preconditions.checkNotNull(message, "message");
+        if (recipients.isEmpty()) {
+            return;
+        } else if (this.task == null) {
+            if (recipients instanceof PlayerSet) {
+                PlayerSet players = (PlayerSet) recipients;
+                for (int i = 0, size = players.size(); i < size; i++) {
+                    players.get(i).getBukkit().sendMessage(message);
+                }
+            } else {
+                for (Player player : recipients) {
+                    player.getBukkit().sendMessage(message);
+                }
+            }
+            this.messagesSent.addAndGet(recipients.size());
+            return;
+        }
+
+        org.bukkit.entity.Player[] bukkitRecipients;
+        if (recipients instanceof PlayerSet) {
+            bukkitRecipients = ((PlayerSet) recipients).toBukkitArray();
+        } else {
+            bukkitRecipients = new org.bukkit.entity.Player[recipients.size()];
+            int i = 0;
+            for (Player player : recipients) {
+                bukkitRecipients[i++] = player.getBukkit();
+            }
+        }
+        Broadcast broadcast = new Broadcast(source, message, bukkitRecipients);
+        synchronized (this.queue) {
+            if (this.queuedThisTick.add(broadcast)) {
+                this.queue.add(broadcast);
+                this.queueDepth.addAndGet(bukkitRecipients.length);
+            } else {
+                this.broadcastsMerged.incrementAndGet();
+            }
+        }
+    }
+
+    /**
+     * Delivers queued broadcasts, up to the per-tick limit.
+     */
+    @Override
+    public void run() {
+        synchronized (this.queue) {
+            this.queuedThisTick.clear();
+        }
+        this.deliver(this.sendsPerTick);
+    }
+
+    /**
+     * Delivers queued broadcasts.
+     *
+     * @param budget The maximum number of messages to send.
+     */
+    private void deliver(int budget) {
+        while (budget > 0) {
+            Broadcast broadcast;
+            synchronized (this.queue) {
+                broadcast = this.queue.peek();
+            }
+            if (broadcast == null) {
+                break;
+            }
+
+            int sent = broadcast.send(budget);
+            budget -= sent;
+            this.queueDepth.addAndGet(-sent);
+            this.messagesSent.addAndGet(sent);
+            if (broadcast.isDelivered()) {
+                synchronized (this.queue) {
+                    this.queue.poll();
+                }
+                long latency = System.nanoTime() - broadcast.queuedAt;
+                this.broadcastsDelivered.incrementAndGet();
+                this.totalLatency.addAndGet(latency);
+                long max;
+                do {
+                    max = this.maxLatency.get();
+                } while (latency > max && !this.maxLatency.compareAndSet(max, latency));
+            }
+        }
+    }
+
+    /**
+     * Gets the number of messages waiting to be sent.
+     *
+     * @return The number of messages waiting to be sent.
+     */
+    public int getQueueDepth() {
+        return this.queueDepth.get();
+    }
+
+    /**
+     * Gets the total number of messages sent.
+     *
+     * @return The total number of messages sent.
+     */
+    public long getMessagesSent() {
+        return this.messagesSent.get();
+    }
+
+    /**
+     * Gets the total number of broadcasts dropped because they duplicated another broadcast in the same tick.
+     *
+     * @return The total number of broadcasts merged.
+     */
+    public long getBroadcastsMerged() {
+        return this.broadcastsMerged.get();
+    }
+
+    /**
+     * Gets the total number of queued broadcasts that have been fully delivered.
+     *
+     * @return The total number of broadcasts delivered.
+     */
+    public long getBroadcastsDelivered() {
+        return this.broadcastsDelivered.get();
+    }
+
+    /**
+     * Gets the average time between a broadcast being queued and its last message being sent.
+     *
+     * @return The average send latency, in nanoseconds.
+     */
+    public long getAverageLatency() {
+        long delivered = this.broadcastsDelivered.get();
+        return delivered == 0 ? 0 : this.totalLatency.get() / delivered;
+    }
+
+    /**
+     * Gets the longest time between a broadcast being queued and its last message being sent.
+     *
+     * @return The maximum send latency, in nanoseconds.
+     */
+    public long getMaxLatency() {
+        return this.maxLatency.get();
+    }
+
+    /**
+     * A queued broadcast. Two broadcasts are equal if they have the same source and message.
+     */
+    private static final class Broadcast {
+
+        @Nonnull
+        private final Object source;
+        @Nonnull
+        private final String message;
+        @Nonnull
+        private final org.bukkit.entity.Player[] recipients;
+        private final long queuedAt;
+        /**
+         * The index of the next recipient to be sent the message. Only accessed by the delivering thread.
+         */
+        private int next;
+
+        private Broadcast(@Nonnull final Object source, @Nonnull final String message, @Nonnull final org.bukkit.entity.Player[] recipients) {
+            this.source = source;
+            this.message = message;
+            this.recipients = recipients;
+            this.queuedAt = System.nanoTime();
+        }
+
+        /**
+         * Sends the message to as many of the remaining recipients as the budget allows.
+         *
+         * @param budget The maximum number of messages to send.
+         * @return The number of messages sent.
+         */
+        private int send(final int budget) {
+            int end = (int) Math.min((long) this.next + budget, this.recipients.length);
+            int start = this.next;
+            for (int i = start; i < end; i++) {
+                this.recipients[i].sendMessage(this.message);
+            }
+            this.next = end;
+            return end - start;
+        }
+
+        private boolean isDelivered() {
+            return this.next >= this.recipients.length;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) {
+                return true;
+            } else if (!(o instanceof Broadcast)) {
+                return false;
+            } else {
+                Broadcast other = (Broadcast) o;
+                return this.source == other.source && this.message.equals(other.message);
+            }
+        }
+
+        @Override
+        public int hashCode() {
+            return 31 * System.identityHashCode(this.source) + this.message.hashCode();
+        }
+    }
+}
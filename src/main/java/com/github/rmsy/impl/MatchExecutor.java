@@ -0,0 +1,255 @@
+package com.github.rmsy.impl;
+
+import com.google.common.base.Preconditions;
+import org.bukkit.Bukkit;
+import org.bukkit.plugin.Plugin;
+import org.bukkit.scheduler.BukkitTask;
+
+import javax.annotation.Nonnull;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Runs the slow, read-only phase of match commands on a worker thread, and hands their results back to the main
+ * thread, where commits are run in batches once a tick. Work runs in the order it was submitted.
+ * <p/>
+ * Only work that can run against copies of match state belongs on the worker: currently, resolving the winning team
+ * of {@code /match end}. Everything that reads or changes a match, including readiness, balancing and rendering
+ * messages, stays on the main thread.
+ * <p/>
+ * Until the executor is started, all work runs immediately on the calling thread.
+ */
+public final class MatchExecutor implements Runnable {
+
+    /**
+     * The default maximum number of commits run on the main thread per tick.
+     */
+    public static final int DEFAULT_COMMITS_PER_TICK = 500;
+    /**
+     * How long {@link #stop()} waits for submitted work to finish, in milliseconds.
+     */
+    private static final long STOP_TIMEOUT = 1000L;
+    /**
+     * The maximum number of commits run on the main thread per tick.
+     */
+    private final int commitsPerTick;
+    /**
+     * Work waiting to be run on the main thread.
+     */
+    @Nonnull
+    private final Queue<Runnable> commits;
+    /**
+     * The number of commits waiting to be run.
+     */
+    @Nonnull
+    private final AtomicInteger pendingCommits;
+    /**
+     * The worker, or null if the executor is not started. Guarded by the executor.
+     */
+    private ExecutorService worker;
+    /**
+     * Whether or not commits are queued for the main thread, rather than run immediately. Stays set until the worker
+     * has finished, so that work still running on it while the executor stops never touches Bukkit. Guarded by the
+     * executor.
+     */
+    private boolean queueCommits;
+    /**
+     * Whether or not the executor stopped before the worker finished, in which case commits from the work it left
+     * behind are dropped. Guarded by the executor.
+     */
+    private boolean abandoned;
+    /**
+     * The task running commits on the main thread, or null if the executor is not started. Guarded by the executor.
+     */
+    private BukkitTask task;
+    /**
+     * The logger failures are reported to, or null if the executor is not started.
+     */
+    private volatile Logger logger;
+
+    /**
+     * Creates a new executor.
+     */
+    public MatchExecutor() {
+        this(DEFAULT_COMMITS_PER_TICK);
+    }
+
+    /**
+     * Creates a new executor.
+     *
+     * @param commitsPerTick The maximum number of commits run on the main thread per tick.
+     * @throws IllegalArgumentException If the number of commits is not positive.
+     */
+    public MatchExecutor(final int commitsPerTick) throws IllegalArgumentException {
+        Preconditions.checkArgument(commitsPerTick > 0, "Commits per tick must be positive.");
+        this.commitsPerTick = commitsPerTick;
+        this.commits = new ConcurrentLinkedQueue<Runnable>();
+        this.pendingCommits = new AtomicInteger();
+    }
+
+    /**
+     * Starts the worker, and starts running commits on the main thread every tick.
+     *
+     * @param plugin The plugin to run the executor under.
+     * @throws IllegalStateException If the executor is already started.
+     */
+    public synchronized void start(@Nonnull final Plugin plugin) throws IllegalStateException {
+        Preconditions.checkState(this.worker == null, "Executor is already started.");
+        this.task = Bukkit.getScheduler().runTaskTimer(Preconditions.checkNotNull(plugin, "plugin"), this, 1L, 1L);
+        this.logger = plugin.getLogger();
+        this.worker = Executors.newSingleThreadExecutor(new WorkerThreadFactory());
+        this.queueCommits = true;
+        this.abandoned = false;
+    }
+
+    /**
+     * Stops the executor, waiting briefly for submitted work to finish and then running all pending commits. If the
+     * work does not finish in time, the commits it makes afterwards are dropped with a warning rather than run off of
+     * the main thread. Work submitted after the executor is stopped runs immediately.
+     */
+    public void stop() {
+        ExecutorService worker;
+        synchronized (this) {
+            worker = this.worker;
+            if (worker == null) {
+                return;
+            }
+            this.worker = null;
+            this.task.cancel();
+            this.task = null;
+        }
+
+        worker.shutdown();
+        boolean finished;
+        try {
+            finished = worker.awaitTermination(STOP_TIMEOUT, TimeUnit.MILLISECONDS);
+        } catch (InterruptedException exception) {
+            Thread.currentThread().interrupt();
+            finished = false;
+        }
+        synchronized (this) {
+            this.queueCommits = false;
+            this.abandoned = !finished;
+        }
+        this.runCommits(Integer.MAX_VALUE);
+        if (!finished) {
+            this.getLogger().warning("Match work did not finish before the executor stopped; its results will be dropped");
+        }
+    }
+
+    /**
+     * Runs work on the worker. The work must not touch Bukkit or read live match state; use
+     * {@link #commit(Runnable)} to hand results back to the main thread. Exceptions thrown by the work on the worker are
+     * logged.
+     *
+     * @param work The work.
+     */
+    public void execute(@Nonnull final Runnable work) {
+        Preconditions.checkNotNull(work, "work");
+        synchronized (this) {
+            //  submitted under the lock, so that the worker can not be shut down in between
+            if (this.worker != null) {
+                this.worker.execute(new Runnable() {
+                    @Override
+                    public void run() {
+                        try {
+                            work.run();
+                        } catch (RuntimeException exception) {
+                            MatchExecutor.this.getLogger().log(Level.SEVERE, "Match work threw an exception", exception);
+                        }
+                    }
+                });
+                return;
+            }
+        }
+        work.run();
+    }
+
+    /**
+     * Runs work on the main thread, in the next batch of commits.
+     *
+     * @param work The work.
+     */
+    public void commit(@Nonnull final Runnable work) {
+        Preconditions.checkNotNull(work, "work");
+        boolean abandoned;
+        synchronized (this) {
+            if (this.queueCommits) {
+                this.commits.add(work);
+                this.pendingCommits.incrementAndGet();
+                return;
+            }
+            abandoned = this.abandoned;
+        }
+        if (abandoned && !Bukkit.isPrimaryThread()) {
+            this.getLogger().warning("Dropped a match commit made after the executor stopped");
+        } else {
+            work.run();
+        }
+    }
+
+    /**
+     * Gets the number of commits waiting to be run on the main thread.
+     *
+     * @return The number of pending commits.
+     */
+    public int getPendingCommits() {
+        return this.pendingCommits.get();
+    }
+
+    /**
+     * Runs the next batch of commits.
+     */
+    @Override
+    public void run() {
+        this.runCommits(this.commitsPerTick);
+    }
+
+    /**
+     * Runs pending commits.
+     *
+     * @param limit The maximum number of commits to run.
+     */
+    private void runCommits(final int limit) {
+        Runnable commit;
+        for (int i = 0; i < limit && (commit = this.commits.poll()) != null; i++) {
+            this.pendingCommits.decrementAndGet();
+            try {
+                commit.run();
+            } catch (RuntimeException exception) {
+                this.getLogger().log(Level.SEVERE, "Match commit threw an exception", exception);
+            }
+        }
+    }
+
+    /**
+     * Gets the logger failures are reported to.
+     *
+     * @return The plugin's logger, or the server's if the executor has not been started.
+     */
+    @Nonnull
+    private Logger getLogger() {
+        Logger logger = this.logger;
+        return logger != null ? logger : Bukkit.getLogger();
+    }
+
+    /**
+     * Creates the named daemon thread of the worker.
+     */
+    private static final class WorkerThreadFactory implements ThreadFactory {
+
+        @Override
+        public Thread newThread(@Nonnull Runnable runnable) {
+            Thread thread = new Thread(runnable, "PretendGM match worker");
+            thread.setDaemon(true);
+            return thread;
+        }
+    }
+}
@@ -0,0 +1,27 @@
+package com.github.rmsy.impl;
+
+/**
+ * The states a {@link SimpleMatch} moves through.
+ */
+public enum MatchState {
+    /**
+     * The match has not started, and is not counting down to start.
+     */
+    IDLE,
+    /**
+     * The match is counting down to start.
+     */
+    STARTING,
+    /**
+     * The match is running.
+     */
+    RUNNING,
+    /**
+     * The match has ended.
+     */
+    FINISHED,
+    /**
+     * The match has ended, and is counting down to be reset for the next round.
+     */
+    CYCLING
+}
@@ -0,0 +1,274 @@
+package com.github.rmsy.impl;
+
+import com.google.common.base.Preconditions;
+import tc.oc.api.Player;
+
+import javax.annotation.Nonnull;
+import java.util.AbstractSet;
+import java.util.ConcurrentModificationException;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+
+/**
+ * A set of players, compared by identity, with much less overhead per member than a {@link java.util.HashSet}. The
+ * members are packed into a dense array, which is what iteration walks, and an open-addressed table of positions in
+ * that array makes {@link #contains(Object)}, {@link #add(Player)} and {@link #remove(Object)} constant time. Removing a
+ * member moves the last member into its place, so iteration order is not stable across removals.
+ * <p/>
+ * Not safe for use from multiple threads.
+ */
+public final class PlayerSet extends AbstractSet<Player> {
+
+    /**
+     * The members, packed at the start of the array.
+     */
+    @Nonnull
+    private Player[] members;
+    /**
+     * The number of members.
+     */
+    private int size;
+    /**
+     * The position of each member in {@link #members}, plus one, placed by the member's identity hash; zero marks an
+     * empty slot. Never more than half full.
+     */
+    @Nonnull
+    private int[] slots;
+    /**
+     * The number of times the set has been changed, so that iterators can detect concurrent modification.
+     */
+    private int modCount;
+
+    /**
+     * Creates a new, empty set.
+     */
+    public PlayerSet() {
+        this.members = new Player[8];
+        this.slots = new int[16];
+    }
+
+    /**
+     * Gets the number of members.
+     *
+     * @return The number of members.
+     */
+    @Override
+    public int size() {
+        return this.size;
+    }
+
+    /**
+     * Gets the member at the specified position. Together with {@link #size()}, this lets hot paths walk the members
+     * without an iterator.
+     *
+     * @param index The position, from zero to one less than the size.
+     * @return The member.
+     * @throws IndexOutOfBoundsException If there is no member at the position.
+     */
+    @Nonnull
+    public Player get(final int index) throws IndexOutOfBoundsException {
+        if (index < 0 || index >= this.size) {
+            throw new IndexOutOfBoundsException("Index: " + index + ", size: " + this.size);
+        }
+        return this.members[index];
+    }
+
+    /**
+     * Gets the Bukkit players of the members.
+     *
+     * @return A new array holding each member's Bukkit player.
+     */
+    @Nonnull
+    public org.bukkit.entity.Player[] toBukkitArray() {
+        org.bukkit.entity.Player[] bukkitPlayers = new org.bukkit.entity.Player[this.size];
+        for (int i = 0; i < bukkitPlayers.length; i++) {
+            bukkitPlayers[i] = this.members[i].getBukkit();
+        }
+        return bukkitPlayers;
+    }
+
+    @Override
+    public boolean contains(final Object object) {
+        return object instanceof Player && this.findSlot(object) >= 0;
+    }
+
+    @Override
+    public boolean add(@Nonnull final Player player) {
+        if (this.findSlot(Preconditions.checkNotNull(player, "player")) >= 0) {
+            return false;
+        }
+
+        if (this.size == this.members.length) {
+            Player[] members = new Player[this.size * 2];
+            System.arraycopy(this.members, 0, members, 0, this.size);
+            this.members = members;
+        }
+        if ((this.size + 1) * 2 > this.slots.length) {
+            this.rehash(this.slots.length * 2);
+        }
+        this.members[this.size] = player;
+        this.slots[this.freeSlot(player)] = ++this.size;
+        this.modCount++;
+        return true;
+    }
+
+    @Override
+    public boolean remove(final Object object) {
+        if (!(object instanceof Player)) {
+            return false;
+        }
+        int slot = this.findSlot(object);
+        if (slot < 0) {
+            return false;
+        }
+        this.removeAt(slot);
+        return true;
+    }
+
+    @Override
+    public void clear() {
+        if (this.size > 0) {
+            for (int i = 0; i < this.size; i++) {
+                this.members[i] = null;
+            }
+            for (int i = 0; i < this.slots.length; i++) {
+                this.slots[i] = 0;
+            }
+            this.size = 0;
+            this.modCount++;
+        }
+    }
+
+    @Nonnull
+    @Override
+    public Iterator<Player> iterator() {
+        return new Iterator<Player>() {
+
+            private int next;
+            private int last = -1;
+            private int expectedModCount = PlayerSet.this.modCount;
+
+            @Override
+            public boolean hasNext() {
+                return this.next < PlayerSet.this.size;
+            }
+
+            @Override
+            public Player next() {
+                if (PlayerSet.this.modCount != this.expectedModCount) {
+                    throw new ConcurrentModificationException();
+                } else if (this.next >= PlayerSet.this.size) {
+                    throw new NoSuchElementException();
+                }
+                this.last = this.next++;
+                return PlayerSet.this.members[this.last];
+            }
+
+            @Override
+            public void remove() {
+                if (this.last < 0) {
+                    throw new IllegalStateException();
+                } else if (PlayerSet.this.modCount != this.expectedModCount) {
+                    throw new ConcurrentModificationException();
+                }
+                PlayerSet.this.removeAt(PlayerSet.this.findSlot(PlayerSet.this.members[this.last]));
+                //  the last member was moved into the removed member's place, so visit that position again
+                this.next = this.last;
+                this.last = -1;
+                this.expectedModCount = PlayerSet.this.modCount;
+            }
+        };
+    }
+
+    /**
+     * Removes the member whose position is held in the specified slot.
+     *
+     * @param slot The slot.
+     */
+    private void removeAt(final int slot) {
+        int position = this.slots[slot] - 1;
+        this.deleteSlot(slot);
+        int last = --this.size;
+        if (position != last) {
+            Player moved = this.members[last];
+            this.members[position] = moved;
+            this.slots[this.findSlot(moved)] = position + 1;
+        }
+        this.members[last] = null;
+        this.modCount++;
+    }
+
+    /**
+     * Finds the slot holding the position of the specified player.
+     *
+     * @param player The player.
+     * @return The slot, or -1 if the player is not a member.
+     */
+    private int findSlot(@Nonnull final Object player) {
+        int mask = this.slots.length - 1;
+        for (int slot = hash(player) & mask; ; slot = (slot + 1) & mask) {
+            int position = this.slots[slot];
+            if (position == 0) {
+                return -1;
+            } else if (this.members[position - 1] == player) {
+                return slot;
+            }
+        }
+    }
+
+    /**
+     * Finds the empty slot the specified player's position should go in.
+     *
+     * @param player The player, who must not be a member.
+     * @return The slot.
+     */
+    private int freeSlot(@Nonnull final Player player) {
+        int mask = this.slots.length - 1;
+        int slot = hash(player) & mask;
+        while (this.slots[slot] != 0) {
+            slot = (slot + 1) & mask;
+        }
+        return slot;
+    }
+
+    /**
+     * Empties a slot, shifting later slots in the same run back so that lookups do not stop short.
+     *
+     * @param slot The slot.
+     */
+    private void deleteSlot(int slot) {
+        int mask = this.slots.length - 1;
+        for (int next = (slot + 1) & mask; this.slots[next] != 0; next = (next + 1) & mask) {
+            int home = hash(this.members[this.slots[next] - 1]) & mask;
+            //  move the entry back unless its home lies cyclically after the empty slot and at or before its own slot
+            if ((next > slot && (home <= slot || home > next)) || (next < slot && home <= slot && home > next)) {
+                this.slots[slot] = this.slots[next];
+                slot = next;
+            }
+        }
+        this.slots[slot] = 0;
+    }
+
+    /**
+     * Rebuilds the slot table with the specified number of slots.
+     *
+     * @param capacity The number of slots, a power of two.
+     */
+    private void rehash(final int capacity) {
+        this.slots = new int[capacity];
+        for (int i = 0; i < this.size; i++) {
+            this.slots[this.freeSlot(this.members[i])] = i + 1;
+        }
+    }
+
+    /**
+     * Hashes a player by identity, spreading the bits so that nearby hashes do not cluster.
+     *
+     * @param player The player.
+     * @return The player's hash.
+     */
+    private static int hash(@Nonnull final Object player) {
+        int hash = System.identityHashCode(player) * 0x9E3779B9;
+        return hash ^ (hash >>> 16);
+    }
+}
@@ -1,37 +1,195 @@
 package com.github.rmsy.impl;
 
+import com.github.rmsy.change.ChangeBus;
+import com.github.rmsy.change.ChangeListener;
+import com.github.rmsy.change.MatchMappingChange;
+import com.github.rmsy.change.PlayerChange;
+import com.github.rmsy.metrics.Metrics;
+import com.github.rmsy.results.MatchStatistics;
+import com.github.rmsy.util.FuzzyIndex;
+import com.github.rmsy.util.HandleTable;
+import com.github.rmsy.util.IntIndex;
+import com.github.rmsy.util.LiquidMetal;
+import com.github.rmsy.util.Pool;
+import com.github.rmsy.util.RandomUUIDs;
+import com.github.rmsy.util.Ranking;
 import com.google.common.base.Preconditions;
+import org.bukkit.ChatColor;
 import org.bukkit.World;
 import tc.oc.api.Match;
 import tc.oc.api.Player;
+import tc.oc.api.Team;
 import tc.oc.api.backend.Backend;
 
 import javax.annotation.Nonnull;
 import javax.annotation.Nullable;
+import java.util.ArrayList;
 import java.util.Collection;
-import java.util.HashMap;
-import java.util.Map;
+import java.util.Collections;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
 
 /**
- * Simple implementation of {@link Backend}.
+ * Simple implementation of {@link Backend}. Safe for use from multiple threads; lookups never block, and writes only
+ * contend with writes that hash to the same stripe.
+ * <p/>
+ * Every mapped player and match is given a small integer handle, which indexes straight into an array. Players are
+ * also indexed by entity ID, so that the hottest lookup, by Bukkit player, is an array probe rather than a hash map
+ * lookup.
+ * <p/>
+ * Matches created by the backend, and their teams, are recycled once they have been removed through
+ * {@link #removeMatch(World)} while idle or finished, and every change listener has seen the removal: their collections are emptied but keep their capacity, and they are handed out again by
+ * {@link #createMatch(World)} and {@link #createTeam(String, ChatColor, boolean, boolean, boolean)}. Code that holds on
+ * to a match or team across ticks must check that it is still the same one before using it again, by comparing its
+ * generation ({@link SimpleMatch#getGeneration()}, {@link SimpleTeam#getGeneration()}) with the one it noted, or by
+ * looking the match up again.
  */
 public final class SimpleBackend implements Backend {
 
     /**
-     * A map of Bukkit players to their PGM counterparts.
+     * The number of lock stripes used by the maps. Writes are expected from the main thread, with the occasional write
+     * from an asynchronous task.
      */
-    private final Map<org.bukkit.entity.Player, Player> playerMap;
+    private static final int CONCURRENCY_LEVEL = 4;
     /**
-     * A map of worlds to their corresponding matches.
+     * The largest number of recycled matches, and of recycled teams, kept for reuse.
      */
-    private final Map<World, Match> matchMap;
+    private static final int MATCH_POOL_CAPACITY = 16, TEAM_POOL_CAPACITY = 64;
+    /**
+     * A map of Bukkit players' unique IDs to their PGM counterparts. Keyed by ID rather than by player, so that the map
+     * does not hold on to players that have disconnected.
+     */
+    private final ConcurrentMap<UUID, Player> playerMap;
+    /**
+     * The mapped players, by handle.
+     */
+    @Nonnull
+    private final HandleTable<SimplePlayer> playerTable;
+    /**
+     * The handles of the mapped players, by entity ID.
+     */
+    @Nonnull
+    private final IntIndex entityIndex;
+    /**
+     * A map of worlds' unique IDs to their corresponding matches. Keyed by ID rather than by world, so that the map
+     * does not hold on to worlds that have unloaded.
+     */
+    private final ConcurrentMap<UUID, Match> matchMap;
+    /**
+     * The mapped matches, by handle.
+     */
+    @Nonnull
+    private final HandleTable<SimpleMatch> matchTable;
+    /**
+     * An index of the mapped PGM players by name.
+     */
+    @Nonnull
+    private final FuzzyIndex<Player> playerIndex;
+    /**
+     * The dispatcher used to deliver broadcasts to matches created by the backend.
+     */
+    @Nonnull
+    private final BroadcastDispatcher dispatcher;
+    /**
+     * The executor used to run the slow phase of match commands off the main thread.
+     */
+    @Nonnull
+    private final MatchExecutor executor;
+    /**
+     * The bus changes to players, and to matches created by the backend, are published to.
+     */
+    @Nonnull
+    private final ChangeBus bus;
+    /**
+     * The statistics over the matches that have been completed.
+     */
+    @Nonnull
+    private final MatchStatistics statistics;
+    /**
+     * The recycled matches and teams, waiting to be reused.
+     */
+    @Nonnull
+    private final Pool<SimpleMatch> matchPool;
+    @Nonnull
+    private final Pool<SimpleTeam> teamPool;
+    /**
+     * The matches whose removal has been delivered to every listener. They are recycled by the bus's delivery
+     * callback, once every listener has seen their removal.
+     */
+    @Nonnull
+    private final List<SimpleMatch> removedMatches;
 
     /**
      * Creates a new backend.
      */
     public SimpleBackend() {
-        this.playerMap = new HashMap<org.bukkit.entity.Player, Player>();
-        this.matchMap = new HashMap<World, Match>();
+        this.playerMap = new ConcurrentHashMap<UUID, Player>(16, 0.75f, CONCURRENCY_LEVEL);
+        this.playerTable = new HandleTable<SimplePlayer>();
+        this.entityIndex = new IntIndex();
+        this.matchMap = new ConcurrentHashMap<UUID, Match>(16, 0.75f, CONCURRENCY_LEVEL);
+        this.matchTable = new HandleTable<SimpleMatch>();
+        this.playerIndex = new FuzzyIndex<Player>();
+        this.dispatcher = new BroadcastDispatcher();
+        this.executor = new MatchExecutor();
+        this.bus = new ChangeBus();
+        this.statistics = new MatchStatistics();
+        this.matchPool = new Pool<SimpleMatch>(MATCH_POOL_CAPACITY);
+        this.teamPool = new Pool<SimpleTeam>(TEAM_POOL_CAPACITY);
+        this.removedMatches = new ArrayList<SimpleMatch>();
+        this.bus.subscribe(MatchMappingChange.class, new ChangeListener<MatchMappingChange>() {
+            @Override
+            public void onChanges(@Nonnull final List<MatchMappingChange> changes) {
+                SimpleBackend.this.matchesRemapped(changes);
+            }
+        });
+        this.bus.addDeliveryCallback(new Runnable() {
+            @Override
+            public void run() {
+                SimpleBackend.this.recycleRemovedMatches();
+            }
+        });
+    }
+
+    /**
+     * Gets the dispatcher used to deliver broadcasts to matches created by the backend.
+     *
+     * @return The dispatcher.
+     */
+    @Nonnull
+    public BroadcastDispatcher getDispatcher() {
+        return this.dispatcher;
+    }
+
+    /**
+     * Gets the bus changes to players, and to matches created by the backend, are published to.
+     *
+     * @return The bus.
+     */
+    @Nonnull
+    public ChangeBus getBus() {
+        return this.bus;
+    }
+
+    /**
+     * Gets the statistics over the matches that have been completed.
+     *
+     * @return The statistics.
+     */
+    @Nonnull
+    public MatchStatistics getStatistics() {
+        return this.statistics;
+    }
+
+    /**
+     * Gets the executor used to run the slow phase of match commands off the main thread.
+     *
+     * @return The executor.
+     */
+    @Nonnull
+    public MatchExecutor getExecutor() {
+        return this.executor;
     }
 
     /**
@@ -43,22 +201,81 @@ public final class SimpleBackend implements Backend {
     @Nullable
     @Override
     public Player getPlayer(@Nonnull org.bukkit.entity.Player player) {
+        Metrics.PLAYER_LOOKUPS.increment();
         if (player == null) {
             return null;
         } else {
-            return this.playerMap.get(player);
+            SimplePlayer mapped = this.playerTable.get(this.entityIndex.get(player.getEntityId()));
+            //  fall back to the unique ID in case the entity ID is stale
+            return mapped != null && mapped.getBukkit() == player ? mapped : this.playerMap.get(player.getUniqueId());
+        }
+    }
+
+    /**
+     * Gets the PGM player whose Bukkit player has the specified entity ID.
+     *
+     * @param entityId The entity ID of the player to look for.
+     * @return The corresponding PGM player.
+     */
+    @Nullable
+    public SimplePlayer getPlayerByEntityId(final int entityId) {
+        return this.playerTable.get(this.entityIndex.get(entityId));
+    }
+
+    /**
+     * Gets the PGM player with the specified handle.
+     *
+     * @param handle The handle of the player to look for.
+     * @return The player, or null if no mapped player has the handle.
+     * @see SimplePlayer#getHandle()
+     */
+    @Nullable
+    public SimplePlayer getPlayerByHandle(final int handle) {
+        return this.playerTable.get(handle);
+    }
+
+    /**
+     * Gets the PGM player that corresponds with the Bukkit player with the specified unique ID.
+     *
+     * @param uuid The unique ID of the player to look for.
+     * @return The corresponding PGM player.
+     */
+    @Nullable
+    public Player getPlayer(@Nonnull UUID uuid) {
+        if (uuid == null) {
+            return null;
+        } else {
+            return this.playerMap.get(uuid);
         }
     }
 
+    /**
+     * Gets the number of players on the server.
+     *
+     * @return The number of players.
+     */
+    public int getPlayerCount() {
+        return this.playerMap.size();
+    }
+
+    /**
+     * Gets the number of matches on the server.
+     *
+     * @return The number of matches.
+     */
+    public int getMatchCount() {
+        return this.matchMap.size();
+    }
+
     /**
      * Gets all of the matches on the server.
      *
-     * @return All of the matches on the server.
+     * @return A snapshot of all of the matches on the server. Later changes to the backend are not reflected.
      */
     @Nonnull
     @Override
     public Collection<Match> getMatches() {
-        return this.matchMap.values();
+        return Collections.unmodifiableCollection(new ArrayList<Match>(this.matchMap.values()));
     }
 
     /**
@@ -86,51 +303,292 @@ public final class SimpleBackend implements Backend {
         if (world == null) {
             return null;
         } else {
-            return this.matchMap.get(world);
+            return this.matchMap.get(world.getUID());
         }
     }
 
     /**
-     * Maps the specified Bukkit player to the specified PGM player.
+     * Gets the match with the specified handle.
+     *
+     * @param handle The handle of the match to look for.
+     * @return The match, or null if no mapped match has the handle.
+     * @see SimpleMatch#getHandle()
+     */
+    @Nullable
+    public SimpleMatch getMatchByHandle(final int handle) {
+        return this.matchTable.get(handle);
+    }
+
+    /**
+     * Maps the specified Bukkit player to the specified PGM player. A {@link SimplePlayer} is also given a handle and
+     * indexed by entity ID; other implementations can only be looked up by unique ID and name.
      *
      * @param bukkit The Bukkit player to map.
      * @param player The PGM player to map.
      */
     public void mapPlayer(@Nonnull final org.bukkit.entity.Player bukkit, @Nonnull final Player player) {
-        this.playerMap.put(Preconditions.checkNotNull(bukkit, "bukkit player"), Preconditions.checkNotNull(player, "PGM player"));
+        Player previous = this.playerMap.put(Preconditions.checkNotNull(bukkit, "bukkit player").getUniqueId(), Preconditions.checkNotNull(player, "PGM player"));
+        if (previous != null) {
+            this.unmapPlayer(previous);
+        }
+        if (player instanceof SimplePlayer) {
+            int handle = this.playerTable.add((SimplePlayer) player);
+            ((SimplePlayer) player).setHandle(handle);
+            this.entityIndex.put(bukkit.getEntityId(), handle);
+        }
+        this.playerIndex.add(player, bukkit.getName());
+        this.bus.publish(new PlayerChange(player, true));
     }
 
     /**
      * Removes the specified Bukkit player from the map.
      *
      * @param bukkit The player to be removed.
+     * @return The PGM player that was mapped to the Bukkit player, if any.
+     */
+    @Nullable
+    public Player removePlayer(@Nonnull final org.bukkit.entity.Player bukkit) {
+        Player removed = this.playerMap.remove(Preconditions.checkNotNull(bukkit).getUniqueId());
+        if (removed != null) {
+            this.unmapPlayer(removed);
+            this.bus.publish(new PlayerChange(removed, false));
+        }
+        return removed;
+    }
+
+    /**
+     * Frees the handle of a player that has been removed from the map, and removes it from the indexes.
+     *
+     * @param player The player.
+     */
+    private void unmapPlayer(@Nonnull final Player player) {
+        if (player instanceof SimplePlayer) {
+            SimplePlayer simplePlayer = (SimplePlayer) player;
+            int handle = simplePlayer.getHandle();
+            this.entityIndex.remove(player.getBukkit().getEntityId(), handle);
+            this.playerTable.remove(handle, simplePlayer);
+            simplePlayer.setHandle(HandleTable.NO_HANDLE);
+        }
+        this.playerIndex.remove(player);
+    }
+
+    /**
+     * Finds the mapped players whose names best match the specified abbreviation.
+     *
+     * @param abbreviation The abbreviation.
+     * @param limit        The maximum number of players to return.
+     * @return The matching players, best match first.
      */
-    public void removePlayer(@Nonnull final org.bukkit.entity.Player bukkit) {
-        this.playerMap.remove(Preconditions.checkNotNull(bukkit));
+    @Nonnull
+    public List<Player> findPlayers(@Nonnull final String abbreviation, final int limit) {
+        return this.playerIndex.search(abbreviation, limit);
+    }
+
+    /**
+     * Finds the teams, across all matches, whose names best match the specified abbreviation. There are only a few
+     * teams per match, so they are scored directly rather than indexed.
+     *
+     * @param abbreviation The abbreviation.
+     * @param limit        The maximum number of teams to return.
+     * @return The matching teams, best match first.
+     */
+    @Nonnull
+    public List<Team> findTeams(@Nonnull final String abbreviation, final int limit) {
+        String lowerAbbreviation = Preconditions.checkNotNull(abbreviation, "abbreviation").toLowerCase();
+        Ranking<Team> ranking = new Ranking<Team>(limit);
+        for (Match match : this.matchMap.values()) {
+            for (Team team : match.getTeams()) {
+                double score = TeamMatcher.score(team, lowerAbbreviation);
+                if (score > LiquidMetal.SCORE_NO_MATCH) {
+                    ranking.offer(team, score);
+                }
+            }
+        }
+        return ranking.toList();
     }
 
     /**
-     * Maps the specified world to the specified match.
+     * Maps the specified world to the specified match. A {@link SimpleMatch} is also given a handle; other
+     * implementations can only be looked up by world.
      *
      * @param world The world to be mapped.
      * @param match The match.
      */
     public void mapMatch(@Nonnull final World world, @Nonnull final Match match) {
-        this.matchMap.put(Preconditions.checkNotNull(world, "world"), Preconditions.checkNotNull(match, "match"));
+        if (Preconditions.checkNotNull(match, "match") instanceof SimpleMatch && ((SimpleMatch) match).getHandle() == HandleTable.NO_HANDLE) {
+            ((SimpleMatch) match).setHandle(this.matchTable.add((SimpleMatch) match));
+        }
+        Match previous = this.matchMap.put(Preconditions.checkNotNull(world, "world").getUID(), match);
+        if (previous != match) {
+            if (previous != null) {
+                this.unmapMatch(previous);
+                if (previous instanceof SimpleMatch) {
+                    //  the match was never removed, so it may still be running and in use; it is no longer ours to recycle
+                    ((SimpleMatch) previous).setRecyclable(false);
+                    this.bus.publish(new MatchMappingChange((SimpleMatch) previous, false));
+                }
+            }
+            if (match instanceof SimpleMatch) {
+                this.bus.publish(new MatchMappingChange((SimpleMatch) match, true));
+            }
+        }
+    }
+
+    /**
+     * Frees the handle of a match that has been removed from the map.
+     *
+     * @param match The match.
+     */
+    private void unmapMatch(@Nonnull final Match match) {
+        if (match instanceof SimpleMatch) {
+            SimpleMatch simpleMatch = (SimpleMatch) match;
+            this.matchTable.remove(simpleMatch.getHandle(), simpleMatch);
+            simpleMatch.setHandle(HandleTable.NO_HANDLE);
+        }
+    }
+
+    /**
+     * Creates a new match in the specified world, and maps the world to it.
+     *
+     * @param world The world in which the match is taking place.
+     * @return The new match.
+     * @throws IllegalStateException If a match is already mapped to the world.
+     */
+    @Nonnull
+    public SimpleMatch createMatch(@Nonnull final World world) throws IllegalStateException {
+        return this.createMatch(world, RandomUUIDs.randomUUID());
+    }
+
+    /**
+     * Creates a new match with the specified unique identifier in the specified world, and maps the world to it. The
+     * match is a recycled one, if there is one.
+     *
+     * @param world The world in which the match is taking place.
+     * @param uuid  The match's unique identifier.
+     * @return The new match.
+     * @throws IllegalStateException If a match is already mapped to the world.
+     */
+    @Nonnull
+    public SimpleMatch createMatch(@Nonnull final World world, @Nonnull final UUID uuid) throws IllegalStateException {
+        Preconditions.checkNotNull(world, "world");
+        Preconditions.checkNotNull(uuid, "uuid");
+        SimpleMatch match = this.matchPool.acquire();
+        if (match == null) {
+            match = new SimpleMatch(world, this.dispatcher, this.bus, uuid);
+        } else {
+            match.reset(world, uuid);
+        }
+        match.setRecyclable(true);
+        //  give the match its handle before anyone can see it
+        match.setHandle(this.matchTable.add(match));
+        if (this.matchMap.putIfAbsent(world.getUID(), match) != null) {
+            this.unmapMatch(match);
+            //  nobody has seen the match, so it can go straight back
+            this.recycle(match);
+            throw new IllegalStateException("Match can not be created in world where match is already present.");
+        }
+        this.bus.publish(new MatchMappingChange(match, true));
+        return match;
+    }
+
+    /**
+     * Creates a new team, which is a recycled one, if there is one.
+     *
+     * @param name            The name of the team.
+     * @param color           The team's color.
+     * @param canParticipate  Whether or not the team is capable of participating in its match.
+     * @param isParticipating Whether or not the team is participating in its match.
+     * @param isSpectating    Whether or not the team is spectating in its match.
+     * @return The new team.
+     * @throws IllegalArgumentException If the team is participating but is not capable of participating.
+     */
+    @Nonnull
+    public SimpleTeam createTeam(@Nonnull final String name, @Nonnull final ChatColor color, final boolean canParticipate, final boolean isParticipating, final boolean isSpectating) throws IllegalArgumentException {
+        SimpleTeam team = this.teamPool.acquire();
+        if (team == null) {
+            return new SimpleTeam(name, color, canParticipate, isParticipating, isSpectating);
+        } else {
+            team.reset(name, color, canParticipate, isParticipating, isSpectating);
+            return team;
+        }
+    }
+
+    /**
+     * Called when mapping changes are delivered. Holds on to the matches whose removal was delivered, so that they can
+     * be recycled once every other listener has seen it too.
+     *
+     * @param changes The changes.
+     */
+    private void matchesRemapped(@Nonnull final List<MatchMappingChange> changes) {
+        synchronized (this.removedMatches) {
+            for (MatchMappingChange change : changes) {
+                if (!change.isMapped()) {
+                    this.removedMatches.add(change.getMatch());
+                }
+            }
+        }
+    }
+
+    /**
+     * Recycles the matches whose removal has been delivered. Called by the bus after every delivery.
+     */
+    private void recycleRemovedMatches() {
+        synchronized (this.removedMatches) {
+            for (SimpleMatch match : this.removedMatches) {
+                this.recycle(match);
+            }
+            this.removedMatches.clear();
+        }
+    }
+
+    /**
+     * Empties a removed match and puts it, and its teams, into the pools. Only matches that the backend created and
+     * that were taken out through {@link #removeMatch(World)} are recycled, and only while they are idle or finished,
+     * unmapped and empty; any other match is left alone.
+     *
+     * @param match The match.
+     */
+    private void recycle(@Nonnull final SimpleMatch match) {
+        MatchState state = match.getState();
+        if (match.isRecyclable() && (state == MatchState.IDLE || state == MatchState.FINISHED) && match.getHandle() == HandleTable.NO_HANDLE && match.getPlayers().isEmpty()) {
+            match.recycle(this.teamPool);
+            this.matchPool.release(match);
+        }
+    }
+
+    /**
+     * Rebalances the teams of every match whose membership has changed since it was last balanced.
+     */
+    public void rebalanceMatches() {
+        for (Match match : this.matchMap.values()) {
+            if (match instanceof SimpleMatch) {
+                ((SimpleMatch) match).getBalancer().rebalance();
+            }
+        }
     }
 
     /**
-     * Removes the specified world from the map.
+     * Removes the specified world from the map. A match created by the backend is recycled afterwards, which changes
+     * its generation and that of its teams when they are reused; code holding on to them must check it.
      *
      * @param world The world in which the match to be removed is taking place.
      * @throws IllegalStateException    If the match is still running.
      * @throws IllegalArgumentException If no match for the specified world is found.
      */
     public void removeMatch(@Nonnull final World world) throws IllegalStateException, IllegalArgumentException {
-        Match match = this.matchMap.get(Preconditions.checkNotNull(world, "world"));
+        Match match = this.matchMap.get(Preconditions.checkNotNull(world, "world").getUID());
         if (match != null) {
             if (!match.isRunning()) {
-                this.matchMap.remove(world);
+                if (match instanceof SimpleMatch) {
+                    ((SimpleMatch) match).cancelCountdown();
+                }
+                //  only remove the match we checked, in case the world was re-mapped in the meantime
+                if (this.matchMap.remove(world.getUID(), match)) {
+                    this.unmapMatch(match);
+                    if (match instanceof SimpleMatch) {
+                        this.bus.publish(new MatchMappingChange((SimpleMatch) match, false));
+                    }
+                }
             } else {
                 throw new IllegalStateException("Match can not be removed when running.");
             }
@@ -1,8 +1,23 @@
 package com.github.rmsy.impl;
 
+import com.github.rmsy.change.ChangeBus;
+import com.github.rmsy.change.MatchChange;
+import com.github.rmsy.change.MatchMembershipChange;
+import com.github.rmsy.event.Events;
+import com.github.rmsy.event.MatchReadyStateChangeEvent;
+import com.github.rmsy.event.MatchStateChangeEvent;
+import com.github.rmsy.message.MessageTemplate;
+import com.github.rmsy.message.Messages;
+import com.github.rmsy.metrics.Counter;
+import com.github.rmsy.metrics.Metrics;
+import com.github.rmsy.util.HandleTable;
+import com.github.rmsy.util.Pool;
+import com.github.rmsy.util.RandomUUIDs;
 import com.google.common.base.Preconditions;
-import com.sk89q.minecraft.util.commands.ChatColor;
+import org.bukkit.Bukkit;
 import org.bukkit.World;
+import org.bukkit.plugin.Plugin;
+import org.bukkit.scheduler.BukkitTask;
 import tc.oc.api.Match;
 import tc.oc.api.Player;
 import tc.oc.api.Team;
@@ -10,6 +25,7 @@ import tc.oc.api.Team;
 import javax.annotation.Nonnull;
 import javax.annotation.Nullable;
 import java.util.Collection;
+import java.util.Collections;
 import java.util.HashSet;
 import java.util.Set;
 import java.util.UUID;
@@ -23,44 +39,185 @@ public class SimpleMatch implements Match {
      * The world in which the match is taking place.
      */
     @Nonnull
-    private final World world;
+    private World world;
     /**
      * The match's unique identifier.
      */
     @Nonnull
-    private final UUID uuid;
+    private UUID uuid;
     /**
      * All of the match's members.
      */
     @Nonnull
-    private final Set<Player> members;
+    private final PlayerSet members;
+    /**
+     * The match's participating members.
+     */
+    @Nonnull
+    private final PlayerSet participatingPlayers;
+    /**
+     * The match's spectating members.
+     */
+    @Nonnull
+    private final PlayerSet spectatingPlayers;
     /**
      * All of the match's teams.
      */
     private final Set<Team> teams;
     /**
-     * Whether or not the match is currently running.
+     * The match's participating teams.
+     */
+    @Nonnull
+    private final Set<Team> participatingTeams;
+    /**
+     * The match's spectating teams.
+     */
+    @Nonnull
+    private final Set<Team> spectatingTeams;
+    /**
+     * Read-only views of the sets above, handed out to callers.
+     */
+    @Nonnull
+    private final Set<Player> membersView, participatingPlayersView, spectatingPlayersView;
+    @Nonnull
+    private final Set<Team> teamsView, participatingTeamsView, spectatingTeamsView;
+    /**
+     * The dispatcher used to deliver broadcasts to the match.
      */
-    private boolean running;
+    @Nonnull
+    private final BroadcastDispatcher dispatcher;
+    /**
+     * The bus changes to the match and its teams are published to.
+     */
+    @Nonnull
+    private final ChangeBus bus;
+    /**
+     * The balancer keeping the match's participating teams even.
+     */
+    @Nonnull
+    private final TeamBalancer balancer;
+    /**
+     * The number of participating teams with at least one member. Kept up to date as players join, leave and move,
+     * so that readiness can be checked without looking at every team.
+     */
+    private int readyTeamCount;
+    /**
+     * Whether or not the match was ready to start after the last membership change.
+     */
+    private boolean ready;
+    /**
+     * The match's current state.
+     */
+    @Nonnull
+    private volatile MatchState state;
+    /**
+     * The countdown currently in progress, if any.
+     */
+    @Nullable
+    private Countdown countdown;
+    /**
+     * When the match last started and ended, in milliseconds since the epoch, or zero if it has not.
+     */
+    private long startTime, endTime;
+    /**
+     * The team that won the match when it last ended, if any.
+     */
+    @Nullable
+    private Team winner;
+    /**
+     * The match's handle in the backend, or {@link HandleTable#NO_HANDLE} if the match is not mapped.
+     */
+    private volatile int handle = HandleTable.NO_HANDLE;
+    /**
+     * Whether or not the match belongs to a backend, which recycles it once it has been removed.
+     */
+    private boolean recyclable;
+    /**
+     * The number of times the match has been recycled.
+     */
+    private volatile int generation;
+    /**
+     * The number of broadcasts to the match, and the time they took in nanoseconds, since it was created or recycled.
+     * The same broadcasts are also recorded in {@link Metrics#MATCH_BROADCASTS}, across every match.
+     */
+    @Nonnull
+    private final Counter broadcasts, broadcastNanos;
+    /**
+     * The number of calls to {@link #getParticipatingPlayers()} since the match was created or recycled.
+     */
+    @Nonnull
+    private final Counter participatingPlayerQueries;
 
     private SimpleMatch() {
-        this.world = null;
-        this.uuid = null;
         this.members = null;
+        this.participatingPlayers = null;
+        this.spectatingPlayers = null;
         this.teams = null;
+        this.participatingTeams = null;
+        this.spectatingTeams = null;
+        this.membersView = null;
+        this.participatingPlayersView = null;
+        this.spectatingPlayersView = null;
+        this.teamsView = null;
+        this.participatingTeamsView = null;
+        this.spectatingTeamsView = null;
+        this.dispatcher = null;
+        this.bus = null;
+        this.balancer = null;
+        this.broadcasts = null;
+        this.broadcastNanos = null;
+        this.participatingPlayerQueries = null;
     }
 
     /**
-     * Creates a new SimpleMatch.
+     * Creates a new SimpleMatch whose broadcasts are delivered immediately.
      *
      * @param world The world in which the match is taking place.
      */
     public SimpleMatch(@Nonnull final World world) {
+        this(world, BroadcastDispatcher.DIRECT);
+    }
+
+    /**
+     * Creates a new SimpleMatch.
+     *
+     * @param world      The world in which the match is taking place.
+     * @param dispatcher The dispatcher used to deliver broadcasts to the match and its teams.
+     */
+    public SimpleMatch(@Nonnull final World world, @Nonnull final BroadcastDispatcher dispatcher) {
+        this(world, dispatcher, ChangeBus.NONE, RandomUUIDs.randomUUID());
+    }
+
+    /**
+     * Creates a new SimpleMatch with the specified unique identifier, such as that of a match being restored.
+     *
+     * @param world      The world in which the match is taking place.
+     * @param dispatcher The dispatcher used to deliver broadcasts to the match and its teams.
+     * @param bus        The bus changes to the match and its teams are published to.
+     * @param uuid       The match's unique identifier.
+     */
+    public SimpleMatch(@Nonnull final World world, @Nonnull final BroadcastDispatcher dispatcher, @Nonnull final ChangeBus bus, @Nonnull final UUID uuid) {
         this.world = Preconditions.checkNotNull(world, "world");
-        this.uuid = UUID.randomUUID();
-        this.running = false;
-        this.members = new HashSet<Player>();
+        this.dispatcher = Preconditions.checkNotNull(dispatcher, "dispatcher");
+        this.bus = Preconditions.checkNotNull(bus, "bus");
+        this.balancer = new TeamBalancer(this);
+        this.uuid = Preconditions.checkNotNull(uuid, "uuid");
+        this.state = MatchState.IDLE;
+        this.members = new PlayerSet();
+        this.participatingPlayers = new PlayerSet();
+        this.spectatingPlayers = new PlayerSet();
         this.teams = new HashSet<Team>();
+        this.participatingTeams = new HashSet<Team>();
+        this.spectatingTeams = new HashSet<Team>();
+        this.membersView = Collections.unmodifiableSet(this.members);
+        this.participatingPlayersView = Collections.unmodifiableSet(this.participatingPlayers);
+        this.spectatingPlayersView = Collections.unmodifiableSet(this.spectatingPlayers);
+        this.teamsView = Collections.unmodifiableSet(this.teams);
+        this.participatingTeamsView = Collections.unmodifiableSet(this.participatingTeams);
+        this.spectatingTeamsView = Collections.unmodifiableSet(this.spectatingTeams);
+        this.broadcasts = new Counter();
+        this.broadcastNanos = new Counter();
+        this.participatingPlayerQueries = new Counter();
     }
 
     /**
@@ -85,6 +242,81 @@ public class SimpleMatch implements Match {
         return this.uuid;
     }
 
+    /**
+     * Gets the match's handle in the backend, which can be passed to {@link SimpleBackend#getMatchByHandle(int)}.
+     *
+     * @return The match's handle, or {@link HandleTable#NO_HANDLE} if the match is not mapped.
+     */
+    public int getHandle() {
+        return this.handle;
+    }
+
+    /**
+     * Sets the match's handle. Called by {@link SimpleBackend}.
+     *
+     * @param handle The match's handle.
+     */
+    void setHandle(final int handle) {
+        this.handle = handle;
+    }
+
+    /**
+     * Gets the match's generation, which goes up every time the match is recycled. Code that holds on to a match
+     * across ticks can note its generation, and compare it before using the match again: if it has changed, the match
+     * was removed and the object now stands for another match, or for none.
+     *
+     * @return The number of times the match has been recycled.
+     */
+    public int getGeneration() {
+        return this.generation;
+    }
+
+    /**
+     * Gets the number of broadcasts to the match since it was created or recycled.
+     *
+     * @return The number of broadcasts.
+     */
+    public long getBroadcastCount() {
+        return this.broadcasts.get();
+    }
+
+    /**
+     * Gets the mean time taken by a broadcast to the match since it was created or recycled.
+     *
+     * @return The mean broadcast time, in nanoseconds, or zero if there have been no broadcasts.
+     */
+    public long getMeanBroadcastTime() {
+        long broadcasts = this.broadcasts.get();
+        return broadcasts == 0L ? 0L : this.broadcastNanos.get() / broadcasts;
+    }
+
+    /**
+     * Gets the number of calls to {@link #getParticipatingPlayers()} since the match was created or recycled.
+     *
+     * @return The number of participating player queries.
+     */
+    public long getParticipatingPlayerQueries() {
+        return this.participatingPlayerQueries.get();
+    }
+
+    /**
+     * Gets whether or not the match belongs to a backend, which recycles it once it has been removed.
+     *
+     * @return Whether or not the match is recyclable.
+     */
+    boolean isRecyclable() {
+        return this.recyclable;
+    }
+
+    /**
+     * Sets whether or not the match belongs to a backend. Called by {@link SimpleBackend}.
+     *
+     * @param recyclable Whether or not the match is recyclable.
+     */
+    void setRecyclable(final boolean recyclable) {
+        this.recyclable = recyclable;
+    }
+
     /**
      * Gets whether or not the match is running.
      *
@@ -92,40 +324,210 @@ public class SimpleMatch implements Match {
      */
     @Override
     public boolean isRunning() {
-        return this.running;
+        return this.state == MatchState.RUNNING;
+    }
+
+    /**
+     * Gets the match's current state.
+     *
+     * @return The match's current state.
+     */
+    @Nonnull
+    public MatchState getState() {
+        return this.state;
+    }
+
+    /**
+     * Gets when the match last started.
+     *
+     * @return When the match last started, in milliseconds since the epoch, or zero if it has not.
+     */
+    public long getStartTime() {
+        return this.startTime;
+    }
+
+    /**
+     * Gets when the match last ended.
+     *
+     * @return When the match last ended, in milliseconds since the epoch, or zero if it has not ended since it last
+     * started.
+     */
+    public long getEndTime() {
+        return this.endTime;
+    }
+
+    /**
+     * Gets the team that won the match when it last ended.
+     *
+     * @return The winning team, or null if the match has not ended or ended without a winner.
+     */
+    @Nullable
+    public Team getWinner() {
+        return this.winner;
+    }
+
+    /**
+     * Gets whether or not the match is ready to start: it has at least two participating teams, and every
+     * participating team has at least one member.
+     *
+     * @return Whether or not the match is ready to start.
+     */
+    public boolean isReady() {
+        int participatingTeamCount = this.participatingTeams.size();
+        return participatingTeamCount >= 2 && this.readyTeamCount == participatingTeamCount;
+    }
+
+    /**
+     * Puts the match back into a state it was saved in, without calling any events. A countdown can not be restored,
+     * so a match that was counting down to start is restored as idle, and one counting down to cycle as finished.
+     *
+     * @param state     The saved state.
+     * @param startTime When the match last started, in milliseconds since the epoch, or zero if it had not.
+     * @param endTime   When the match last ended, in milliseconds since the epoch, or zero if it had not.
+     * @param winner    The team that won the match when it last ended, if any.
+     * @throws IllegalArgumentException If the winner is not one of the match's teams.
+     */
+    void restore(@Nonnull final MatchState state, final long startTime, final long endTime, @Nullable final Team winner) throws IllegalArgumentException {
+        Preconditions.checkArgument(winner == null || this.teams.contains(winner), "Winner is not in this match.");
+        this.stopCountdown();
+        if (Preconditions.checkNotNull(state, "state") == MatchState.STARTING) {
+            this.state = MatchState.IDLE;
+        } else if (state == MatchState.CYCLING) {
+            this.state = MatchState.FINISHED;
+        } else {
+            this.state = state;
+        }
+        this.startTime = startTime;
+        this.endTime = endTime;
+        this.winner = winner;
+    }
+
+    /**
+     * Empties the match so that it can be reused, keeping only the capacity of its collections, and releases its teams
+     * to the specified pool. No events are called, and no changes are published. Called by {@link SimpleBackend} once
+     * the match has been removed and every listener has seen the removal. The match keeps its world and unique
+     * identifier until it is {@link #reset(World, UUID) reset}, so that stale holders never see them missing, but its
+     * {@link #getGeneration() generation} goes up.
+     *
+     * @param teamPool The pool the match's teams are released to.
+     * @throws IllegalStateException If the match is still mapped, or still has members.
+     */
+    void recycle(@Nonnull final Pool<SimpleTeam> teamPool) throws IllegalStateException {
+        Preconditions.checkNotNull(teamPool, "team pool");
+        Preconditions.checkState(this.handle == HandleTable.NO_HANDLE, "Match can not be recycled while it is mapped.");
+        Preconditions.checkState(this.members.isEmpty(), "Match can not be recycled while it has members.");
+        this.stopCountdown();
+        for (Team team : this.teams) {
+            //  a team since added to another match stays with that match
+            if (team instanceof SimpleTeam && ((SimpleTeam) team).getMatch() == this) {
+                ((SimpleTeam) team).setMatch(null);
+                teamPool.release((SimpleTeam) team);
+            }
+        }
+        this.participatingPlayers.clear();
+        this.spectatingPlayers.clear();
+        this.teams.clear();
+        this.participatingTeams.clear();
+        this.spectatingTeams.clear();
+        this.balancer.reset();
+        this.readyTeamCount = 0;
+        this.ready = false;
+        this.state = MatchState.IDLE;
+        this.startTime = 0L;
+        this.endTime = 0L;
+        this.winner = null;
+        this.broadcasts.reset();
+        this.broadcastNanos.reset();
+        this.participatingPlayerQueries.reset();
+        this.recyclable = false;
+        this.generation++;
+    }
+
+    /**
+     * Gives a recycled match the world it is taking place in and its new unique identifier. Called by
+     * {@link SimpleBackend} when the match is reused from its pool.
+     *
+     * @param world The world in which the match is taking place.
+     * @param uuid  The match's unique identifier.
+     */
+    void reset(@Nonnull final World world, @Nonnull final UUID uuid) {
+        this.world = Preconditions.checkNotNull(world, "world");
+        this.uuid = Preconditions.checkNotNull(uuid, "uuid");
+    }
+
+    /**
+     * Calls a {@link MatchReadyStateChangeEvent} if the match's readiness has changed since the last time this was
+     * called.
+     */
+    private void updateReadiness() {
+        boolean ready = this.isReady();
+        if (ready != this.ready) {
+            this.ready = ready;
+            Events.call(new MatchReadyStateChangeEvent(this, ready));
+        }
     }
 
     /**
-     * Starts the match.
+     * Called when a member joins a team, to keep count of the participating teams with members.
+     *
+     * @param team The team.
+     */
+    private void memberAdded(@Nonnull final Team team) {
+        if (team.isParticipating() && team.getMembers().size() == 1) {
+            this.readyTeamCount++;
+        }
+    }
+
+    /**
+     * Called when a member leaves a team, to keep count of the participating teams with members.
+     *
+     * @param team The team.
+     */
+    private void memberRemoved(@Nonnull final Team team) {
+        if (team.isParticipating() && team.getMembers().isEmpty()) {
+            this.readyTeamCount--;
+        }
+    }
+
+    /**
+     * Moves the match to the specified state, and calls a {@link MatchStateChangeEvent}.
+     *
+     * @param state The new state.
+     */
+    private void setState(@Nonnull final MatchState state) {
+        MatchState oldState = this.state;
+        this.state = state;
+        Events.call(new MatchStateChangeEvent(this, oldState, state));
+        this.bus.publish(new MatchChange(this, oldState, state));
+    }
+
+    /**
+     * Starts the match, cancelling the countdown to start in progress, if any.
      *
      * @return Whether or not the match was successfully started.
-     * @throws IllegalStateException If the match was already running.
+     * @throws IllegalStateException If the match is not idle or counting down to start.
      */
     @Override
     public boolean start() throws IllegalStateException {
-        if (!this.running) {
-            int totalParticipatingTeams = 0;
-            int readyParticipatingTeams = 0;
-            for (Team team : this.teams) {
-                if (team.isParticipating()) {
-                    totalParticipatingTeams++;
-                    if (team.getMembers().size() >= 1) {
-                        readyParticipatingTeams++;
-                    }
-                }
-            }
-
-            if (totalParticipatingTeams < 2 || readyParticipatingTeams != totalParticipatingTeams) {
+        if (this.state == MatchState.IDLE || this.state == MatchState.STARTING) {
+            if (!this.isReady()) {
                 return false;
             } else {
-                this.running = true;
-                for (Player player : this.members) {
-                    player.getBukkit().sendMessage(ChatColor.RED + "Match started.");
-                }
+                //  balancing only moves players off of teams with at least two more than another, so it can not leave
+                //  the match unready
+                this.balancer.balance();
+                this.stopCountdown();
+                this.startTime = System.currentTimeMillis();
+                this.endTime = 0L;
+                this.winner = null;
+                this.setState(MatchState.RUNNING);
+                this.broadcast(Messages.MATCH_STARTED.render());
                 return true;
             }
-        } else {
+        } else if (this.state == MatchState.RUNNING) {
             throw new IllegalStateException("Match can not be started when already running.");
+        } else {
+            throw new IllegalStateException("Match can not be started until it has cycled.");
         }
     }
 
@@ -153,16 +555,14 @@ public class SimpleMatch implements Match {
      */
     @Override
     public boolean end(@Nullable Team team) {
-        if (this.running) {
-            this.running = false;
-            String message;
+        if (this.state == MatchState.RUNNING) {
+            this.endTime = System.currentTimeMillis();
+            this.winner = team;
+            this.setState(MatchState.FINISHED);
             if (team != null) {
-                message = ChatColor.RED + "Match ended; " + team.getColoredName() + ChatColor.RESET + ChatColor.RED + " won.";
+                this.broadcast(Messages.MATCH_ENDED.render(team.getColoredName()));
             } else {
-                message = ChatColor.RED + "Match ended without a winner.";
-            }
-            for (Player player : this.members) {
-                player.getBukkit().sendMessage(message);
+                this.broadcast(Messages.MATCH_ENDED_WITHOUT_WINNER.render());
             }
             return true;
         } else {
@@ -170,49 +570,251 @@ public class SimpleMatch implements Match {
         }
     }
 
+    /**
+     * Starts counting down to start the match. When the countdown ends, the match is started if enough teams are
+     * ready, and goes back to idle otherwise.
+     *
+     * @param plugin  The plugin to run the countdown under.
+     * @param seconds The length of the countdown, in seconds.
+     * @throws IllegalArgumentException If the length is negative.
+     * @throws IllegalStateException    If the match is not idle.
+     */
+    public void startCountdown(@Nonnull final Plugin plugin, final int seconds) throws IllegalArgumentException, IllegalStateException {
+        Preconditions.checkState(this.state == MatchState.IDLE, "Match can only count down to start when idle.");
+        //  the countdown checks its arguments before it is scheduled, so that bad arguments leave the match as it was,
+        //  and is in place before the state changes, so that listeners can cancel it
+        this.countdown = new Countdown(plugin, seconds, Messages.MATCH_STARTING);
+        this.setState(MatchState.STARTING);
+    }
+
+    /**
+     * Starts counting down to cycle the match. When the countdown ends, the match goes back to idle, ready for the
+     * next round.
+     *
+     * @param plugin  The plugin to run the countdown under.
+     * @param seconds The length of the countdown, in seconds.
+     * @throws IllegalArgumentException If the length is negative.
+     * @throws IllegalStateException    If the match has not finished.
+     */
+    public void cycle(@Nonnull final Plugin plugin, final int seconds) throws IllegalArgumentException, IllegalStateException {
+        Preconditions.checkState(this.state == MatchState.FINISHED, "Match can only cycle when finished.");
+        this.countdown = new Countdown(plugin, seconds, Messages.MATCH_CYCLING);
+        this.setState(MatchState.CYCLING);
+    }
+
+    /**
+     * Cancels the countdown in progress, if any. A match counting down to start goes back to idle, and a match
+     * counting down to cycle goes back to finished.
+     *
+     * @return Whether or not a countdown was cancelled.
+     */
+    public boolean cancelCountdown() {
+        if (this.stopCountdown()) {
+            this.setState(this.state == MatchState.CYCLING ? MatchState.FINISHED : MatchState.IDLE);
+            return true;
+        } else {
+            return false;
+        }
+    }
+
+    /**
+     * Stops the countdown in progress, if any, without changing the match's state.
+     *
+     * @return Whether or not a countdown was stopped.
+     */
+    private boolean stopCountdown() {
+        Countdown countdown = this.countdown;
+        if (countdown == null) {
+            return false;
+        } else {
+            countdown.task.cancel();
+            this.countdown = null;
+            return true;
+        }
+    }
+
+    /**
+     * Called when the countdown in progress ends.
+     */
+    private void countdownEnded() {
+        this.countdown = null;
+        if (this.state == MatchState.STARTING) {
+            if (!this.start()) {
+                this.setState(MatchState.IDLE);
+                this.broadcast(Messages.MATCH_START_CANCELLED.render());
+            }
+        } else if (this.state == MatchState.CYCLING) {
+            this.setState(MatchState.IDLE);
+        }
+    }
+
     /**
      * Gets the members of the match.
      *
-     * @return The members of the match.
+     * @return A read-only view of the members of the match.
      */
     @Nonnull
     @Override
     public Collection<Player> getPlayers() {
-        return this.members;
+        return this.membersView;
     }
 
     /**
      * Gets the participating members of the match.
      *
-     * @return The members of the match.
+     * @return A read-only view of the participating members of the match.
      */
     @Nonnull
     @Override
     public Set<Player> getParticipatingPlayers() {
-        Set<Player> participatingPlayers = new HashSet<Player>();
-        for (Player player : this.members) {
-            if (player.getTeam().isParticipating()) {
-                participatingPlayers.add(player);
-            }
-        }
-        return participatingPlayers;
+        Metrics.PARTICIPATING_PLAYER_QUERIES.increment();
+        this.participatingPlayerQueries.increment();
+        return this.participatingPlayersView;
     }
 
     /**
      * Gets the spectating members of the match.
      *
-     * @return The spectating members of the match.
+     * @return A read-only view of the spectating members of the match.
      */
     @Nonnull
     @Override
     public Set<Player> getSpectatingPlayers() {
-        Set<Player> spectatingPlayers = new HashSet<Player>();
-        for (Player player : this.members) {
-            if (player.getTeam().isSpectating()) {
-                spectatingPlayers.add(player);
-            }
+        return this.spectatingPlayersView;
+    }
+
+    /**
+     * Adds the specified player to the match, on the specified team.
+     *
+     * @param player The player to add.
+     * @param team   The team the player joins, which must be one of the match's teams.
+     * @throws IllegalArgumentException If the team is not one of the match's teams.
+     * @throws IllegalStateException    If the player is already a member of this or another match.
+     */
+    public void join(@Nonnull final SimplePlayer player, @Nonnull final SimpleTeam team) throws IllegalArgumentException, IllegalStateException {
+        Preconditions.checkNotNull(player, "player");
+        Preconditions.checkArgument(Preconditions.checkNotNull(team, "team").getMatch() == this, "Team is not in this match.");
+        Preconditions.checkState(!this.members.contains(player), "Player is already a member of the match.");
+        Preconditions.checkState(!player.isInMatch(), "Player is already a member of another match.");
+        player.setTeam(team);
+        player.setInMatch(true);
+        team.addMember(player);
+        this.members.add(player);
+        this.index(player, team);
+        this.balancer.playerJoined(player, team);
+        this.memberAdded(team);
+        this.updateReadiness();
+        this.bus.publish(new MatchMembershipChange(this));
+    }
+
+    /**
+     * Adds the specified player to the smallest participating team, or moves them there if they are already a member
+     * of the match.
+     *
+     * @param player The player.
+     * @return The team the player is now on.
+     * @throws IllegalStateException If the match has no participating teams.
+     */
+    @Nonnull
+    public SimpleTeam joinSmallestTeam(@Nonnull final SimplePlayer player) throws IllegalStateException {
+        SimpleTeam team = this.balancer.getSmallestTeam();
+        Preconditions.checkState(team != null, "Match has no participating teams.");
+        if (this.members.contains(Preconditions.checkNotNull(player, "player"))) {
+            this.move(player, team);
+        } else {
+            this.join(player, team);
         }
-        return spectatingPlayers;
+        return team;
+    }
+
+    /**
+     * Gets the balancer keeping the match's participating teams even.
+     *
+     * @return The balancer.
+     */
+    @Nonnull
+    public TeamBalancer getBalancer() {
+        return this.balancer;
+    }
+
+    /**
+     * Removes the specified player from the match, and from their team. The player keeps their team as the last team
+     * they were on, but is no longer {@link SimplePlayer#isInMatch() in the match}.
+     *
+     * @param player The player to remove.
+     * @return Whether or not the player was removed (false if the player was not a member).
+     */
+    public boolean leave(@Nonnull final SimplePlayer player) {
+        Preconditions.checkNotNull(player, "player");
+        if (this.members.remove(player)) {
+            SimpleTeam team = (SimpleTeam) player.getTeam();
+            team.removeMember(player);
+            this.unindex(player);
+            player.setInMatch(false);
+            this.balancer.playerLeft(player, team);
+            this.memberRemoved(team);
+            this.updateReadiness();
+            this.bus.publish(new MatchMembershipChange(this));
+            return true;
+        } else {
+            return false;
+        }
+    }
+
+    /**
+     * Moves the specified member of the match to another of the match's teams.
+     *
+     * @param player The player to move.
+     * @param team   The team the player moves to.
+     * @return Whether or not the player was moved (false if the player was already on the team).
+     * @throws IllegalArgumentException If the team is not one of the match's teams.
+     * @throws IllegalStateException    If the player is not a member of the match.
+     */
+    public boolean move(@Nonnull final SimplePlayer player, @Nonnull final SimpleTeam team) throws IllegalArgumentException, IllegalStateException {
+        Preconditions.checkNotNull(player, "player");
+        Preconditions.checkArgument(Preconditions.checkNotNull(team, "team").getMatch() == this, "Team is not in this match.");
+        Preconditions.checkState(this.members.contains(player), "Player is not a member of the match.");
+        SimpleTeam oldTeam = (SimpleTeam) player.getTeam();
+        if (oldTeam == team) {
+            return false;
+        }
+        oldTeam.removeMember(player);
+        this.unindex(player);
+        this.balancer.playerLeft(player, oldTeam);
+        this.memberRemoved(oldTeam);
+        player.setTeam(team);
+        team.addMember(player);
+        this.index(player, team);
+        this.balancer.playerJoined(player, team);
+        this.memberAdded(team);
+        this.updateReadiness();
+        this.bus.publish(new MatchMembershipChange(this));
+        return true;
+    }
+
+    /**
+     * Adds a member to the participating and spectating indexes, according to their team.
+     *
+     * @param player The member.
+     * @param team   The member's team.
+     */
+    private void index(@Nonnull final Player player, @Nonnull final Team team) {
+        if (team.isParticipating()) {
+            this.participatingPlayers.add(player);
+        }
+        if (team.isSpectating()) {
+            this.spectatingPlayers.add(player);
+        }
+    }
+
+    /**
+     * Removes a member from the participating and spectating indexes.
+     *
+     * @param player The member.
+     */
+    private void unindex(@Nonnull final Player player) {
+        this.participatingPlayers.remove(player);
+        this.spectatingPlayers.remove(player);
     }
 
     /**
@@ -222,55 +824,115 @@ public class SimpleMatch implements Match {
      */
     @Override
     public void broadcast(String s) {
-        Preconditions.checkNotNull(s, "message");
-        for (Player player : this.members) {
-            player.getBukkit().sendMessage(s);
-        }
+        long start = System.nanoTime();
+        this.dispatcher.dispatch(this, this.members, Preconditions.checkNotNull(s, "message"));
+        Metrics.MATCH_BROADCASTS.recordSince(start);
+        this.broadcasts.increment();
+        this.broadcastNanos.add(System.nanoTime() - start);
+    }
+
+    /**
+     * Gets the dispatcher used to deliver broadcasts to the match and its teams.
+     *
+     * @return The dispatcher.
+     */
+    @Nonnull
+    BroadcastDispatcher getDispatcher() {
+        return this.dispatcher;
+    }
+
+    /**
+     * Gets the bus changes to the match and its teams are published to.
+     *
+     * @return The bus.
+     */
+    @Nonnull
+    ChangeBus getBus() {
+        return this.bus;
     }
 
     /**
      * Gets the match's teams.
      *
-     * @return The match's teams.
+     * @return A read-only view of the match's teams.
      */
     @Nonnull
     @Override
     public Set<Team> getTeams() {
-        return this.teams;
+        return this.teamsView;
     }
 
     /**
      * Gets the match's participating teams.
      *
-     * @return The match's participating teams.
+     * @return A read-only view of the match's participating teams.
      */
     @Nonnull
     @Override
     public Set<Team> getParticipatingTeams() {
-        Set<Team> participatingTeams = new HashSet<Team>();
-        for (Team team : this.teams) {
-            if (team.isParticipating()) {
-                participatingTeams.add(team);
-            }
-        }
-        return participatingTeams;
+        return this.participatingTeamsView;
     }
 
     /**
      * Gets the match's spectating teams.
      *
-     * @return The match's spectating teams.
+     * @return A read-only view of the match's spectating teams.
      */
     @Nonnull
     @Override
     public Set<Team> getSpectatingTeams() {
-        Set<Team> spectatingTeams = new HashSet<Team>();
-        for (Team team : this.teams) {
+        return this.spectatingTeamsView;
+    }
+
+    /**
+     * Adds the specified team to the match.
+     *
+     * @param team The team to add.
+     * @return Whether or not the team was added (false if the team was already in the match).
+     */
+    public boolean addTeam(@Nonnull final Team team) {
+        Preconditions.checkNotNull(team, "team");
+        if (this.teams.add(team)) {
+            if (team instanceof SimpleTeam) {
+                ((SimpleTeam) team).setMatch(this);
+            }
+            if (team.isParticipating()) {
+                this.participatingTeams.add(team);
+                if (!team.getMembers().isEmpty()) {
+                    this.readyTeamCount++;
+                }
+            }
             if (team.isSpectating()) {
-                spectatingTeams.add(team);
+                this.spectatingTeams.add(team);
+            }
+            this.updateReadiness();
+            return true;
+        } else {
+            return false;
+        }
+    }
+
+    /**
+     * Removes the specified team from the match.
+     *
+     * @param team The team to remove.
+     * @return Whether or not the team was removed (false if the team was not in the match).
+     * @throws IllegalStateException If the team still has members.
+     */
+    public boolean removeTeam(@Nonnull final Team team) throws IllegalStateException {
+        Preconditions.checkNotNull(team, "team");
+        Preconditions.checkState(team.getMembers().isEmpty(), "Team can not be removed while it has members.");
+        if (this.teams.remove(team)) {
+            if (team instanceof SimpleTeam) {
+                ((SimpleTeam) team).setMatch(null);
             }
+            this.participatingTeams.remove(team);
+            this.spectatingTeams.remove(team);
+            this.updateReadiness();
+            return true;
+        } else {
+            return false;
         }
-        return spectatingTeams;
     }
 
     /**
@@ -284,4 +946,47 @@ public class SimpleMatch implements Match {
     public Team getFirstOther(Team team) {
         return null;
     }
+
+    /**
+     * A countdown, ticked once a second by the scheduler. Matches without a countdown in progress are never ticked.
+     */
+    private final class Countdown implements Runnable {
+
+        /**
+         * The scheduler task ticking the countdown.
+         */
+        @Nonnull
+        private final BukkitTask task;
+        /**
+         * The message announcing how long is left, rendered with the number of seconds and the unit.
+         */
+        @Nonnull
+        private final MessageTemplate announcement;
+        /**
+         * The number of seconds left.
+         */
+        private int remaining;
+
+        private Countdown(@Nonnull final Plugin plugin, final int seconds, @Nonnull final MessageTemplate announcement) {
+            Preconditions.checkArgument(seconds >= 0, "Countdown length can not be negative.");
+            this.remaining = seconds;
+            this.announcement = announcement;
+            this.task = Bukkit.getScheduler().runTaskTimer(Preconditions.checkNotNull(plugin, "plugin"), this, 0L, 20L);
+        }
+
+        @Override
+        public void run() {
+            if (SimpleMatch.this.countdown != this) {
+                this.task.cancel();
+            } else if (this.remaining <= 0) {
+                this.task.cancel();
+                SimpleMatch.this.countdownEnded();
+            } else {
+                if (this.remaining % 10 == 0 || this.remaining <= 5) {
+                    SimpleMatch.this.broadcast(this.announcement.render(this.remaining, this.remaining == 1 ? Messages.SECOND : Messages.SECONDS));
+                }
+                this.remaining--;
+            }
+        }
+    }
 }
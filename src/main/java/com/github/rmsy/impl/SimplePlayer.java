@@ -1,5 +1,6 @@
 package com.github.rmsy.impl;
 
+import com.github.rmsy.util.HandleTable;
 import com.google.common.base.Preconditions;
 import tc.oc.api.Player;
 import tc.oc.api.Team;
@@ -17,21 +18,30 @@ public class SimplePlayer implements Player {
     @Nonnull
     private final org.bukkit.entity.Player bukkit;
     /**
-     * The player's team.
+     * The player's team: the team they are to join until they join a match, then the team they are on, and the last
+     * team they were on once they have left the match. Changed by {@link SimpleMatch} as the player joins and moves.
      */
     @Nonnull
-    private final Team team;
+    private Team team;
+    /**
+     * Whether or not the player is a member of their team's match. Changed by {@link SimpleMatch} as the player joins
+     * and leaves.
+     */
+    private boolean inMatch;
+    /**
+     * The player's handle in the backend, or {@link HandleTable#NO_HANDLE} if the player is not mapped.
+     */
+    private volatile int handle = HandleTable.NO_HANDLE;
 
     private SimplePlayer() {
         this.bukkit = null;
-        this.team = null;
     }
 
     /**
      * Creates a new SimplePlayer.
      *
      * @param bukkit The player's corresponding Bukkit player.
-     * @param team   The player's team.
+     * @param team   The team the player is to join.
      */
     public SimplePlayer(@Nonnull final org.bukkit.entity.Player bukkit, @Nonnull final Team team) {
         this.bukkit = Preconditions.checkNotNull(bukkit, "bukkit player");
@@ -50,7 +60,8 @@ public class SimplePlayer implements Player {
     }
 
     /**
-     * Gets the player's team.
+     * Gets the player's team. Once the player has left their match, this is the last team they were on; see
+     * {@link #isInMatch()}.
      *
      * @return The player's team.
      */
@@ -59,4 +70,50 @@ public class SimplePlayer implements Player {
     public Team getTeam() {
         return this.team;
     }
+
+    /**
+     * Sets the player's team. Called by {@link SimpleMatch}.
+     *
+     * @param team The player's team.
+     */
+    void setTeam(@Nonnull final Team team) {
+        this.team = Preconditions.checkNotNull(team, "team");
+    }
+
+    /**
+     * Gets whether or not the player is a member of their team's match: true from when they join it until they leave
+     * it.
+     *
+     * @return Whether or not the player is in a match.
+     */
+    public boolean isInMatch() {
+        return this.inMatch;
+    }
+
+    /**
+     * Sets whether or not the player is a member of their team's match. Called by {@link SimpleMatch}.
+     *
+     * @param inMatch Whether or not the player is in a match.
+     */
+    void setInMatch(final boolean inMatch) {
+        this.inMatch = inMatch;
+    }
+
+    /**
+     * Gets the player's handle in the backend, which can be passed to {@link SimpleBackend#getPlayerByHandle(int)}.
+     *
+     * @return The player's handle, or {@link HandleTable#NO_HANDLE} if the player is not mapped.
+     */
+    public int getHandle() {
+        return this.handle;
+    }
+
+    /**
+     * Sets the player's handle. Called by {@link SimpleBackend}.
+     *
+     * @param handle The player's handle.
+     */
+    void setHandle(final int handle) {
+        this.handle = handle;
+    }
 }
@@ -1,12 +1,15 @@
 package com.github.rmsy.impl;
 
+import com.github.rmsy.change.TeamChange;
+import com.github.rmsy.metrics.Metrics;
 import com.google.common.base.Preconditions;
 import org.bukkit.ChatColor;
 import tc.oc.api.Player;
 import tc.oc.api.Team;
 
 import javax.annotation.Nonnull;
-import java.util.HashSet;
+import javax.annotation.Nullable;
+import java.util.Collections;
 import java.util.Set;
 
 /**
@@ -17,30 +20,35 @@ public class SimpleTeam implements Team {
     /**
      * Whether or not the team is capable fo participating in its match.
      */
-    private final boolean canParticipate;
+    private boolean canParticipate;
     /**
      * Whether or not the team is participating in its match.
      */
-    private final boolean isParticipating;
+    private boolean isParticipating;
     /**
      * Whether or not the team is spectating in its match.
      */
-    private final boolean isSpectating;
+    private boolean isSpectating;
     /**
      * The initial color, as defined by the map.
      */
     @Nonnull
-    private final ChatColor initialColor;
+    private ChatColor initialColor;
     /**
      * The initial name, as defined by the map.
      */
     @Nonnull
-    private final String initialName;
+    private String initialName;
     /**
      * The team's members.
      */
     @Nonnull
-    private final Set<Player> members;
+    private final PlayerSet members;
+    /**
+     * A read-only view of the team's members, handed out to callers.
+     */
+    @Nonnull
+    private final Set<Player> membersView;
     /**
      * The color.
      */
@@ -51,14 +59,29 @@ public class SimpleTeam implements Team {
      */
     @Nonnull
     private String name;
+    /**
+     * The name, lowercased for fuzzy matching. Updated whenever the name changes.
+     */
+    @Nonnull
+    private String lowerCaseName;
+    /**
+     * The name, prefixed with the color. Rendered on first use, and cleared whenever the name or color changes.
+     */
+    @Nullable
+    private volatile String coloredName;
+    /**
+     * The match the team has been added to, if any.
+     */
+    @Nullable
+    private SimpleMatch match;
+    /**
+     * The number of times the team has been reused.
+     */
+    private volatile int generation;
 
     private SimpleTeam() {
-        this.initialName = null;
-        this.initialColor = null;
-        this.canParticipate = false;
-        this.isParticipating = false;
-        this.isSpectating = false;
         this.members = null;
+        this.membersView = null;
     }
 
     /**
@@ -72,26 +95,75 @@ public class SimpleTeam implements Team {
      * @throws IllegalArgumentException If the team is participating but is not capable of participating.
      */
     public SimpleTeam(@Nonnull String name, @Nonnull ChatColor color, final boolean canParticipate, final boolean isParticipating, final boolean isSpectating) throws IllegalArgumentException {
+        this.members = new PlayerSet();
+        this.membersView = Collections.unmodifiableSet(this.members);
+        this.reset(name, color, canParticipate, isParticipating, isSpectating);
+    }
+
+    /**
+     * Turns the team into a new team, keeping only the capacity of its collections. Called by {@link SimpleBackend}
+     * when the team is reused from its pool.
+     *
+     * @param name            The name of the team.
+     * @param color           The team's color.
+     * @param canParticipate  Whether or not the team is capable of participating in its match.
+     * @param isParticipating Whether or not the team is participating in its match.
+     * @param isSpectating    Whether or not the team is spectating in its match.
+     * @throws IllegalArgumentException If the team is participating but is not capable of participating.
+     * @throws IllegalStateException    If the team is still in a match.
+     */
+    void reset(@Nonnull final String name, @Nonnull final ChatColor color, final boolean canParticipate, final boolean isParticipating, final boolean isSpectating) throws IllegalArgumentException, IllegalStateException {
+        Preconditions.checkState(this.match == null, "Team can not be reset while it is in a match.");
+        Preconditions.checkArgument(!(!canParticipate && isParticipating), "Team is participating but is not capable of participating.");
         this.initialName = Preconditions.checkNotNull(name, "name");
         this.setName(name);
         this.initialColor = Preconditions.checkNotNull(color, "color");
         this.setColor(color);
-        Preconditions.checkArgument(!(!canParticipate && isParticipating), "Team is participating but is not capable of participating.");
         this.canParticipate = canParticipate;
         this.isParticipating = isParticipating;
         this.isSpectating = isSpectating;
-        this.members = new HashSet<Player>();
+        this.members.clear();
+        this.generation++;
+    }
+
+    /**
+     * Gets the team's generation, which goes up every time the team is reused from its pool. Code that holds on to a
+     * team across ticks can note its generation, and compare it before using the team again: if it has changed, the
+     * object now stands for another team.
+     *
+     * @return The team's generation.
+     */
+    public int getGeneration() {
+        return this.generation;
     }
 
     /**
-     * Gets the team's members.
+     * Gets the team's members. Players join, leave and move between teams through {@link SimpleMatch}.
      *
-     * @return The team's members.
+     * @return A read-only view of the team's members.
      */
     @Nonnull
     @Override
     public Set<Player> getMembers() {
-        return this.members;
+        return this.membersView;
+    }
+
+    /**
+     * Adds a member to the team. Called by {@link SimpleMatch}.
+     *
+     * @param player The new member.
+     */
+    void addMember(@Nonnull final Player player) {
+        this.members.add(player);
+    }
+
+    /**
+     * Removes a member from the team. Called by {@link SimpleMatch}.
+     *
+     * @param player The member.
+     */
+    void removeMember(@Nonnull final Player player) {
+        this.members.remove(player);
     }
 
     /**
@@ -143,6 +215,21 @@ public class SimpleTeam implements Team {
     @Override
     public void setName(@Nonnull String s) {
         this.name = Preconditions.checkNotNull(s, "name");
+        this.lowerCaseName = s.toLowerCase();
+        this.coloredName = null;
+        if (this.match != null) {
+            this.match.getBus().publish(new TeamChange(this, true, false));
+        }
+    }
+
+    /**
+     * Gets the team's name, lowercased for fuzzy matching.
+     *
+     * @return The team's lowercased name.
+     */
+    @Nonnull
+    public String getLowerCaseName() {
+        return this.lowerCaseName;
     }
 
     /**
@@ -164,6 +251,10 @@ public class SimpleTeam implements Team {
     @Override
     public void setColor(@Nonnull ChatColor chatColor) {
         this.color = Preconditions.checkNotNull(chatColor, "chat color");
+        this.coloredName = null;
+        if (this.match != null) {
+            this.match.getBus().publish(new TeamChange(this, false, true));
+        }
     }
 
     /**
@@ -173,10 +264,29 @@ public class SimpleTeam implements Team {
      */
     @Override
     public void broadcastMessage(@Nonnull String s) {
-        Preconditions.checkNotNull(s, "message");
-        for (Player player : this.members) {
-            player.getBukkit().sendMessage(s);
-        }
+        long start = System.nanoTime();
+        BroadcastDispatcher dispatcher = this.match == null ? BroadcastDispatcher.DIRECT : this.match.getDispatcher();
+        dispatcher.dispatch(this, this.members, Preconditions.checkNotNull(s, "message"));
+        Metrics.TEAM_BROADCASTS.recordSince(start);
+    }
+
+    /**
+     * Gets the match the team has been added to.
+     *
+     * @return The match, or null if the team has not been added to one.
+     */
+    @Nullable
+    public SimpleMatch getMatch() {
+        return this.match;
+    }
+
+    /**
+     * Sets the match the team has been added to. Called by {@link SimpleMatch}.
+     *
+     * @param match The match, or null if the team has been removed from its match.
+     */
+    void setMatch(@Nullable final SimpleMatch match) {
+        this.match = match;
     }
 
     /**
@@ -209,6 +319,11 @@ public class SimpleTeam implements Team {
     @Nonnull
     @Override
     public String getColoredName() {
-        return this.color + this.name;
+        String coloredName = this.coloredName;
+        if (coloredName == null) {
+            coloredName = this.color + this.name;
+            this.coloredName = coloredName;
+        }
+        return coloredName;
     }
 }
@@ -0,0 +1,217 @@
+package com.github.rmsy.impl;
+
+import com.github.rmsy.message.Messages;
+import com.google.common.base.Preconditions;
+import tc.oc.api.Player;
+import tc.oc.api.Team;
+
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import java.util.ArrayDeque;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Keeps the participating teams of a {@link SimpleMatch} within one player of each other while the match is waiting to
+ * start; teams are never shuffled once it is running. The balancer is told about every membership change, and keeps the
+ * players who joined each team in the order they joined; when it has to move players, it moves the ones who joined
+ * their team most recently, so it never has to look through a whole roster.
+ */
+public final class TeamBalancer {
+
+    /**
+     * The largest difference in size allowed between two participating teams.
+     */
+    public static final int TOLERANCE = 1;
+    /**
+     * The match being balanced.
+     */
+    @Nonnull
+    private final SimpleMatch match;
+    /**
+     * The players who joined each participating team, oldest first. Players who have since left are only dropped when
+     * they reach the end of the queue, or when the queue grows too long, so that a leave never has to search it.
+     */
+    @Nonnull
+    private final Map<Team, ArrayDeque<SimplePlayer>> recentJoins;
+    /**
+     * Whether or not membership has changed since the balancer last ran.
+     */
+    private boolean dirty;
+    /**
+     * Whether or not the balancer is currently moving players, in which case it ignores its own moves.
+     */
+    private boolean balancing;
+
+    /**
+     * Creates a new TeamBalancer.
+     *
+     * @param match The match to balance.
+     */
+    TeamBalancer(@Nonnull final SimpleMatch match) {
+        this.match = Preconditions.checkNotNull(match, "match");
+        this.recentJoins = new HashMap<Team, ArrayDeque<SimplePlayer>>();
+    }
+
+    /**
+     * Forgets every membership change. Called by the match when it is recycled.
+     */
+    void reset() {
+        this.recentJoins.clear();
+        this.dirty = false;
+        this.balancing = false;
+    }
+
+    /**
+     * Gets the smallest participating team, which is where new players should go.
+     *
+     * @return The smallest participating team, or null if the match has no participating teams.
+     */
+    @Nullable
+    public SimpleTeam getSmallestTeam() {
+        SimpleTeam smallest = null;
+        for (Team team : this.match.getParticipatingTeams()) {
+            if (team instanceof SimpleTeam && (smallest == null || team.getMembers().size() < smallest.getMembers().size())) {
+                smallest = (SimpleTeam) team;
+            }
+        }
+        return smallest;
+    }
+
+    /**
+     * Called by the match when a player joins a team.
+     *
+     * @param player The player.
+     * @param team   The team.
+     */
+    void playerJoined(@Nonnull final SimplePlayer player, @Nonnull final Team team) {
+        if (!this.balancing && team.isParticipating()) {
+            ArrayDeque<SimplePlayer> joins = this.recentJoins.get(team);
+            if (joins == null) {
+                joins = new ArrayDeque<SimplePlayer>();
+                this.recentJoins.put(team, joins);
+            }
+            joins.addLast(player);
+            if (joins.size() > 2 * team.getMembers().size() + 16) {
+                this.compact(joins, team);
+            }
+        }
+        this.dirty = true;
+    }
+
+    /**
+     * Called by the match when a player leaves a team.
+     *
+     * @param player The player.
+     * @param team   The team.
+     */
+    void playerLeft(@Nonnull final SimplePlayer player, @Nonnull final Team team) {
+        this.dirty = true;
+    }
+
+    /**
+     * Drops the players who are no longer on the specified team, or who are queued more than once, from its queue of
+     * joiners.
+     *
+     * @param joins The queue.
+     * @param team  The team.
+     */
+    private void compact(@Nonnull final ArrayDeque<SimplePlayer> joins, @Nonnull final Team team) {
+        Set<SimplePlayer> seen = new HashSet<SimplePlayer>();
+        ArrayDeque<SimplePlayer> kept = new ArrayDeque<SimplePlayer>(joins.size());
+        while (!joins.isEmpty()) {
+            SimplePlayer player = joins.pollLast();
+            if (player.isInMatch() && player.getTeam() == team && seen.add(player)) {
+                kept.addFirst(player);
+            }
+        }
+        joins.addAll(kept);
+    }
+
+    /**
+     * Moves players from the largest participating teams to the smallest until no two differ in size by more than
+     * {@link #TOLERANCE}. Does nothing unless the match is idle or counting down to start, or if membership has not
+     * changed since the last time.
+     *
+     * @return The number of players moved.
+     */
+    public int rebalance() {
+        MatchState state = this.match.getState();
+        if (state != MatchState.IDLE && state != MatchState.STARTING) {
+            return 0;
+        }
+        return this.balance();
+    }
+
+    /**
+     * Moves players from the largest participating teams to the smallest, whatever state the match is in. Called by
+     * the match once it knows it is going to start.
+     *
+     * @return The number of players moved.
+     */
+    int balance() {
+        if (!this.dirty) {
+            return 0;
+        }
+
+        int moves = 0;
+        this.balancing = true;
+        try {
+            while (true) {
+                SimpleTeam largest = null;
+                SimpleTeam smallest = null;
+                for (Team team : this.match.getParticipatingTeams()) {
+                    if (team instanceof SimpleTeam) {
+                        int size = team.getMembers().size();
+                        if (largest == null || size > largest.getMembers().size()) {
+                            largest = (SimpleTeam) team;
+                        }
+                        if (smallest == null || size < smallest.getMembers().size()) {
+                            smallest = (SimpleTeam) team;
+                        }
+                    }
+                }
+                if (largest == null || largest.getMembers().size() - smallest.getMembers().size() <= TOLERANCE) {
+                    break;
+                }
+
+                SimplePlayer player = this.pickPlayer(largest);
+                this.match.move(player, smallest);
+                player.getBukkit().sendMessage(Messages.TEAM_BALANCE_MOVED.render(smallest.getColoredName()));
+                moves++;
+            }
+        } finally {
+            this.balancing = false;
+        }
+        this.dirty = false;
+        return moves;
+    }
+
+    /**
+     * Picks a player to move off of the specified team: the most recent joiner still on the team, if the balancer knows
+     * of one, and otherwise any member.
+     *
+     * @param team The team.
+     * @return The player to move.
+     */
+    @Nonnull
+    private SimplePlayer pickPlayer(@Nonnull final SimpleTeam team) {
+        ArrayDeque<SimplePlayer> joins = this.recentJoins.get(team);
+        if (joins != null) {
+            while (!joins.isEmpty()) {
+                SimplePlayer last = joins.pollLast();
+                if (last.isInMatch() && last.getTeam() == team) {
+                    return last;
+                }
+            }
+        }
+        for (Player member : team.getMembers()) {
+            if (member instanceof SimplePlayer) {
+                return (SimplePlayer) member;
+            }
+        }
+        throw new IllegalStateException("Team has no members that can be moved.");
+    }
+}
@@ -0,0 +1,91 @@
+package com.github.rmsy.impl;
+
+import com.github.rmsy.util.LiquidMetal;
+import com.google.common.base.Preconditions;
+import tc.oc.api.Team;
+
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+
+/**
+ * Resolves user input to a team by fuzzy-matching it against team names with {@link LiquidMetal}. Uses the lowercased
+ * names cached by {@link SimpleTeam}, so that scoring a set of teams only lowercases the input.
+ */
+public final class TeamMatcher {
+
+    /**
+     * The minimum score for a team to be considered a match.
+     */
+    public static final double MINIMUM_SCORE = LiquidMetal.SCORE_TRAILING_BUT_STARTED;
+
+    private TeamMatcher() {
+    }
+
+    /**
+     * Scores the specified input against a team's name.
+     *
+     * @param team       The team.
+     * @param lowerInput The input, lowercased.
+     * @return The score.
+     */
+    public static double score(@Nonnull final Team team, @Nonnull final String lowerInput) {
+        return LiquidMetal.score(team.getName(), getLowerCaseName(team), lowerInput);
+    }
+
+    /**
+     * Gets the team whose name best matches the specified input.
+     *
+     * @param teams The teams to choose from.
+     * @param input The input.
+     * @return The best-matching team, or null if no team scores at least {@link #MINIMUM_SCORE}.
+     */
+    @Nullable
+    public static <T extends Team> T match(@Nonnull final Iterable<T> teams, @Nonnull final String input) {
+        String lowerInput = Preconditions.checkNotNull(input, "input").toLowerCase();
+        double highestScore = 0.0;
+        T highestScoringTeam = null;
+        for (T team : Preconditions.checkNotNull(teams, "teams")) {
+            double score = score(team, lowerInput);
+            if (score > highestScore && score >= MINIMUM_SCORE) {
+                highestScore = score;
+                highestScoringTeam = team;
+            }
+        }
+        return highestScoringTeam;
+    }
+
+    /**
+     * Gets the index of the team name that best matches the specified input. Works on copies of the names, so that it
+     * can run away from the thread that owns the teams.
+     *
+     * @param names      The team names to choose from.
+     * @param lowerNames The same names, lowercased.
+     * @param input      The input.
+     * @return The index of the best-matching name, or -1 if no name scores at least {@link #MINIMUM_SCORE}.
+     */
+    public static int match(@Nonnull final String[] names, @Nonnull final String[] lowerNames, @Nonnull final String input) {
+        Preconditions.checkArgument(Preconditions.checkNotNull(names, "names").length == Preconditions.checkNotNull(lowerNames, "lowerNames").length, "Every name must have a lowercased name.");
+        String lowerInput = Preconditions.checkNotNull(input, "input").toLowerCase();
+        double highestScore = 0.0;
+        int highestScoringIndex = -1;
+        for (int i = 0; i < names.length; i++) {
+            double score = LiquidMetal.score(names[i], lowerNames[i], lowerInput);
+            if (score > highestScore && score >= MINIMUM_SCORE) {
+                highestScore = score;
+                highestScoringIndex = i;
+            }
+        }
+        return highestScoringIndex;
+    }
+
+    /**
+     * Gets a team's name, lowercased.
+     *
+     * @param team The team.
+     * @return The lowercased name.
+     */
+    @Nonnull
+    public static String getLowerCaseName(@Nonnull final Team team) {
+        return team instanceof SimpleTeam ? ((SimpleTeam) team).getLowerCaseName() : team.getName().toLowerCase();
+    }
+}
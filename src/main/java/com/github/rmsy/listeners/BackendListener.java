@@ -0,0 +1,127 @@
+package com.github.rmsy.listeners;
+
+import com.github.rmsy.impl.SimpleBackend;
+import com.github.rmsy.impl.SimpleMatch;
+import com.github.rmsy.impl.SimplePlayer;
+import com.github.rmsy.impl.SimpleTeam;
+import com.google.common.base.Preconditions;
+import org.bukkit.World;
+import org.bukkit.event.EventHandler;
+import org.bukkit.event.EventPriority;
+import org.bukkit.event.Listener;
+import org.bukkit.event.player.PlayerChangedWorldEvent;
+import org.bukkit.event.player.PlayerJoinEvent;
+import org.bukkit.event.player.PlayerQuitEvent;
+import org.bukkit.event.world.WorldUnloadEvent;
+import tc.oc.api.Match;
+import tc.oc.api.Player;
+import tc.oc.api.Team;
+
+import javax.annotation.Nonnull;
+import java.util.ArrayList;
+import java.util.Iterator;
+
+/**
+ * Keeps the backend in sync with the server: players are mapped as they join or enter a world with a match, and
+ * removed as they quit or leave it. Matches are removed when their world unloads.
+ */
+public final class BackendListener implements Listener {
+
+    /**
+     * The backend to keep in sync.
+     */
+    @Nonnull
+    private final SimpleBackend backend;
+
+    /**
+     * Creates a new BackendListener.
+     *
+     * @param backend The backend to keep in sync.
+     */
+    public BackendListener(@Nonnull final SimpleBackend backend) {
+        this.backend = Preconditions.checkNotNull(backend, "backend");
+    }
+
+    @EventHandler(priority = EventPriority.LOWEST)
+    public void onPlayerJoin(final PlayerJoinEvent event) {
+        this.attach(event.getPlayer(), event.getPlayer().getWorld());
+    }
+
+    @EventHandler(priority = EventPriority.MONITOR)
+    public void onPlayerQuit(final PlayerQuitEvent event) {
+        this.detach(event.getPlayer());
+    }
+
+    @EventHandler(priority = EventPriority.MONITOR)
+    public void onPlayerChangedWorld(final PlayerChangedWorldEvent event) {
+        this.detach(event.getPlayer());
+        this.attach(event.getPlayer(), event.getPlayer().getWorld());
+    }
+
+    @EventHandler(priority = EventPriority.MONITOR, ignoreCancelled = true)
+    public void onWorldUnload(final WorldUnloadEvent event) {
+        World world = event.getWorld();
+        Match match = this.backend.getMatch(world);
+        if (match != null) {
+            //  end the match while its players are still in it, so that they hear it end and it is recorded with them
+            if (match.isRunning()) {
+                match.end();
+            }
+            for (Player player : new ArrayList<Player>(match.getPlayers())) {
+                this.detach(player.getBukkit());
+            }
+            this.backend.removeMatch(world);
+        }
+    }
+
+    /**
+     * Maps every online player who is not already mapped to the match in their world, such as after the plugin has
+     * been reloaded.
+     *
+     * @param players The online players.
+     */
+    public void attachUnmapped(@Nonnull final org.bukkit.entity.Player[] players) {
+        for (org.bukkit.entity.Player bukkit : Preconditions.checkNotNull(players, "players")) {
+            if (this.backend.getPlayer(bukkit) == null) {
+                this.attach(bukkit, bukkit.getWorld());
+            }
+        }
+    }
+
+    /**
+     * Maps a player to the match in the specified world, if there is one. The player joins the match's first
+     * spectating team.
+     *
+     * @param bukkit The player.
+     * @param world  The world the player is in.
+     */
+    private void attach(@Nonnull final org.bukkit.entity.Player bukkit, @Nonnull final World world) {
+        Match match = this.backend.getMatch(world);
+        if (match instanceof SimpleMatch) {
+            Iterator<Team> spectatingTeams = match.getSpectatingTeams().iterator();
+            if (spectatingTeams.hasNext()) {
+                Team team = spectatingTeams.next();
+                if (team instanceof SimpleTeam) {
+                    SimplePlayer player = new SimplePlayer(bukkit, team);
+                    ((SimpleMatch) match).join(player, (SimpleTeam) team);
+                    this.backend.mapPlayer(bukkit, player);
+                }
+            }
+        }
+    }
+
+    /**
+     * Removes a player from the backend, and from their team and match.
+     *
+     * @param bukkit The player.
+     */
+    private void detach(@Nonnull final org.bukkit.entity.Player bukkit) {
+        Player player = this.backend.removePlayer(bukkit);
+        if (player instanceof SimplePlayer && player.getTeam() instanceof SimpleTeam) {
+            SimpleMatch match = ((SimpleTeam) player.getTeam()).getMatch();
+            if (match != null) {
+                match.leave((SimplePlayer) player);
+            }
+        }
+    }
+}
@@ -0,0 +1,67 @@
+package com.github.rmsy.listeners;
+
+import com.github.rmsy.event.MatchStateChangeEvent;
+import com.github.rmsy.impl.MatchState;
+import com.github.rmsy.results.MatchResult;
+import com.github.rmsy.results.MatchResultStore;
+import com.github.rmsy.results.MatchStatistics;
+import com.google.common.base.Preconditions;
+import org.bukkit.event.EventHandler;
+import org.bukkit.event.EventPriority;
+import org.bukkit.event.Listener;
+
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import java.io.IOException;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Records the result of every match that ends, and folds it into the match statistics.
+ */
+public final class MatchResultListener implements Listener {
+
+    /**
+     * The store to record results in, or null if results are not being recorded.
+     */
+    @Nullable
+    private final MatchResultStore store;
+    /**
+     * The statistics to fold results into.
+     */
+    @Nonnull
+    private final MatchStatistics statistics;
+    /**
+     * The logger to report failures to.
+     */
+    @Nonnull
+    private final Logger logger;
+
+    /**
+     * Creates a new MatchResultListener.
+     *
+     * @param store      The store to record results in, or null if results are not being recorded.
+     * @param statistics The statistics to fold results into.
+     * @param logger     The logger to report failures to.
+     */
+    public MatchResultListener(@Nullable final MatchResultStore store, @Nonnull final MatchStatistics statistics, @Nonnull final Logger logger) {
+        this.store = store;
+        this.statistics = Preconditions.checkNotNull(statistics, "statistics");
+        this.logger = Preconditions.checkNotNull(logger, "logger");
+    }
+
+    @EventHandler(priority = EventPriority.MONITOR)
+    public void onMatchStateChange(final MatchStateChangeEvent event) {
+        if (event.getNewState() == MatchState.FINISHED && event.getOldState() == MatchState.RUNNING) {
+            MatchResult result = MatchResult.of(event.getMatch());
+            this.statistics.handle(result);
+            if (this.store != null) {
+                try {
+                    this.store.record(result);
+                } catch (IOException exception) {
+                    this.logger.log(Level.WARNING, "Could not record result of match " + event.getMatch().getUUID(), exception);
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,239 @@
+package com.github.rmsy.message;
+
+import com.google.common.base.Preconditions;
+
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * A chat message with placeholders, such as {@code "Match ended; {0} won."}, parsed once into its literal and
+ * placeholder segments so that rendering only has to fill in the placeholders. A placeholder is a zero-based argument
+ * index in braces; braces that do not form a placeholder are kept as they are. Colors are baked into the pattern when
+ * the template is created.
+ * <p/>
+ * The most recent rendering is remembered, and returned again without building a new string when the template is
+ * rendered with equal arguments, which is the common case for announcements repeated to each member of a team.
+ * Arguments should therefore be immutable values, such as strings and numbers. Safe for use from multiple threads.
+ */
+public final class MessageTemplate {
+
+    /**
+     * The pattern the template was parsed from.
+     */
+    @Nonnull
+    private final String pattern;
+    /**
+     * The literal text before, between and after the placeholders; always one longer than {@link #indexes}.
+     */
+    @Nonnull
+    private final String[] literals;
+    /**
+     * The argument index of each placeholder, in order.
+     */
+    @Nonnull
+    private final int[] indexes;
+    /**
+     * The number of arguments the template needs: one more than the highest argument index.
+     */
+    private final int arity;
+    /**
+     * The total length of the literal text, used to size the rendered message.
+     */
+    private final int literalLength;
+    /**
+     * The most recent rendering, or null if the template has not been rendered with arguments yet.
+     */
+    @Nullable
+    private volatile Rendering last;
+
+    /**
+     * Creates a new template by parsing the specified pattern.
+     *
+     * @param pattern The pattern.
+     */
+    public MessageTemplate(@Nonnull final String pattern) {
+        this.pattern = Preconditions.checkNotNull(pattern, "pattern");
+        List<String> literals = new ArrayList<String>();
+        List<Integer> indexes = new ArrayList<Integer>();
+        StringBuilder literal = new StringBuilder();
+        int arity = 0;
+        int position = 0;
+        while (position < pattern.length()) {
+            char character = pattern.charAt(position);
+            int end = position + 1;
+            if (character == '{') {
+                while (end < pattern.length() && Character.isDigit(pattern.charAt(end))) {
+                    end++;
+                }
+            }
+            if (end > position + 1 && end < pattern.length() && pattern.charAt(end) == '}') {
+                int index = Integer.parseInt(pattern.substring(position + 1, end));
+                literals.add(literal.toString());
+                literal.setLength(0);
+                indexes.add(index);
+                arity = Math.max(arity, index + 1);
+                position = end + 1;
+            } else {
+                literal.append(character);
+                position++;
+            }
+        }
+        literals.add(literal.toString());
+
+        this.literals = literals.toArray(new String[literals.size()]);
+        this.indexes = new int[indexes.size()];
+        int literalLength = 0;
+        for (int i = 0; i < this.indexes.length; i++) {
+            this.indexes[i] = indexes.get(i);
+        }
+        for (String segment : this.literals) {
+            literalLength += segment.length();
+        }
+        this.arity = arity;
+        this.literalLength = literalLength;
+    }
+
+    /**
+     * Gets the pattern the template was parsed from.
+     *
+     * @return The pattern.
+     */
+    @Nonnull
+    public String getPattern() {
+        return this.pattern;
+    }
+
+    /**
+     * Gets the number of arguments the template needs.
+     *
+     * @return One more than the highest argument index, or zero if the template has no placeholders.
+     */
+    public int getArity() {
+        return this.arity;
+    }
+
+    /**
+     * Renders a template that has no placeholders. Never allocates.
+     *
+     * @return The message.
+     * @throws IllegalArgumentException If the template needs arguments.
+     */
+    @Nonnull
+    public String render() throws IllegalArgumentException {
+        Preconditions.checkArgument(this.arity == 0, "Template needs %s argument(s): %s", this.arity, this.pattern);
+        return this.literals[0];
+    }
+
+    /**
+     * Renders the template with one argument. Does not allocate if the argument equals that of the last rendering.
+     *
+     * @param argument The argument.
+     * @return The message.
+     * @throws IllegalArgumentException If the template needs more than one argument.
+     */
+    @Nonnull
+    public String render(@Nullable final Object argument) throws IllegalArgumentException {
+        Rendering last = this.last;
+        if (last != null && last.arguments.length == 1 && same(last.arguments[0], argument)) {
+            return last.message;
+        }
+        return this.renderNew(new Object[]{argument});
+    }
+
+    /**
+     * Renders the template with two arguments. Does not allocate if the arguments equal those of the last rendering.
+     *
+     * @param first  The first argument.
+     * @param second The second argument.
+     * @return The message.
+     * @throws IllegalArgumentException If the template needs more than two arguments.
+     */
+    @Nonnull
+    public String render(@Nullable final Object first, @Nullable final Object second) throws IllegalArgumentException {
+        Rendering last = this.last;
+        if (last != null && last.arguments.length == 2 && same(last.arguments[0], first) && same(last.arguments[1], second)) {
+            return last.message;
+        }
+        return this.renderNew(new Object[]{first, second});
+    }
+
+    /**
+     * Renders the template with any number of arguments.
+     *
+     * @param arguments The arguments.
+     * @return The message.
+     * @throws IllegalArgumentException If the template needs more arguments than were given.
+     */
+    @Nonnull
+    public String render(@Nonnull final Object... arguments) throws IllegalArgumentException {
+        Preconditions.checkNotNull(arguments, "arguments");
+        Rendering last = this.last;
+        if (last != null && last.arguments.length == arguments.length) {
+            boolean same = true;
+            for (int i = 0; same && i < arguments.length; i++) {
+                same = same(last.arguments[i], arguments[i]);
+            }
+            if (same) {
+                return last.message;
+            }
+        }
+        //  copy the arguments, since the caller may reuse the array
+        return this.renderNew(arguments.clone());
+    }
+
+    /**
+     * Renders the template, and remembers the rendering.
+     *
+     * @param arguments The arguments, which are not changed afterwards.
+     * @return The message.
+     * @throws IllegalArgumentException If the template needs more arguments than were given.
+     */
+    @Nonnull
+    private String renderNew(@Nonnull final Object[] arguments) throws IllegalArgumentException {
+        Preconditions.checkArgument(arguments.length >= this.arity, "Template needs %s argument(s): %s", this.arity, this.pattern);
+        String message;
+        if (this.indexes.length == 0) {
+            message = this.literals[0];
+        } else {
+            StringBuilder builder = new StringBuilder(this.literalLength + 16 * this.indexes.length);
+            for (int i = 0; i < this.indexes.length; i++) {
+                builder.append(this.literals[i]).append(arguments[this.indexes[i]]);
+            }
+            message = builder.append(this.literals[this.indexes.length]).toString();
+        }
+        this.last = new Rendering(arguments, message);
+        return message;
+    }
+
+    /**
+     * Gets whether or not two arguments render the same.
+     *
+     * @param cached The argument of the last rendering.
+     * @param given  The argument given.
+     * @return Whether or not the arguments are equal.
+     */
+    private static boolean same(@Nullable final Object cached, @Nullable final Object given) {
+        return cached == given || (cached != null && cached.equals(given));
+    }
+
+    @Override
+    public String toString() {
+        return "MessageTemplate{" + this.pattern + "}";
+    }
+
+    /**
+     * A rendered message, with the arguments it was rendered with.
+     */
+    private static final class Rendering {
+
+        private final Object[] arguments;
+        private final String message;
+
+        private Rendering(@Nonnull final Object[] arguments, @Nonnull final String message) {
+            this.arguments = arguments;
+            this.message = message;
+        }
+    }
+}
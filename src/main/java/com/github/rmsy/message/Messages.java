@@ -0,0 +1,46 @@
+package com.github.rmsy.message;
+
+import com.sk89q.minecraft.util.commands.ChatColor;
+
+/**
+ * The templates of every message sent to players about matches and teams, and in reply to match commands.
+ */
+public final class Messages {
+
+    /**
+     * Match lifecycle announcements. {@code {0}} in a winner announcement is the winning team's colored name, and in a
+     * countdown announcement is the number of seconds left, followed by {@code {1}}, the unit.
+     */
+    public static final MessageTemplate MATCH_STARTED = new MessageTemplate(ChatColor.RED + "Match started.");
+    public static final MessageTemplate MATCH_ENDED = new MessageTemplate(ChatColor.RED + "Match ended; {0}" + ChatColor.RESET + ChatColor.RED + " won.");
+    public static final MessageTemplate MATCH_ENDED_WITHOUT_WINNER = new MessageTemplate(ChatColor.RED + "Match ended without a winner.");
+    public static final MessageTemplate MATCH_START_CANCELLED = new MessageTemplate(ChatColor.RED + "Match start cancelled; not enough teams are ready.");
+    public static final MessageTemplate MATCH_STARTING = new MessageTemplate(ChatColor.RED + "Match starting in {0} {1}.");
+    public static final MessageTemplate MATCH_CYCLING = new MessageTemplate(ChatColor.RED + "Match cycling in {0} {1}.");
+    /**
+     * The units of a countdown announcement.
+     */
+    public static final String SECOND = "second", SECONDS = "seconds";
+    /**
+     * The message telling a player they were moved to {@code {0}}, the colored name of their new team, by the balancer.
+     */
+    public static final MessageTemplate TEAM_BALANCE_MOVED = new MessageTemplate(ChatColor.RED + "You have been moved to {0}" + ChatColor.RESET + ChatColor.RED + " to balance the teams.");
+    /**
+     * Replies to match commands. {@code {0}} in a failure is the reason the command failed.
+     */
+    public static final MessageTemplate MATCH_CREATED = new MessageTemplate(ChatColor.RED + "Match created.");
+    public static final MessageTemplate COMMAND_FAILED = new MessageTemplate(ChatColor.RED + "{0}");
+    /**
+     * The lines of the match stats command.
+     */
+    public static final MessageTemplate STATS_POPULATION = new MessageTemplate(ChatColor.GOLD + "Matches: " + ChatColor.WHITE + "{0}" + ChatColor.GOLD + ", players: " + ChatColor.WHITE + "{1}");
+    public static final MessageTemplate STATS_LOOKUPS = new MessageTemplate(ChatColor.GOLD + "Player lookups: " + ChatColor.WHITE + "{0}" + ChatColor.GOLD + ", participant queries: " + ChatColor.WHITE + "{1}");
+    public static final MessageTemplate STATS_HISTOGRAM = new MessageTemplate(ChatColor.GOLD + "{0}: " + ChatColor.WHITE + "{1}" + ChatColor.GOLD + ", mean " + ChatColor.WHITE + "{2}" + ChatColor.GOLD + ", p99 < " + ChatColor.WHITE + "{3}");
+    public static final MessageTemplate STATS_FAILURES = new MessageTemplate(ChatColor.GOLD + "Command failures: " + ChatColor.WHITE + "{0}");
+    public static final MessageTemplate STATS_BROADCAST_QUEUE = new MessageTemplate(ChatColor.GOLD + "Broadcast queue: " + ChatColor.WHITE + "{0}" + ChatColor.GOLD + ", mean latency: " + ChatColor.WHITE + "{1}");
+    public static final MessageTemplate STATS_MATCH = new MessageTemplate(ChatColor.GOLD + "This match: " + ChatColor.WHITE + "{0}" + ChatColor.GOLD + " broadcasts, mean " + ChatColor.WHITE + "{1}" + ChatColor.GOLD + ", participant queries: " + ChatColor.WHITE + "{2}");
+    public static final MessageTemplate STATS_TEAM_RECORD = new MessageTemplate("{0}" + ChatColor.GOLD + " in this world: " + ChatColor.WHITE + "{1}" + ChatColor.GOLD + " won, " + ChatColor.WHITE + "{2}" + ChatColor.GOLD + " lost of " + ChatColor.WHITE + "{3}" + ChatColor.GOLD + " played");
+
+    private Messages() {
+    }
+}
@@ -0,0 +1,69 @@
+package com.github.rmsy.metrics;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * A counter that can be incremented from many threads at once without contention. Each thread adds to one of several
+ * stripes, each on its own cache line, and reading the counter sums the stripes. Never allocates after construction.
+ */
+public final class Counter {
+
+    /**
+     * The number of stripes. Must be a power of two.
+     */
+    private static final int STRIPES = 16;
+    /**
+     * The distance between stripes, in longs, so that no two stripes share a cache line.
+     */
+    private static final int PADDING = 8;
+    /**
+     * The stripes.
+     */
+    private final AtomicLongArray cells;
+
+    /**
+     * Creates a new counter, starting at zero.
+     */
+    public Counter() {
+        this.cells = new AtomicLongArray(STRIPES * PADDING);
+    }
+
+    /**
+     * Adds one to the counter.
+     */
+    public void increment() {
+        this.add(1L);
+    }
+
+    /**
+     * Adds the specified amount to the counter.
+     *
+     * @param amount The amount to add.
+     */
+    public void add(final long amount) {
+        int stripe = (int) Thread.currentThread().getId() & (STRIPES - 1);
+        this.cells.addAndGet(stripe * PADDING, amount);
+    }
+
+    /**
+     * Sets the counter back to zero. Not atomic with respect to concurrent additions, which may be lost.
+     */
+    public void reset() {
+        for (int i = 0; i < STRIPES; i++) {
+            this.cells.set(i * PADDING, 0L);
+        }
+    }
+
+    /**
+     * Gets the counter's value. Not atomic with respect to concurrent additions.
+     *
+     * @return The counter's value.
+     */
+    public long get() {
+        long sum = 0L;
+        for (int i = 0; i < STRIPES; i++) {
+            sum += this.cells.get(i * PADDING);
+        }
+        return sum;
+    }
+}
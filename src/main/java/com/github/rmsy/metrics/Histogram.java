@@ -0,0 +1,113 @@
+package com.github.rmsy.metrics;
+
+import com.google.common.base.Preconditions;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * A histogram of durations, in fixed power-of-two buckets from one microsecond up to about one second, with one more
+ * bucket for anything longer. Recording is a couple of atomic additions and never allocates.
+ */
+public final class Histogram {
+
+    /**
+     * The base-two logarithm of the upper bound of the first bucket, in nanoseconds (2^10 ns is about a microsecond).
+     */
+    private static final int FIRST_BUCKET_SHIFT = 10;
+    /**
+     * The number of buckets, including the overflow bucket.
+     */
+    private static final int BUCKETS = 22;
+    /**
+     * The number of durations recorded in each bucket.
+     */
+    private final AtomicLongArray buckets;
+    /**
+     * The total number of durations recorded.
+     */
+    private final Counter count;
+    /**
+     * The sum of the durations recorded, in nanoseconds.
+     */
+    private final Counter total;
+
+    /**
+     * Creates a new, empty histogram.
+     */
+    public Histogram() {
+        this.buckets = new AtomicLongArray(BUCKETS);
+        this.count = new Counter();
+        this.total = new Counter();
+    }
+
+    /**
+     * Records a duration.
+     *
+     * @param nanos The duration, in nanoseconds.
+     */
+    public void record(final long nanos) {
+        long duration = Math.max(nanos, 0L);
+        int bucket = Math.max(0, (64 - Long.numberOfLeadingZeros(duration)) - FIRST_BUCKET_SHIFT);
+        this.buckets.incrementAndGet(Math.min(bucket, BUCKETS - 1));
+        this.count.increment();
+        this.total.add(duration);
+    }
+
+    /**
+     * Records the time elapsed since the specified start time.
+     *
+     * @param startNanos The start time, from {@link System#nanoTime()}.
+     */
+    public void recordSince(final long startNanos) {
+        this.record(System.nanoTime() - startNanos);
+    }
+
+    /**
+     * Gets the number of durations recorded.
+     *
+     * @return The number of durations recorded.
+     */
+    public long getCount() {
+        return this.count.get();
+    }
+
+    /**
+     * Gets the mean of the durations recorded.
+     *
+     * @return The mean duration, in nanoseconds, or zero if none have been recorded.
+     */
+    public long getMean() {
+        long count = this.count.get();
+        return count == 0L ? 0L : this.total.get() / count;
+    }
+
+    /**
+     * Gets an upper bound on the specified percentile of the durations recorded.
+     *
+     * @param percentile The percentile, between 0 and 100.
+     * @return The upper bound of the bucket containing the percentile, in nanoseconds, {@link Long#MAX_VALUE} if it
+     * falls in the overflow bucket, or zero if no durations have been recorded.
+     */
+    public long getPercentile(final double percentile) {
+        Preconditions.checkArgument(percentile >= 0.0 && percentile <= 100.0, "Percentile must be between 0 and 100.");
+        long[] counts = new long[BUCKETS];
+        long count = 0L;
+        for (int i = 0; i < BUCKETS; i++) {
+            counts[i] = this.buckets.get(i);
+            count += counts[i];
+        }
+        if (count == 0L) {
+            return 0L;
+        }
+
+        long rank = (long) Math.ceil(count * (percentile / 100.0));
+        long seen = 0L;
+        for (int i = 0; i < BUCKETS - 1; i++) {
+            seen += counts[i];
+            if (seen >= rank) {
+                return 1L << (FIRST_BUCKET_SHIFT + i);
+            }
+        }
+        return Long.MAX_VALUE;
+    }
+}
@@ -0,0 +1,35 @@
+package com.github.rmsy.metrics;
+
+/**
+ * The metrics P(retend)GM keeps about itself.
+ */
+public final class Metrics {
+
+    /**
+     * The number of lookups of PGM players by Bukkit player.
+     */
+    public static final Counter PLAYER_LOOKUPS = new Counter();
+    /**
+     * The number of calls to {@link com.github.rmsy.impl.SimpleMatch#getParticipatingPlayers()}.
+     */
+    public static final Counter PARTICIPATING_PLAYER_QUERIES = new Counter();
+    /**
+     * The time taken by {@link com.github.rmsy.impl.SimpleMatch#broadcast(String)}.
+     */
+    public static final Histogram MATCH_BROADCASTS = new Histogram();
+    /**
+     * The time taken by {@link com.github.rmsy.impl.SimpleTeam#broadcastMessage(String)}.
+     */
+    public static final Histogram TEAM_BROADCASTS = new Histogram();
+    /**
+     * The time taken by match commands.
+     */
+    public static final Histogram COMMANDS = new Histogram();
+    /**
+     * The number of match commands that failed.
+     */
+    public static final Counter COMMAND_FAILURES = new Counter();
+
+    private Metrics() {
+    }
+}
@@ -0,0 +1,142 @@
+package com.github.rmsy.metrics;
+
+import com.github.rmsy.impl.SimpleBackend;
+import com.google.common.base.Preconditions;
+
+import javax.annotation.Nonnull;
+import javax.management.JMException;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+import java.lang.management.ManagementFactory;
+
+/**
+ * Publishes {@link Metrics}, and the size of a backend, as a JMX MBean.
+ */
+public final class MetricsBean implements MetricsMXBean {
+
+    /**
+     * The name the bean is registered under.
+     */
+    public static final String OBJECT_NAME = "com.github.rmsy:type=Metrics";
+    /**
+     * The backend whose size is reported.
+     */
+    @Nonnull
+    private final SimpleBackend backend;
+
+    /**
+     * Creates a new MetricsBean.
+     *
+     * @param backend The backend whose size is reported.
+     */
+    public MetricsBean(@Nonnull final SimpleBackend backend) {
+        this.backend = Preconditions.checkNotNull(backend, "backend");
+    }
+
+    /**
+     * Registers the bean with the platform MBean server, replacing any bean already registered under its name.
+     *
+     * @throws JMException If the bean could not be registered.
+     */
+    public void register() throws JMException {
+        MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+        ObjectName name = new ObjectName(OBJECT_NAME);
+        if (server.isRegistered(name)) {
+            server.unregisterMBean(name);
+        }
+        server.registerMBean(this, name);
+    }
+
+    /**
+     * Unregisters the bean from the platform MBean server.
+     *
+     * @throws JMException If the bean could not be unregistered.
+     */
+    public void unregister() throws JMException {
+        MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+        ObjectName name = new ObjectName(OBJECT_NAME);
+        if (server.isRegistered(name)) {
+            server.unregisterMBean(name);
+        }
+    }
+
+    @Override
+    public int getMatchCount() {
+        return this.backend.getMatchCount();
+    }
+
+    @Override
+    public int getPlayerCount() {
+        return this.backend.getPlayerCount();
+    }
+
+    @Override
+    public long getPlayerLookups() {
+        return Metrics.PLAYER_LOOKUPS.get();
+    }
+
+    @Override
+    public long getParticipatingPlayerQueries() {
+        return Metrics.PARTICIPATING_PLAYER_QUERIES.get();
+    }
+
+    @Override
+    public long getMatchBroadcasts() {
+        return Metrics.MATCH_BROADCASTS.getCount();
+    }
+
+    @Override
+    public long getMatchBroadcastMeanTime() {
+        return Metrics.MATCH_BROADCASTS.getMean();
+    }
+
+    @Override
+    public long getMatchBroadcast99thPercentileTime() {
+        return Metrics.MATCH_BROADCASTS.getPercentile(99.0);
+    }
+
+    @Override
+    public long getTeamBroadcasts() {
+        return Metrics.TEAM_BROADCASTS.getCount();
+    }
+
+    @Override
+    public long getTeamBroadcastMeanTime() {
+        return Metrics.TEAM_BROADCASTS.getMean();
+    }
+
+    @Override
+    public long getTeamBroadcast99thPercentileTime() {
+        return Metrics.TEAM_BROADCASTS.getPercentile(99.0);
+    }
+
+    @Override
+    public long getCommands() {
+        return Metrics.COMMANDS.getCount();
+    }
+
+    @Override
+    public long getCommandFailures() {
+        return Metrics.COMMAND_FAILURES.get();
+    }
+
+    @Override
+    public long getCommandMeanTime() {
+        return Metrics.COMMANDS.getMean();
+    }
+
+    @Override
+    public long getCommand99thPercentileTime() {
+        return Metrics.COMMANDS.getPercentile(99.0);
+    }
+
+    @Override
+    public int getBroadcastQueueDepth() {
+        return this.backend.getDispatcher().getQueueDepth();
+    }
+
+    @Override
+    public long getBroadcastMeanLatency() {
+        return this.backend.getDispatcher().getAverageLatency();
+    }
+}
@@ -0,0 +1,122 @@
+package com.github.rmsy.metrics;
+
+/**
+ * Exposes P(retend)GM's metrics over JMX. Times are in nanoseconds.
+ */
+public interface MetricsMXBean {
+
+    /**
+     * Gets the number of matches in the backend.
+     *
+     * @return The number of matches.
+     */
+    int getMatchCount();
+
+    /**
+     * Gets the number of players in the backend.
+     *
+     * @return The number of players.
+     */
+    int getPlayerCount();
+
+    /**
+     * Gets the number of lookups of PGM players by Bukkit player.
+     *
+     * @return The number of lookups.
+     */
+    long getPlayerLookups();
+
+    /**
+     * Gets the number of queries for a match's participating players.
+     *
+     * @return The number of queries.
+     */
+    long getParticipatingPlayerQueries();
+
+    /**
+     * Gets the number of messages broadcast to whole matches.
+     *
+     * @return The number of match broadcasts.
+     */
+    long getMatchBroadcasts();
+
+    /**
+     * Gets the mean time taken to broadcast a message to a match.
+     *
+     * @return The mean time, or zero if nothing has been broadcast.
+     */
+    long getMatchBroadcastMeanTime();
+
+    /**
+     * Gets an upper bound on the 99th percentile of the time taken to broadcast a message to a match.
+     *
+     * @return The upper bound, {@link Long#MAX_VALUE} if it is beyond the largest recorded bucket, or zero if nothing
+     * has been broadcast.
+     */
+    long getMatchBroadcast99thPercentileTime();
+
+    /**
+     * Gets the number of messages broadcast to single teams.
+     *
+     * @return The number of team broadcasts.
+     */
+    long getTeamBroadcasts();
+
+    /**
+     * Gets the mean time taken to broadcast a message to a team.
+     *
+     * @return The mean time, or zero if nothing has been broadcast.
+     */
+    long getTeamBroadcastMeanTime();
+
+    /**
+     * Gets an upper bound on the 99th percentile of the time taken to broadcast a message to a team.
+     *
+     * @return The upper bound, {@link Long#MAX_VALUE} if it is beyond the largest recorded bucket, or zero if nothing
+     * has been broadcast.
+     */
+    long getTeamBroadcast99thPercentileTime();
+
+    /**
+     * Gets the number of match commands run.
+     *
+     * @return The number of commands.
+     */
+    long getCommands();
+
+    /**
+     * Gets the number of match commands that failed.
+     *
+     * @return The number of failed commands.
+     */
+    long getCommandFailures();
+
+    /**
+     * Gets the mean time taken by a match command.
+     *
+     * @return The mean time, or zero if no commands have run.
+     */
+    long getCommandMeanTime();
+
+    /**
+     * Gets an upper bound on the 99th percentile of the time taken by a match command.
+     *
+     * @return The upper bound, {@link Long#MAX_VALUE} if it is beyond the largest recorded bucket, or zero if no
+     * commands have run.
+     */
+    long getCommand99thPercentileTime();
+
+    /**
+     * Gets the number of broadcast messages waiting to be sent.
+     *
+     * @return The number of queued messages.
+     */
+    int getBroadcastQueueDepth();
+
+    /**
+     * Gets the average time between a broadcast being queued and its last message being sent.
+     *
+     * @return The average latency.
+     */
+    long getBroadcastMeanLatency();
+}
@@ -0,0 +1,542 @@
+package com.github.rmsy.results;
+
+import com.google.common.base.Preconditions;
+
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileFilter;
+import java.io.FileNotFoundException;
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * An append-only, binary log of match results. Recording a result only encodes it and hands it to the log's writer
+ * thread, so the caller never waits on the disk; the writer appends the records to the current segment file in order,
+ * and moves on to a new segment when the current one is full.
+ * <p/>
+ * Each record is an {@code int} length followed by that many bytes of payload. A segment's records end at the end of
+ * the file, or at a length of zero, since older versions of the log zero-filled their segments in advance. A record
+ * that can not be read, such as one torn by a crash, also ends its segment: replaying skips the rest of the segment,
+ * and opening the log cuts it off, so that new records are not appended after the damage.
+ * <p/>
+ * Only the newest segments are kept, so that the log, and the time taken to replay it, stay bounded. The oldest segment
+ * is deleted whenever a new one would take the log past its limit.
+ */
+public final class MatchLog implements MatchResultStore {
+
+    /**
+     * The default size of a segment, in bytes.
+     */
+    public static final int DEFAULT_SEGMENT_SIZE = 16 * 1024 * 1024;
+    /**
+     * The default number of segments kept.
+     */
+    public static final int DEFAULT_MAX_SEGMENTS = 8;
+    /**
+     * How long {@link #close()} waits for the writer to finish, in milliseconds.
+     */
+    private static final long CLOSE_TIMEOUT = 10000L;
+    /**
+     * The prefix and suffix of segment file names. The segment's sequence number goes in between.
+     */
+    private static final String SEGMENT_PREFIX = "matches-", SEGMENT_SUFFIX = ".log";
+    /**
+     * The version of the record format, written at the start of each payload.
+     */
+    private static final byte FORMAT_VERSION = 1;
+    /**
+     * The directory the segments are kept in.
+     */
+    @Nonnull
+    private final File directory;
+    /**
+     * The size of a segment, in bytes.
+     */
+    private final int segmentSize;
+    /**
+     * The number of segments kept.
+     */
+    private final int maxSegments;
+    /**
+     * The thread appending records to the current segment.
+     */
+    @Nonnull
+    private final ExecutorService writer;
+    /**
+     * The number of segments found damaged while opening or replaying the log.
+     */
+    private volatile int damagedSegments;
+    /**
+     * The failure of the last record the writer could not append, if it has not been reported yet.
+     */
+    @Nullable
+    private volatile IOException failure;
+    /**
+     * The sequence number of the current segment. Only used by the writer, once the log is open.
+     */
+    private int segmentNumber;
+    /**
+     * The current segment's file and channel. Only used by the writer, once the log is open.
+     */
+    private RandomAccessFile segmentFile;
+    private FileChannel segment;
+    /**
+     * Where the next record goes in the current segment. Only used by the writer, once the log is open.
+     */
+    private long position;
+
+    /**
+     * Opens the log in the specified directory, keeping up to {@link #DEFAULT_MAX_SEGMENTS}
+     * {@link #DEFAULT_SEGMENT_SIZE}-byte segments.
+     *
+     * @param directory The directory the segments are kept in. Created if it does not exist.
+     * @throws IOException If the log could not be opened.
+     */
+    public MatchLog(@Nonnull final File directory) throws IOException {
+        this(directory, DEFAULT_SEGMENT_SIZE, DEFAULT_MAX_SEGMENTS);
+    }
+
+    /**
+     * Opens the log in the specified directory. Appends to the newest existing segment, if there is one.
+     *
+     * @param directory   The directory the segments are kept in. Created if it does not exist.
+     * @param segmentSize The size of a segment, in bytes.
+     * @param maxSegments The number of segments kept; older segments are deleted.
+     * @throws IOException If the log could not be opened.
+     */
+    public MatchLog(@Nonnull final File directory, final int segmentSize, final int maxSegments) throws IOException {
+        Preconditions.checkArgument(segmentSize >= 1024, "Segment size must be at least 1 KiB.");
+        Preconditions.checkArgument(maxSegments > 0, "Segment count must be positive.");
+        this.directory = Preconditions.checkNotNull(directory, "directory");
+        this.segmentSize = segmentSize;
+        this.maxSegments = maxSegments;
+        if (!directory.isDirectory() && !directory.mkdirs()) {
+            throw new IOException("Could not create match log directory " + directory);
+        }
+
+        File[] segments = this.listSegments();
+        if (segments.length == 0) {
+            this.openSegment(0);
+        } else {
+            this.openSegment(getSegmentNumber(segments[segments.length - 1]));
+            //  skip past the records already in the segment
+            ByteBuffer contents = read(this.segment);
+            while (readRecord(contents) != null) {
+                //  nothing to do but move on
+            }
+            if (isDamaged(contents)) {
+                this.damagedSegments++;
+            }
+            //  cut off any damage, or zeroes left by older versions, so that records appended from here on are replayed
+            this.position = contents.position();
+            this.segment.truncate(this.position);
+        }
+        this.deleteOldSegments();
+        this.writer = Executors.newSingleThreadExecutor(new ThreadFactory() {
+            @Override
+            public Thread newThread(@Nonnull final Runnable runnable) {
+                Thread thread = new Thread(runnable, "PretendGM match log writer");
+                thread.setDaemon(true);
+                return thread;
+            }
+        });
+    }
+
+    /**
+     * Gets the number of segments found damaged while opening or replaying the log. The records after the damage in
+     * each were skipped.
+     *
+     * @return The number of damaged segments.
+     */
+    public int getDamagedSegments() {
+        return this.damagedSegments;
+    }
+
+    /**
+     * Hands a result to the writer, to be appended to the log. Returns without waiting for the disk; a failure to
+     * append is reported by the next call.
+     *
+     * @param result The result.
+     * @throws IOException              If the log is closed, or the writer could not append an earlier result.
+     * @throws IllegalArgumentException If the result is too large to fit in a segment.
+     */
+    @Override
+    public void record(@Nonnull final MatchResult result) throws IOException, IllegalArgumentException {
+        IOException failure = this.failure;
+        if (failure != null) {
+            this.failure = null;
+            throw new IOException("Could not append an earlier match result", failure);
+        }
+
+        final byte[] payload = encode(Preconditions.checkNotNull(result, "result"));
+        Preconditions.checkArgument(payload.length + 4 <= this.segmentSize, "Result is too large for a segment.");
+        try {
+            this.writer.execute(new Runnable() {
+                @Override
+                public void run() {
+                    try {
+                        MatchLog.this.append(payload);
+                    } catch (IOException exception) {
+                        MatchLog.this.failure = exception;
+                    }
+                }
+            });
+        } catch (RejectedExecutionException exception) {
+            throw new IOException("Match log is closed.");
+        }
+    }
+
+    /**
+     * Appends a record to the current segment, moving on to a new segment first if it is full. Called by the writer.
+     *
+     * @param payload The record's payload.
+     * @throws IOException If the record could not be written, or a new segment could not be opened.
+     */
+    private void append(@Nonnull final byte[] payload) throws IOException {
+        if (this.position + 4 + payload.length > this.segmentSize) {
+            //  no need to force the full segment out; the operating system will write it back without blocking us
+            this.closeSegment(false);
+            this.openSegment(this.segmentNumber + 1);
+            this.deleteOldSegments();
+        }
+        //  write the payload before its length, so that a concurrent replay never sees a partial record
+        writeFully(this.segment, ByteBuffer.wrap(payload), this.position + 4);
+        ByteBuffer length = ByteBuffer.allocate(4);
+        length.putInt(0, payload.length);
+        writeFully(this.segment, length, this.position);
+        this.position += 4 + payload.length;
+    }
+
+    /**
+     * Replays every result in the log, oldest first, including every result recorded before the call. A damaged
+     * record ends its segment; the records after it are skipped, and counted in {@link #getDamagedSegments()}.
+     *
+     * @param handler The handler to pass each result to.
+     * @throws IOException If a segment could not be read.
+     */
+    @Override
+    public void replay(@Nonnull final Handler handler) throws IOException {
+        Preconditions.checkNotNull(handler, "handler");
+        this.awaitWrites();
+        File[] segments = this.listSegments();
+        for (File file : segments) {
+            RandomAccessFile segmentFile;
+            try {
+                segmentFile = new RandomAccessFile(file, "r");
+            } catch (FileNotFoundException exception) {
+                //  deleted since it was listed, for being too old
+                continue;
+            }
+            ByteBuffer segment;
+            try {
+                segment = read(segmentFile.getChannel());
+            } finally {
+                segmentFile.close();
+            }
+            MatchResult result;
+            while ((result = readRecord(segment)) != null) {
+                handler.handle(result);
+            }
+            if (isDamaged(segment)) {
+                this.damagedSegments++;
+            }
+        }
+    }
+
+    /**
+     * Waits for the writer to append the results already handed to it.
+     *
+     * @throws IOException If the wait was interrupted.
+     */
+    private void awaitWrites() throws IOException {
+        Future<?> done;
+        try {
+            done = this.writer.submit(new Runnable() {
+                @Override
+                public void run() {
+                    //  only marks the results before it as written
+                }
+            });
+        } catch (RejectedExecutionException exception) {
+            //  closed, so everything has been written
+            return;
+        }
+        try {
+            done.get();
+        } catch (InterruptedException exception) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Interrupted while waiting for match log writes");
+        } catch (ExecutionException exception) {
+            throw new IllegalStateException(exception.getCause());
+        }
+    }
+
+    /**
+     * Reads the whole of a segment into memory.
+     *
+     * @param channel The segment's channel.
+     * @return The segment's contents, positioned at the start.
+     * @throws IOException If the segment could not be read, or is larger than a buffer can hold.
+     */
+    @Nonnull
+    private static ByteBuffer read(@Nonnull final FileChannel channel) throws IOException {
+        long size = channel.size();
+        if (size > Integer.MAX_VALUE) {
+            throw new IOException("Match log segment is too large: " + size + " bytes");
+        }
+        ByteBuffer contents = ByteBuffer.allocate((int) size);
+        while (contents.hasRemaining()) {
+            if (channel.read(contents, contents.position()) < 0) {
+                break;
+            }
+        }
+        contents.flip();
+        return contents;
+    }
+
+    /**
+     * Writes the whole of a buffer to a channel at the specified position.
+     *
+     * @param channel  The channel.
+     * @param buffer   The buffer.
+     * @param position Where in the channel to write it.
+     * @throws IOException If the buffer could not be written.
+     */
+    private static void writeFully(@Nonnull final FileChannel channel, @Nonnull final ByteBuffer buffer, final long position) throws IOException {
+        long offset = position;
+        while (buffer.hasRemaining()) {
+            offset += channel.write(buffer, offset);
+        }
+    }
+
+    /**
+     * Reads the record at a segment's position, and moves past it.
+     *
+     * @param segment The segment.
+     * @return The result, or null if there are no more records or the next one is damaged, in which case the position
+     * is left at the start of the record.
+     */
+    @Nullable
+    private static MatchResult readRecord(@Nonnull final ByteBuffer segment) {
+        int start = segment.position();
+        if (segment.remaining() < 4) {
+            return null;
+        }
+        int length = segment.getInt(start);
+        if (length <= 0 || length > segment.remaining() - 4) {
+            return null;
+        }
+        byte[] payload = new byte[length];
+        segment.position(start + 4);
+        segment.get(payload);
+        try {
+            return decode(payload);
+        } catch (IOException exception) {
+            segment.position(start);
+            return null;
+        } catch (IllegalArgumentException exception) {
+            segment.position(start);
+            return null;
+        }
+    }
+
+    /**
+     * Gets whether or not a segment's records ended at damage, rather than at the end of the segment or a zero length.
+     *
+     * @param segment The segment, positioned where its records ended.
+     * @return Whether or not the segment is damaged.
+     */
+    private static boolean isDamaged(@Nonnull final ByteBuffer segment) {
+        return segment.hasRemaining() && (segment.remaining() < 4 || segment.getInt(segment.position()) != 0);
+    }
+
+    /**
+     * Deletes the oldest segments, other than the current one, until no more than the maximum are left. A segment
+     * that can not be deleted is tried again the next time.
+     */
+    private void deleteOldSegments() {
+        File[] segments = this.listSegments();
+        for (int i = 0; i < segments.length - this.maxSegments; i++) {
+            if (getSegmentNumber(segments[i]) != this.segmentNumber) {
+                segments[i].delete();
+            }
+        }
+    }
+
+    /**
+     * Waits for the writer to append every result handed to it, flushes the current segment to disk, and closes the
+     * log.
+     *
+     * @throws IOException If the writer did not finish in time, or the segment could not be closed.
+     */
+    @Override
+    public void close() throws IOException {
+        this.writer.shutdown();
+        try {
+            if (!this.writer.awaitTermination(CLOSE_TIMEOUT, TimeUnit.MILLISECONDS)) {
+                throw new IOException("Timed out waiting for match log writes");
+            }
+        } catch (InterruptedException exception) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Interrupted while waiting for match log writes");
+        }
+        synchronized (this) {
+            if (this.segment != null) {
+                this.closeSegment(true);
+            }
+        }
+        IOException failure = this.failure;
+        if (failure != null) {
+            this.failure = null;
+            throw new IOException("Could not append a match result", failure);
+        }
+    }
+
+    /**
+     * Opens the segment with the specified sequence number, creating it if necessary, and appends to it from the start.
+     *
+     * @param number The segment's sequence number.
+     * @throws IOException If the segment could not be opened.
+     */
+    private void openSegment(final int number) throws IOException {
+        File file = new File(this.directory, String.format("%s%010d%s", SEGMENT_PREFIX, number, SEGMENT_SUFFIX));
+        this.segmentFile = new RandomAccessFile(file, "rw");
+        this.segment = this.segmentFile.getChannel();
+        this.segmentNumber = number;
+        this.position = 0L;
+    }
+
+    /**
+     * Closes the current segment.
+     *
+     * @param force Whether or not to wait for the segment to be written to disk first.
+     * @throws IOException If the segment could not be closed.
+     */
+    private void closeSegment(final boolean force) throws IOException {
+        try {
+            if (force) {
+                this.segment.force(true);
+            }
+        } finally {
+            this.segment = null;
+            this.segmentFile.close();
+            this.segmentFile = null;
+        }
+    }
+
+    /**
+     * Lists the segment files in the log directory, oldest first.
+     *
+     * @return The segment files.
+     */
+    @Nonnull
+    private File[] listSegments() {
+        File[] segments = this.directory.listFiles(new FileFilter() {
+            @Override
+            public boolean accept(File file) {
+                String name = file.getName();
+                return file.isFile() && name.startsWith(SEGMENT_PREFIX) && name.endsWith(SEGMENT_SUFFIX);
+            }
+        });
+        if (segments == null) {
+            return new File[0];
+        } else {
+            //  sequence numbers are zero-padded, so the names sort in order
+            Arrays.sort(segments);
+            return segments;
+        }
+    }
+
+    /**
+     * Gets the sequence number of the specified segment file.
+     *
+     * @param segment The segment file.
+     * @return The segment's sequence number.
+     */
+    private static int getSegmentNumber(@Nonnull final File segment) {
+        String name = segment.getName();
+        return Integer.parseInt(name.substring(SEGMENT_PREFIX.length(), name.length() - SEGMENT_SUFFIX.length()));
+    }
+
+    /**
+     * Encodes a result as a record payload.
+     *
+     * @param result The result.
+     * @return The payload.
+     * @throws IOException Never; required by {@link DataOutputStream}.
+     */
+    @Nonnull
+    private static byte[] encode(@Nonnull final MatchResult result) throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream(256);
+        DataOutputStream out = new DataOutputStream(bytes);
+        out.writeByte(FORMAT_VERSION);
+        out.writeLong(result.getUUID().getMostSignificantBits());
+        out.writeLong(result.getUUID().getLeastSignificantBits());
+        out.writeUTF(result.getWorld());
+        out.writeLong(result.getStartTime());
+        out.writeLong(result.getEndTime());
+        out.writeShort(result.getWinnerIndex());
+        out.writeShort(result.getTeams().size());
+        for (MatchResult.TeamResult team : result.getTeams()) {
+            out.writeUTF(team.getName());
+            out.writeShort(team.getPlayers().size());
+            for (String player : team.getPlayers()) {
+                out.writeUTF(player);
+            }
+        }
+        out.flush();
+        return bytes.toByteArray();
+    }
+
+    /**
+     * Decodes a record payload.
+     *
+     * @param payload The payload.
+     * @return The result.
+     * @throws IOException If the payload is malformed.
+     */
+    @Nonnull
+    private static MatchResult decode(@Nonnull final byte[] payload) throws IOException {
+        DataInputStream in = new DataInputStream(new ByteArrayInputStream(payload));
+        byte version = in.readByte();
+        if (version != FORMAT_VERSION) {
+            throw new IOException("Unknown match log format version " + version);
+        }
+        UUID uuid = new UUID(in.readLong(), in.readLong());
+        String world = in.readUTF();
+        long startTime = in.readLong();
+        long endTime = in.readLong();
+        int winner = in.readShort();
+        int teamCount = in.readShort();
+        List<MatchResult.TeamResult> teams = new ArrayList<MatchResult.TeamResult>(teamCount);
+        for (int i = 0; i < teamCount; i++) {
+            String name = in.readUTF();
+            int playerCount = in.readShort();
+            List<String> players = new ArrayList<String>(playerCount);
+            for (int j = 0; j < playerCount; j++) {
+                players.add(in.readUTF());
+            }
+            teams.add(new MatchResult.TeamResult(name, players));
+        }
+        return new MatchResult(uuid, world, startTime, endTime, winner, teams);
+    }
+}
@@ -0,0 +1,205 @@
+package com.github.rmsy.results;
+
+import com.github.rmsy.impl.SimpleMatch;
+import com.google.common.base.Preconditions;
+import com.google.common.collect.ImmutableList;
+import tc.oc.api.Player;
+import tc.oc.api.Team;
+
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * The result of a completed match.
+ */
+public final class MatchResult {
+
+    /**
+     * The match's unique identifier.
+     */
+    @Nonnull
+    private final UUID uuid;
+    /**
+     * The name of the world the match took place in.
+     */
+    @Nonnull
+    private final String world;
+    /**
+     * When the match started and ended, in milliseconds since the epoch.
+     */
+    private final long startTime, endTime;
+    /**
+     * The index of the winning team in {@link #teams}, or -1 if there was no winner.
+     */
+    private final int winner;
+    /**
+     * The participating teams.
+     */
+    @Nonnull
+    private final List<TeamResult> teams;
+
+    /**
+     * Creates a new MatchResult.
+     *
+     * @param uuid      The match's unique identifier.
+     * @param world     The name of the world the match took place in.
+     * @param startTime When the match started, in milliseconds since the epoch.
+     * @param endTime   When the match ended, in milliseconds since the epoch.
+     * @param winner    The index of the winning team, or -1 if there was no winner.
+     * @param teams     The participating teams.
+     * @throws IllegalArgumentException If the winner is not one of the teams.
+     */
+    public MatchResult(@Nonnull final UUID uuid, @Nonnull final String world, final long startTime, final long endTime, final int winner, @Nonnull final List<TeamResult> teams) throws IllegalArgumentException {
+        this.uuid = Preconditions.checkNotNull(uuid, "uuid");
+        this.world = Preconditions.checkNotNull(world, "world");
+        this.startTime = startTime;
+        this.endTime = endTime;
+        this.teams = ImmutableList.copyOf(Preconditions.checkNotNull(teams, "teams"));
+        Preconditions.checkArgument(winner >= -1 && winner < this.teams.size(), "Winner must be one of the teams.");
+        this.winner = winner;
+    }
+
+    /**
+     * Creates the result of the specified match, which must have ended.
+     *
+     * @param match The match.
+     * @return The match's result.
+     * @throws IllegalArgumentException If the match has not ended.
+     */
+    @Nonnull
+    public static MatchResult of(@Nonnull final SimpleMatch match) throws IllegalArgumentException {
+        Preconditions.checkArgument(Preconditions.checkNotNull(match, "match").getEndTime() != 0L, "Match has not ended.");
+        ImmutableList.Builder<TeamResult> teams = ImmutableList.builder();
+        int winner = -1;
+        int index = 0;
+        for (Team team : match.getParticipatingTeams()) {
+            if (team == match.getWinner()) {
+                winner = index;
+            }
+            ImmutableList.Builder<String> players = ImmutableList.builder();
+            for (Player player : team.getMembers()) {
+                players.add(player.getBukkit().getName());
+            }
+            teams.add(new TeamResult(team.getName(), players.build()));
+            index++;
+        }
+        return new MatchResult(match.getUUID(), match.getWorld().getName(), match.getStartTime(), match.getEndTime(), winner, teams.build());
+    }
+
+    /**
+     * Gets the match's unique identifier.
+     *
+     * @return The match's unique identifier.
+     */
+    @Nonnull
+    public UUID getUUID() {
+        return this.uuid;
+    }
+
+    /**
+     * Gets the name of the world the match took place in.
+     *
+     * @return The name of the world the match took place in.
+     */
+    @Nonnull
+    public String getWorld() {
+        return this.world;
+    }
+
+    /**
+     * Gets when the match started.
+     *
+     * @return When the match started, in milliseconds since the epoch.
+     */
+    public long getStartTime() {
+        return this.startTime;
+    }
+
+    /**
+     * Gets when the match ended.
+     *
+     * @return When the match ended, in milliseconds since the epoch.
+     */
+    public long getEndTime() {
+        return this.endTime;
+    }
+
+    /**
+     * Gets the index of the winning team in {@link #getTeams()}.
+     *
+     * @return The index of the winning team, or -1 if there was no winner.
+     */
+    public int getWinnerIndex() {
+        return this.winner;
+    }
+
+    /**
+     * Gets the winning team.
+     *
+     * @return The winning team, or null if there was no winner.
+     */
+    @Nullable
+    public TeamResult getWinner() {
+        return this.winner == -1 ? null : this.teams.get(this.winner);
+    }
+
+    /**
+     * Gets the participating teams.
+     *
+     * @return The participating teams.
+     */
+    @Nonnull
+    public List<TeamResult> getTeams() {
+        return this.teams;
+    }
+
+    /**
+     * A participating team's part in a match result.
+     */
+    public static final class TeamResult {
+
+        /**
+         * The team's name.
+         */
+        @Nonnull
+        private final String name;
+        /**
+         * The names of the team's players.
+         */
+        @Nonnull
+        private final List<String> players;
+
+        /**
+         * Creates a new TeamResult.
+         *
+         * @param name    The team's name.
+         * @param players The names of the team's players.
+         */
+        public TeamResult(@Nonnull final String name, @Nonnull final List<String> players) {
+            this.name = Preconditions.checkNotNull(name, "name");
+            this.players = ImmutableList.copyOf(Preconditions.checkNotNull(players, "players"));
+        }
+
+        /**
+         * Gets the team's name.
+         *
+         * @return The team's name.
+         */
+        @Nonnull
+        public String getName() {
+            return this.name;
+        }
+
+        /**
+         * Gets the names of the team's players.
+         *
+         * @return The names of the team's players.
+         */
+        @Nonnull
+        public List<String> getPlayers() {
+            return this.players;
+        }
+    }
+}
@@ -0,0 +1,40 @@
+package com.github.rmsy.results;
+
+import javax.annotation.Nonnull;
+import java.io.Closeable;
+import java.io.IOException;
+
+/**
+ * Somewhere the results of completed matches are kept.
+ */
+public interface MatchResultStore extends Closeable {
+
+    /**
+     * Records the result of a completed match.
+     *
+     * @param result The result.
+     * @throws IOException If the result could not be recorded.
+     */
+    void record(@Nonnull MatchResult result) throws IOException;
+
+    /**
+     * Replays every recorded result, oldest first.
+     *
+     * @param handler The handler to pass each result to.
+     * @throws IOException If the results could not be read.
+     */
+    void replay(@Nonnull Handler handler) throws IOException;
+
+    /**
+     * Receives replayed results.
+     */
+    interface Handler {
+
+        /**
+         * Handles a replayed result.
+         *
+         * @param result The result.
+         */
+        void handle(@Nonnull MatchResult result);
+    }
+}
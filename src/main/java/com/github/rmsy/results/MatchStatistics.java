@@ -0,0 +1,266 @@
+package com.github.rmsy.results;
+
+import com.github.rmsy.util.IntIndex;
+import com.google.common.base.Preconditions;
+
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Running statistics over completed matches, by world and by team name: matches played, wins, losses, total duration
+ * and total team size. Each result is folded in as it arrives, so every query is a couple of array reads, no matter
+ * how many matches have been recorded.
+ * <p/>
+ * Each combination of world and team name seen gets a row, as do the totals for each world across all teams, each team
+ * across all worlds, and everything. The rows' figures are kept in one primitive array per figure, indexed by row.
+ * Passing null as the world or team to a query reads the totals across all worlds or teams; for the totals across all
+ * teams, a match counts once towards the matches played, and wins and losses are summed over the teams, so the wins
+ * are the matches that had a winner.
+ * <p/>
+ * Implements {@link MatchResultStore.Handler}, so that it can be seeded by replaying a {@link MatchResultStore}.
+ */
+public final class MatchStatistics implements MatchResultStore.Handler {
+
+    /**
+     * The ID standing for all worlds or all teams.
+     */
+    private static final int ALL = 0;
+    /**
+     * The IDs given to each world name and team name seen; IDs start from one.
+     */
+    @Nonnull
+    private final Map<String, Integer> worldIds, teamIds;
+    /**
+     * The row of each team in each world, by world ID and then team ID.
+     */
+    @Nonnull
+    private IntIndex[] rows;
+    /**
+     * The number of rows.
+     */
+    private int rowCount;
+    /**
+     * The number of matches each row's team played, won and lost.
+     */
+    @Nonnull
+    private long[] played, wins, losses;
+    /**
+     * The number of team results that went into each row, and the total of their sizes.
+     */
+    @Nonnull
+    private long[] teamResults, teamSizes;
+    /**
+     * The total duration of the matches in each row, in milliseconds.
+     */
+    @Nonnull
+    private long[] durations;
+
+    /**
+     * Creates a new, empty set of statistics.
+     */
+    public MatchStatistics() {
+        this.worldIds = new HashMap<String, Integer>();
+        this.teamIds = new HashMap<String, Integer>();
+        this.rows = new IntIndex[]{new IntIndex()};
+        this.played = new long[16];
+        this.wins = new long[16];
+        this.losses = new long[16];
+        this.teamResults = new long[16];
+        this.teamSizes = new long[16];
+        this.durations = new long[16];
+    }
+
+    /**
+     * Folds the result of a completed match into the statistics.
+     *
+     * @param result The result.
+     */
+    @Override
+    public synchronized void handle(@Nonnull final MatchResult result) {
+        Preconditions.checkNotNull(result, "result");
+        int world = this.id(this.worldIds, result.getWorld());
+        if (world == this.rows.length) {
+            this.rows = Arrays.copyOf(this.rows, Math.max(world + 1, this.rows.length * 2));
+        }
+        if (this.rows[world] == null) {
+            this.rows[world] = new IntIndex();
+        }
+        long duration = Math.max(0L, result.getEndTime() - result.getStartTime());
+        boolean decided = result.getWinnerIndex() != -1;
+
+        int worldTotal = this.row(world, ALL);
+        int total = this.row(ALL, ALL);
+        this.played[worldTotal]++;
+        this.played[total]++;
+        this.durations[worldTotal] += duration;
+        this.durations[total] += duration;
+        for (int i = 0; i < result.getTeams().size(); i++) {
+            MatchResult.TeamResult team = result.getTeams().get(i);
+            int teamId = this.id(this.teamIds, team.getName());
+            int size = team.getPlayers().size();
+            boolean won = i == result.getWinnerIndex();
+            boolean lost = decided && !won;
+            int teamRow = this.row(world, teamId);
+            int teamTotal = this.row(ALL, teamId);
+            this.played[teamRow]++;
+            this.played[teamTotal]++;
+            this.durations[teamRow] += duration;
+            this.durations[teamTotal] += duration;
+            this.add(teamRow, size, won, lost);
+            this.add(teamTotal, size, won, lost);
+            this.add(worldTotal, size, won, lost);
+            this.add(total, size, won, lost);
+        }
+    }
+
+    /**
+     * Gets the number of matches played.
+     *
+     * @param world The name of the world, or null for all worlds.
+     * @param team  The name of the team, or null for all teams.
+     * @return The number of matches the team played in the world.
+     */
+    public synchronized long getMatchesPlayed(@Nullable final String world, @Nullable final String team) {
+        int row = this.find(world, team);
+        return row == IntIndex.ABSENT ? 0L : this.played[row];
+    }
+
+    /**
+     * Gets the number of matches won.
+     *
+     * @param world The name of the world, or null for all worlds.
+     * @param team  The name of the team, or null for all teams.
+     * @return The number of matches the team won in the world.
+     */
+    public synchronized long getWins(@Nullable final String world, @Nullable final String team) {
+        int row = this.find(world, team);
+        return row == IntIndex.ABSENT ? 0L : this.wins[row];
+    }
+
+    /**
+     * Gets the number of matches lost. Matches that ended without a winner are neither won nor lost.
+     *
+     * @param world The name of the world, or null for all worlds.
+     * @param team  The name of the team, or null for all teams.
+     * @return The number of matches the team lost in the world.
+     */
+    public synchronized long getLosses(@Nullable final String world, @Nullable final String team) {
+        int row = this.find(world, team);
+        return row == IntIndex.ABSENT ? 0L : this.losses[row];
+    }
+
+    /**
+     * Gets the fraction of matches played that were won.
+     *
+     * @param world The name of the world, or null for all worlds.
+     * @param team  The name of the team, or null for all teams.
+     * @return The team's win rate in the world, between zero and one, or {@link Double#NaN} if it has not played there.
+     */
+    public synchronized double getWinRate(@Nullable final String world, @Nullable final String team) {
+        int row = this.find(world, team);
+        return row == IntIndex.ABSENT || this.played[row] == 0L ? Double.NaN : (double) this.wins[row] / this.played[row];
+    }
+
+    /**
+     * Gets the average duration of the matches played.
+     *
+     * @param world The name of the world, or null for all worlds.
+     * @param team  The name of the team, or null for all teams.
+     * @return The average duration of the team's matches in the world, in milliseconds, or {@link Double#NaN} if it
+     * has not played there.
+     */
+    public synchronized double getAverageDuration(@Nullable final String world, @Nullable final String team) {
+        int row = this.find(world, team);
+        return row == IntIndex.ABSENT || this.played[row] == 0L ? Double.NaN : (double) this.durations[row] / this.played[row];
+    }
+
+    /**
+     * Gets the average number of players on the team at the end of its matches.
+     *
+     * @param world The name of the world, or null for all worlds.
+     * @param team  The name of the team, or null for all teams.
+     * @return The average size of the team in the world, or {@link Double#NaN} if it has not played there.
+     */
+    public synchronized double getAverageTeamSize(@Nullable final String world, @Nullable final String team) {
+        int row = this.find(world, team);
+        return row == IntIndex.ABSENT || this.teamResults[row] == 0L ? Double.NaN : (double) this.teamSizes[row] / this.teamResults[row];
+    }
+
+    /**
+     * Adds a team's part in a match to a row.
+     *
+     * @param row  The row.
+     * @param size The number of players on the team.
+     * @param won  Whether or not the team won.
+     * @param lost Whether or not the team lost.
+     */
+    private void add(final int row, final int size, final boolean won, final boolean lost) {
+        this.teamResults[row]++;
+        this.teamSizes[row] += size;
+        if (won) {
+            this.wins[row]++;
+        } else if (lost) {
+            this.losses[row]++;
+        }
+    }
+
+    /**
+     * Finds the row of a team in a world.
+     *
+     * @param world The name of the world, or null for all worlds.
+     * @param team  The name of the team, or null for all teams.
+     * @return The row, or {@link IntIndex#ABSENT} if the team has not played in the world.
+     */
+    private int find(@Nullable final String world, @Nullable final String team) {
+        Integer worldId = world == null ? Integer.valueOf(ALL) : this.worldIds.get(world);
+        Integer teamId = team == null ? Integer.valueOf(ALL) : this.teamIds.get(team);
+        if (worldId == null || teamId == null || this.rows[worldId] == null) {
+            return IntIndex.ABSENT;
+        }
+        return this.rows[worldId].get(teamId);
+    }
+
+    /**
+     * Gets the row of a team in a world, adding it if there is none.
+     *
+     * @param world The world's ID.
+     * @param team  The team's ID.
+     * @return The row.
+     */
+    private int row(final int world, final int team) {
+        int row = this.rows[world].get(team);
+        if (row == IntIndex.ABSENT) {
+            row = this.rowCount++;
+            if (row == this.played.length) {
+                int capacity = row * 2;
+                this.played = Arrays.copyOf(this.played, capacity);
+                this.wins = Arrays.copyOf(this.wins, capacity);
+                this.losses = Arrays.copyOf(this.losses, capacity);
+                this.teamResults = Arrays.copyOf(this.teamResults, capacity);
+                this.teamSizes = Arrays.copyOf(this.teamSizes, capacity);
+                this.durations = Arrays.copyOf(this.durations, capacity);
+            }
+            this.rows[world].put(team, row);
+        }
+        return row;
+    }
+
+    /**
+     * Gets the ID of a name, giving it the next ID if it has none.
+     *
+     * @param ids  The IDs given so far.
+     * @param name The name.
+     * @return The name's ID.
+     */
+    private int id(@Nonnull final Map<String, Integer> ids, @Nonnull final String name) {
+        Integer id = ids.get(name);
+        if (id == null) {
+            id = ids.size() + 1;
+            ids.put(name, id);
+        }
+        return id;
+    }
+}
@@ -0,0 +1,190 @@
+package com.github.rmsy.util;
+
+import com.google.common.base.Preconditions;
+
+import javax.annotation.Nonnull;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * An index of named values that can be searched by abbreviation. Each name is stored with a bitmask of the characters
+ * it contains, so that names which can not possibly match a query are skipped without being scored by
+ * {@link LiquidMetal}. Safe for use from multiple threads.
+ *
+ * @param <T> The type of value being indexed.
+ */
+public final class FuzzyIndex<T> {
+
+    /**
+     * The indexed values, packed at the start of the array.
+     */
+    @Nonnull
+    private Object[] values;
+    /**
+     * The names of the indexed values, and their lowercased forms.
+     */
+    @Nonnull
+    private String[] names, lowerNames;
+    /**
+     * The character masks of the lowercased names.
+     */
+    @Nonnull
+    private long[] masks;
+    /**
+     * The number of indexed values.
+     */
+    private int size;
+    /**
+     * The position of each indexed value in the arrays above.
+     */
+    @Nonnull
+    private final Map<T, Integer> positions;
+
+    /**
+     * Creates a new, empty index.
+     */
+    public FuzzyIndex() {
+        this.values = new Object[16];
+        this.names = new String[16];
+        this.lowerNames = new String[16];
+        this.masks = new long[16];
+        this.positions = new HashMap<T, Integer>();
+    }
+
+    /**
+     * Adds a value to the index, replacing its name if it is already indexed.
+     *
+     * @param value The value.
+     * @param name  The value's name.
+     */
+    public synchronized void add(@Nonnull final T value, @Nonnull final String name) {
+        Preconditions.checkNotNull(value, "value");
+        Preconditions.checkNotNull(name, "name");
+        Integer position = this.positions.get(value);
+        int index;
+        if (position != null) {
+            index = position;
+        } else {
+            if (this.size == this.values.length) {
+                int capacity = this.size * 2;
+                this.values = Arrays.copyOf(this.values, capacity);
+                this.names = Arrays.copyOf(this.names, capacity);
+                this.lowerNames = Arrays.copyOf(this.lowerNames, capacity);
+                this.masks = Arrays.copyOf(this.masks, capacity);
+            }
+            index = this.size++;
+            this.positions.put(value, index);
+        }
+        String lowerName = name.toLowerCase();
+        this.values[index] = value;
+        this.names[index] = name;
+        this.lowerNames[index] = lowerName;
+        this.masks[index] = mask(lowerName);
+    }
+
+    /**
+     * Removes a value from the index.
+     *
+     * @param value The value.
+     * @return Whether or not the value was indexed.
+     */
+    @SuppressWarnings("unchecked")
+    public synchronized boolean remove(@Nonnull final T value) {
+        Integer position = this.positions.remove(Preconditions.checkNotNull(value, "value"));
+        if (position == null) {
+            return false;
+        }
+
+        //  move the last entry into the gap
+        int index = position;
+        int last = --this.size;
+        if (index != last) {
+            this.values[index] = this.values[last];
+            this.names[index] = this.names[last];
+            this.lowerNames[index] = this.lowerNames[last];
+            this.masks[index] = this.masks[last];
+            this.positions.put((T) this.values[index], index);
+        }
+        this.values[last] = null;
+        this.names[last] = null;
+        this.lowerNames[last] = null;
+        return true;
+    }
+
+    /**
+     * Gets the number of indexed values.
+     *
+     * @return The number of indexed values.
+     */
+    public synchronized int size() {
+        return this.size;
+    }
+
+    /**
+     * Finds the values whose names best match the specified abbreviation. Only the character masks are checked while
+     * holding the index's lock; the names that pass are copied out and scored after it is released, so that searches
+     * do not hold up changes to the index, or each other.
+     *
+     * @param abbreviation The abbreviation.
+     * @param limit        The maximum number of values to return.
+     * @return The matching values, best match first.
+     */
+    @Nonnull
+    @SuppressWarnings("unchecked")
+    public List<T> search(@Nonnull final String abbreviation, final int limit) {
+        String lowerAbbreviation = Preconditions.checkNotNull(abbreviation, "abbreviation").toLowerCase();
+        long mask = mask(lowerAbbreviation);
+        int length = lowerAbbreviation.length();
+        Object[] candidates;
+        String[] candidateNames, candidateLowerNames;
+        int candidateCount = 0;
+        synchronized (this) {
+            candidates = new Object[this.size];
+            candidateNames = new String[this.size];
+            candidateLowerNames = new String[this.size];
+            for (int i = 0; i < this.size; i++) {
+                if ((this.masks[i] & mask) == mask && this.names[i].length() >= length) {
+                    candidates[candidateCount] = this.values[i];
+                    candidateNames[candidateCount] = this.names[i];
+                    candidateLowerNames[candidateCount] = this.lowerNames[i];
+                    candidateCount++;
+                }
+            }
+        }
+
+        Ranking<T> ranking = new Ranking<T>(limit);
+        for (int i = 0; i < candidateCount; i++) {
+            double score = LiquidMetal.score(candidateNames[i], candidateLowerNames[i], lowerAbbreviation);
+            if (score > LiquidMetal.SCORE_NO_MATCH) {
+                ranking.offer((T) candidates[i], score);
+            }
+        }
+        return ranking.toList();
+    }
+
+    /**
+     * Computes the character mask of a lowercased string. Each letter and digit has its own bit, and all other
+     * characters share the remaining bits.
+     *
+     * @param lower The lowercased string.
+     * @return The string's character mask.
+     */
+    private static long mask(@Nonnull final String lower) {
+        long mask = 0L;
+        for (int i = 0; i < lower.length(); i++) {
+            char c = lower.charAt(i);
+            int bit;
+            if (c >= 'a' && c <= 'z') {
+                bit = c - 'a';
+            } else if (c >= '0' && c <= '9') {
+                bit = 26 + (c - '0');
+            } else {
+                bit = 36 + (c % 28);
+            }
+            mask |= 1L << bit;
+        }
+        return mask;
+    }
+}
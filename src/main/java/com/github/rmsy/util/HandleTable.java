@@ -0,0 +1,135 @@
+package com.github.rmsy.util;
+
+import com.google.common.base.Preconditions;
+
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * Hands out small integer handles for values, and looks values up by handle with a single array read. Handles are
+ * kept dense: a removed value's handle is given to the next value added, so the table only grows as large as the
+ * largest number of values it has held at once. Lookups never block; additions and removals are synchronized.
+ * <p/>
+ * A handle is only valid while its value is in the table. Once the value is removed, the handle may be given to
+ * another value, so callers holding on to a handle should check that it still refers to what they expect.
+ *
+ * @param <T> The type of value being stored.
+ */
+public final class HandleTable<T> {
+
+    /**
+     * The handle returned when there is no value.
+     */
+    public static final int NO_HANDLE = -1;
+    /**
+     * The values, by handle. Replaced with a larger array when full.
+     */
+    @Nonnull
+    private volatile AtomicReferenceArray<T> values;
+    /**
+     * The handles of removed values, waiting to be reused, most recently removed last.
+     */
+    @Nonnull
+    private int[] freeHandles;
+    /**
+     * The number of handles waiting to be reused.
+     */
+    private int freeCount;
+    /**
+     * The lowest handle that has never been given out.
+     */
+    private int nextHandle;
+    /**
+     * The number of values in the table.
+     */
+    private int size;
+
+    /**
+     * Creates a new, empty table.
+     */
+    public HandleTable() {
+        this(16);
+    }
+
+    /**
+     * Creates a new, empty table.
+     *
+     * @param initialCapacity The number of values the table can hold before it has to grow.
+     * @throws IllegalArgumentException If the initial capacity is not positive.
+     */
+    public HandleTable(final int initialCapacity) throws IllegalArgumentException {
+        Preconditions.checkArgument(initialCapacity > 0, "Initial capacity must be positive.");
+        this.values = new AtomicReferenceArray<T>(initialCapacity);
+        this.freeHandles = new int[initialCapacity];
+    }
+
+    /**
+     * Adds a value to the table.
+     *
+     * @param value The value.
+     * @return The value's handle.
+     */
+    public synchronized int add(@Nonnull final T value) {
+        Preconditions.checkNotNull(value, "value");
+        int handle;
+        if (this.freeCount > 0) {
+            handle = this.freeHandles[--this.freeCount];
+        } else {
+            handle = this.nextHandle++;
+            if (handle == this.values.length()) {
+                AtomicReferenceArray<T> values = new AtomicReferenceArray<T>(handle * 2);
+                for (int i = 0; i < handle; i++) {
+                    values.set(i, this.values.get(i));
+                }
+                this.values = values;
+            }
+        }
+        this.values.set(handle, value);
+        this.size++;
+        return handle;
+    }
+
+    /**
+     * Removes a value from the table, if the specified handle still refers to it.
+     *
+     * @param handle The value's handle.
+     * @param value  The value.
+     * @return Whether or not the value was removed.
+     */
+    public synchronized boolean remove(final int handle, @Nonnull final T value) {
+        Preconditions.checkNotNull(value, "value");
+        if (handle < 0 || handle >= this.nextHandle || !this.values.compareAndSet(handle, value, null)) {
+            return false;
+        }
+        if (this.freeCount == this.freeHandles.length) {
+            int[] freeHandles = new int[this.freeCount * 2];
+            System.arraycopy(this.freeHandles, 0, freeHandles, 0, this.freeCount);
+            this.freeHandles = freeHandles;
+        }
+        this.freeHandles[this.freeCount++] = handle;
+        this.size--;
+        return true;
+    }
+
+    /**
+     * Gets the value with the specified handle.
+     *
+     * @param handle The handle.
+     * @return The value, or null if no value has the handle.
+     */
+    @Nullable
+    public T get(final int handle) {
+        AtomicReferenceArray<T> values = this.values;
+        return handle >= 0 && handle < values.length() ? values.get(handle) : null;
+    }
+
+    /**
+     * Gets the number of values in the table.
+     *
+     * @return The number of values.
+     */
+    public synchronized int size() {
+        return this.size;
+    }
+}
@@ -0,0 +1,140 @@
+package com.github.rmsy.util;
+
+import com.google.common.base.Preconditions;
+
+import javax.annotation.Nonnull;
+
+/**
+ * Maps {@code int} keys, such as entity IDs, to non-negative {@code int} values, such as {@link HandleTable} handles,
+ * without boxing either. Keys and values are packed together into a single open-addressed {@code long} array, so a
+ * lookup is a hash and a short run of reads from one array.
+ * <p/>
+ * Writes copy the array, and then publish the copy, so lookups never block and never see a write in progress. That
+ * makes writes cost time proportional to the size of the index, which suits indexes that are read far more often than
+ * they are written.
+ */
+public final class IntIndex {
+
+    /**
+     * The value returned when a key is not in the index.
+     */
+    public static final int ABSENT = -1;
+    /**
+     * The slots, each holding a key in its high half and its value plus one in its low half, or zero if empty. Never
+     * more than half full.
+     */
+    @Nonnull
+    private volatile long[] slots;
+    /**
+     * The number of keys in the index.
+     */
+    private int size;
+
+    /**
+     * Creates a new, empty index.
+     */
+    public IntIndex() {
+        this.slots = new long[16];
+    }
+
+    /**
+     * Gets the value of the specified key.
+     *
+     * @param key The key.
+     * @return The key's value, or {@link #ABSENT} if the key is not in the index.
+     */
+    public int get(final int key) {
+        long[] slots = this.slots;
+        int mask = slots.length - 1;
+        for (int index = hash(key) & mask; ; index = (index + 1) & mask) {
+            long slot = slots[index];
+            if (slot == 0L) {
+                return ABSENT;
+            } else if ((int) (slot >>> 32) == key) {
+                return (int) slot - 1;
+            }
+        }
+    }
+
+    /**
+     * Sets the value of the specified key.
+     *
+     * @param key   The key.
+     * @param value The key's value.
+     * @throws IllegalArgumentException If the value is negative.
+     */
+    public synchronized void put(final int key, final int value) throws IllegalArgumentException {
+        Preconditions.checkArgument(value >= 0 && value < Integer.MAX_VALUE, "Value must be non-negative.");
+        long[] slots = this.slots;
+        int capacity = this.size + 1 > slots.length / 2 ? slots.length * 2 : slots.length;
+        long[] copy = new long[capacity];
+        int size = 0;
+        for (long slot : slots) {
+            if (slot != 0L && (int) (slot >>> 32) != key) {
+                insert(copy, slot);
+                size++;
+            }
+        }
+        insert(copy, ((long) key << 32) | (value + 1));
+        this.size = size + 1;
+        this.slots = copy;
+    }
+
+    /**
+     * Removes the specified key, if it still has the specified value.
+     *
+     * @param key   The key.
+     * @param value The key's value.
+     * @return Whether or not the key was removed.
+     */
+    public synchronized boolean remove(final int key, final int value) {
+        if (this.get(key) != value || value == ABSENT) {
+            return false;
+        }
+        long[] slots = this.slots;
+        long[] copy = new long[slots.length];
+        for (long slot : slots) {
+            if (slot != 0L && (int) (slot >>> 32) != key) {
+                insert(copy, slot);
+            }
+        }
+        this.size--;
+        this.slots = copy;
+        return true;
+    }
+
+    /**
+     * Gets the number of keys in the index.
+     *
+     * @return The number of keys.
+     */
+    public synchronized int size() {
+        return this.size;
+    }
+
+    /**
+     * Inserts a packed slot into a table that is known not to contain its key.
+     *
+     * @param slots The table.
+     * @param slot  The packed slot.
+     */
+    private static void insert(@Nonnull final long[] slots, final long slot) {
+        int mask = slots.length - 1;
+        int index = hash((int) (slot >>> 32)) & mask;
+        while (slots[index] != 0L) {
+            index = (index + 1) & mask;
+        }
+        slots[index] = slot;
+    }
+
+    /**
+     * Spreads the bits of a key, so that sequential keys do not cluster.
+     *
+     * @param key The key.
+     * @return The key's hash.
+     */
+    private static int hash(final int key) {
+        int hash = key * 0x9E3779B9;
+        return hash ^ (hash >>> 16);
+    }
+}
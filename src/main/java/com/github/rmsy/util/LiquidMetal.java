@@ -34,6 +34,16 @@ public final class LiquidMetal {
     public static final double SCORE_TRAILING_BUT_STARTED = 0.9;
     public static final double SCORE_BUFFER = 0.85;
 
+    /**
+     * Per-thread scratch space for the score array, grown as needed, so that scoring does not allocate.
+     */
+    private static final ThreadLocal<double[]> SCRATCH = new ThreadLocal<double[]>() {
+        @Override
+        protected double[] initialValue() {
+            return new double[32];
+        }
+    };
+
     /**
      * Scores an input string against another string.
      *
@@ -42,39 +52,57 @@ public final class LiquidMetal {
      * @return The score.
      */
     public static final double score(String string, String abbreviation) {
-        if (abbreviation.length() == 0) {
+        return score(string, string.toLowerCase(), abbreviation.toLowerCase());
+    }
+
+    /**
+     * Scores an already lowercased input string against another string, whose lowercased form has also been computed
+     * in advance. Returns the same score as {@link #score(String, String)}, without allocating.
+     *
+     * @param string            The string to score against.
+     * @param lowerString       The string to score against, lowercased.
+     * @param lowerAbbreviation The input to score, lowercased.
+     * @return The score.
+     */
+    public static final double score(String string, String lowerString, String lowerAbbreviation) {
+        if (lowerAbbreviation.length() == 0) {
             return SCORE_TRAILING;
-        } else if (abbreviation.length() > string.length()) {
+        } else if (lowerAbbreviation.length() > string.length()) {
             return SCORE_NO_MATCH;
         }
 
-        double[] scores = buildScoreArray(string, abbreviation);
+        double[] scores = SCRATCH.get();
+        if (scores.length < string.length()) {
+            scores = new double[Math.max(string.length(), scores.length * 2)];
+            SCRATCH.set(scores);
+        }
 
         // complete miss:
-        if (scores == null) {
+        if (!buildScoreArray(string, lowerString, lowerAbbreviation, scores)) {
             return SCORE_NO_MATCH;
         }
 
         double sum = 0.0;
-        for (double score : scores) {
-            sum += score;
+        for (int i = 0; i < string.length(); i++) {
+            sum += scores[i];
         }
 
-        return (sum / scores.length);
+        return (sum / string.length());
     }
 
-    private static final double[] buildScoreArray(String string, String abbreviation) {
-        double[] scores = new double[string.length()];
-        String lower = string.toLowerCase();
-        String chars = abbreviation.toLowerCase();
-
+    /**
+     * Fills the first {@code string.length()} entries of the specified array with the score of each character.
+     *
+     * @return Whether or not every character of the abbreviation was found.
+     */
+    private static final boolean buildScoreArray(String string, String lower, String chars, double[] scores) {
         int lastIndex = -1;
         boolean started = false;
-        for (int i = 0; i < abbreviation.length(); i++) {
+        for (int i = 0; i < chars.length(); i++) {
             char c = chars.charAt(i);
             int index = lower.indexOf(c, lastIndex + 1);
 
-            if (index == -1) return null; // signal no match
+            if (index == -1) return false; // signal no match
             if (index == 0) started = true;
 
             if (isNewWord(string, index)) {
@@ -91,12 +119,12 @@ public final class LiquidMetal {
         }
 
         double trailingScore = started ? SCORE_TRAILING_BUT_STARTED : SCORE_TRAILING;
-        Arrays.fill(scores, lastIndex + 1, scores.length, trailingScore);
-        return scores;
+        Arrays.fill(scores, lastIndex + 1, string.length(), trailingScore);
+        return true;
     }
 
     public static final boolean isNewWord(String string, int index) {
-        return (string.charAt(index - 1) == (' ' | '\t')) && !(index == 0);
+        return !(index == 0) && (string.charAt(index - 1) == (' ' | '\t'));
     }
 
     private static final boolean isUpperCase(char character) {
@@ -0,0 +1,90 @@
+package com.github.rmsy.util;
+
+import com.google.common.base.Preconditions;
+
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+
+/**
+ * A bounded stack of objects waiting to be reused, so that objects with large internal collections can be recycled
+ * rather than rebuilt. The pool only holds objects; resetting them before they are released, or after they are
+ * acquired, is up to the caller. Objects released while the pool is full are left to the garbage collector.
+ * <p/>
+ * Safe for use from multiple threads.
+ *
+ * @param <T> The type of object being pooled.
+ */
+public final class Pool<T> {
+
+    /**
+     * The pooled objects, most recently released last.
+     */
+    @Nonnull
+    private final Object[] objects;
+    /**
+     * The number of pooled objects.
+     */
+    private int size;
+
+    /**
+     * Creates a new, empty pool.
+     *
+     * @param capacity The largest number of objects the pool holds.
+     * @throws IllegalArgumentException If the capacity is not positive.
+     */
+    public Pool(final int capacity) throws IllegalArgumentException {
+        Preconditions.checkArgument(capacity > 0, "Capacity must be positive.");
+        this.objects = new Object[capacity];
+    }
+
+    /**
+     * Takes the most recently released object out of the pool.
+     *
+     * @return The object, or null if the pool is empty.
+     */
+    @Nullable
+    @SuppressWarnings("unchecked")
+    public synchronized T acquire() {
+        if (this.size == 0) {
+            return null;
+        } else {
+            T object = (T) this.objects[--this.size];
+            this.objects[this.size] = null;
+            return object;
+        }
+    }
+
+    /**
+     * Puts an object into the pool. The object must not be used again until it is acquired.
+     *
+     * @param object The object.
+     * @return Whether or not the object was pooled (false if the pool is full).
+     */
+    public synchronized boolean release(@Nonnull final T object) {
+        Preconditions.checkNotNull(object, "object");
+        if (this.size == this.objects.length) {
+            return false;
+        } else {
+            this.objects[this.size++] = object;
+            return true;
+        }
+    }
+
+    /**
+     * Gets the number of objects in the pool.
+     *
+     * @return The number of objects waiting to be reused.
+     */
+    public synchronized int size() {
+        return this.size;
+    }
+
+    /**
+     * Gets the largest number of objects the pool holds.
+     *
+     * @return The pool's capacity.
+     */
+    public int getCapacity() {
+        return this.objects.length;
+    }
+}
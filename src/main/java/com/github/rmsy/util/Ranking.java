@@ -0,0 +1,84 @@
+package com.github.rmsy.util;
+
+import com.google.common.base.Preconditions;
+
+import javax.annotation.Nonnull;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Keeps the highest-scoring of the values offered to it, up to a fixed limit. Values with equal scores are ranked in
+ * the order they were offered.
+ *
+ * @param <T> The type of value being ranked.
+ */
+public final class Ranking<T> {
+
+    /**
+     * The ranked values, highest-scoring first.
+     */
+    @Nonnull
+    private final Object[] values;
+    /**
+     * The scores of the ranked values.
+     */
+    @Nonnull
+    private final double[] scores;
+    /**
+     * The number of ranked values.
+     */
+    private int size;
+
+    /**
+     * Creates a new ranking.
+     *
+     * @param limit The maximum number of values to keep.
+     * @throws IllegalArgumentException If the limit is not positive.
+     */
+    public Ranking(final int limit) throws IllegalArgumentException {
+        Preconditions.checkArgument(limit > 0, "Limit must be positive.");
+        this.values = new Object[limit];
+        this.scores = new double[limit];
+    }
+
+    /**
+     * Offers a value to the ranking.
+     *
+     * @param value The value.
+     * @param score The value's score.
+     * @return Whether or not the value was kept.
+     */
+    public boolean offer(@Nonnull final T value, final double score) {
+        if (this.size == this.values.length && score <= this.scores[this.size - 1]) {
+            return false;
+        }
+
+        int index = Math.min(this.size, this.values.length - 1);
+        while (index > 0 && this.scores[index - 1] < score) {
+            this.values[index] = this.values[index - 1];
+            this.scores[index] = this.scores[index - 1];
+            index--;
+        }
+        this.values[index] = Preconditions.checkNotNull(value, "value");
+        this.scores[index] = score;
+        if (this.size < this.values.length) {
+            this.size++;
+        }
+        return true;
+    }
+
+    /**
+     * Gets the ranked values.
+     *
+     * @return The ranked values, highest-scoring first.
+     */
+    @Nonnull
+    @SuppressWarnings("unchecked")
+    public List<T> toList() {
+        List<T> list = new ArrayList<T>(this.size);
+        for (int i = 0; i < this.size; i++) {
+            list.add((T) this.values[i]);
+        }
+        return list;
+    }
+}
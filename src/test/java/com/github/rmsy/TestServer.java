@@ -0,0 +1,35 @@
+package com.github.rmsy;
+
+import com.github.rmsy.stubs.StubServer;
+import org.bukkit.Bukkit;
+
+import javax.annotation.Nonnull;
+
+/**
+ * The {@link StubServer} the tests run on. Bukkit's server can only be set once, so every test shares one, created on
+ * the thread that runs the tests.
+ */
+public final class TestServer {
+
+    /**
+     * The shared server, or null if no test has needed it yet.
+     */
+    private static StubServer server;
+
+    private TestServer() {
+    }
+
+    /**
+     * Gets the shared server, creating it and making it Bukkit's server the first time.
+     *
+     * @return The shared server.
+     */
+    @Nonnull
+    public static synchronized StubServer get() {
+        if (server == null) {
+            server = new StubServer();
+            Bukkit.setServer(server.getServer());
+        }
+        return server;
+    }
+}
@@ -0,0 +1,153 @@
+package com.github.rmsy.change;
+
+import com.github.rmsy.TestServer;
+import com.github.rmsy.impl.MatchState;
+import com.github.rmsy.impl.SimpleMatch;
+import com.github.rmsy.stubs.StubServer;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import javax.annotation.Nonnull;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.Assert.*;
+
+public final class ChangeBusTest {
+
+    private StubServer server;
+    private ChangeBus bus;
+    private List<Change> delivered;
+    private int deliveries;
+
+    @Before
+    public void setUp() {
+        this.server = TestServer.get();
+        this.bus = new ChangeBus();
+        this.delivered = new ArrayList<Change>();
+        this.bus.subscribe(Change.class, new ChangeListener<Change>() {
+            @Override
+            public void onChanges(@Nonnull List<Change> changes) {
+                ChangeBusTest.this.deliveries++;
+                ChangeBusTest.this.delivered.addAll(changes);
+            }
+        });
+    }
+
+    @After
+    public void tearDown() {
+        this.bus.stop();
+    }
+
+    private SimpleMatch match(final String world) {
+        return new SimpleMatch(this.server.createWorld(world));
+    }
+
+    @Test
+    public void deliversImmediatelyUntilStarted() {
+        SimpleMatch match = this.match("a");
+        this.bus.publish(new MatchMappingChange(match, true));
+        this.bus.publish(new MatchMappingChange(match, false));
+        assertEquals(2, this.deliveries);
+        assertEquals(2, this.delivered.size());
+    }
+
+    @Test
+    public void deliversOncePerTickInOrderOfFirstChange() {
+        this.bus.start(this.server.getPlugin());
+        SimpleMatch first = this.match("a"), second = this.match("b");
+        this.bus.publish(new MatchMappingChange(first, true));
+        this.bus.publish(new MatchMappingChange(second, true));
+        this.bus.publish(new MatchChange(first, MatchState.IDLE, MatchState.STARTING));
+        assertEquals("delivered before the tick", 0, this.deliveries);
+
+        this.bus.run();
+        assertEquals(1, this.deliveries);
+        assertEquals(3, this.delivered.size());
+        assertSame(first, this.delivered.get(0).getSubject());
+        assertSame(second, this.delivered.get(1).getSubject());
+        assertTrue(this.delivered.get(2) instanceof MatchChange);
+    }
+
+    @Test
+    public void mappedAndRemovedInOneTickIsNotDelivered() {
+        this.bus.start(this.server.getPlugin());
+        SimpleMatch match = this.match("a");
+        this.bus.publish(new MatchMappingChange(match, true));
+        this.bus.publish(new MatchMappingChange(match, false));
+        this.bus.run();
+        assertEquals(0, this.delivered.size());
+    }
+
+    @Test
+    public void removedMappedAndRemovedInOneTickIsOneRemoval() {
+        this.bus.start(this.server.getPlugin());
+        SimpleMatch match = this.match("a");
+        this.bus.publish(new MatchMappingChange(match, false));
+        this.bus.publish(new MatchMappingChange(match, true));
+        this.bus.publish(new MatchMappingChange(match, false));
+        this.bus.run();
+        assertEquals(1, this.delivered.size());
+        assertFalse(((MatchMappingChange) this.delivered.get(0)).isMapped());
+    }
+
+    @Test
+    public void removedAndMappedInOneTickIsOneMapping() {
+        this.bus.start(this.server.getPlugin());
+        SimpleMatch match = this.match("a");
+        this.bus.publish(new MatchMappingChange(match, false));
+        this.bus.publish(new MatchMappingChange(match, true));
+        this.bus.run();
+        assertEquals(1, this.delivered.size());
+        assertTrue(((MatchMappingChange) this.delivered.get(0)).isMapped());
+    }
+
+    @Test
+    public void stateMovesCoalesceFromFirstToLast() {
+        this.bus.start(this.server.getPlugin());
+        SimpleMatch match = this.match("a");
+        this.bus.publish(new MatchChange(match, MatchState.IDLE, MatchState.STARTING));
+        this.bus.publish(new MatchChange(match, MatchState.STARTING, MatchState.RUNNING));
+        this.bus.run();
+        assertEquals(1, this.delivered.size());
+        MatchChange change = (MatchChange) this.delivered.get(0);
+        assertEquals(MatchState.IDLE, change.getOldState());
+        assertEquals(MatchState.RUNNING, change.getNewState());
+
+        //  a move back to where the match started in the tick is no move at all
+        this.bus.publish(new MatchChange(match, MatchState.RUNNING, MatchState.FINISHED));
+        this.bus.publish(new MatchChange(match, MatchState.FINISHED, MatchState.RUNNING));
+        this.bus.run();
+        assertEquals(1, this.delivered.size());
+    }
+
+    @Test
+    public void changesOfDifferentTypesAreNotCoalesced() {
+        this.bus.start(this.server.getPlugin());
+        SimpleMatch match = this.match("a");
+        this.bus.publish(new MatchMappingChange(match, true));
+        this.bus.publish(new MatchMembershipChange(match));
+        this.bus.publish(new MatchMembershipChange(match));
+        this.bus.run();
+        assertEquals(2, this.delivered.size());
+    }
+
+    @Test
+    public void runsDeliveryCallbacksEveryTick() {
+        final int[] callbacks = new int[1];
+        this.bus.addDeliveryCallback(new Runnable() {
+            @Override
+            public void run() {
+                callbacks[0]++;
+            }
+        });
+        this.bus.start(this.server.getPlugin());
+        this.bus.run();
+        assertEquals("ran without changes", 1, callbacks[0]);
+        this.bus.publish(new MatchMembershipChange(this.match("a")));
+        this.bus.run();
+        assertEquals(2, callbacks[0]);
+        assertEquals(1, this.deliveries);
+    }
+}
@@ -0,0 +1,137 @@
+package com.github.rmsy.directory;
+
+import com.github.rmsy.impl.MatchState;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.util.UUID;
+
+import static org.junit.Assert.*;
+
+public final class MatchDirectoryTest {
+
+    private static final UUID FIRST = UUID.randomUUID(), SECOND = UUID.randomUUID();
+
+    private MatchDirectory directory;
+
+    @Before
+    public void setUp() {
+        this.directory = new MatchDirectory();
+    }
+
+    /**
+     * Builds and applies a packet from the server "alpha".
+     */
+    private void receive(final byte kind, final long epoch, final long sequence, final long snapshotStart, final boolean last, final Object... entries) throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        DataOutputStream out = new DataOutputStream(bytes);
+        out.writeInt(DirectoryProtocol.MAGIC);
+        out.writeByte(DirectoryProtocol.FORMAT_VERSION);
+        out.writeByte(kind);
+        out.writeUTF("alpha");
+        out.writeLong(epoch);
+        out.writeLong(sequence);
+        if (kind == DirectoryProtocol.SNAPSHOT) {
+            out.writeLong(snapshotStart);
+            out.writeBoolean(last);
+        }
+        //  entries are a unique ID followed by a player count, or by null for a removal
+        out.writeShort(entries.length / 2);
+        for (int i = 0; i < entries.length; i += 2) {
+            UUID uuid = (UUID) entries[i];
+            Integer playerCount = (Integer) entries[i + 1];
+            out.writeByte(playerCount == null ? DirectoryProtocol.REMOVE : DirectoryProtocol.PUT);
+            out.writeLong(uuid.getMostSignificantBits());
+            out.writeLong(uuid.getLeastSignificantBits());
+            if (playerCount != null) {
+                out.writeUTF("world");
+                out.writeByte(MatchState.RUNNING.ordinal());
+                out.writeShort(playerCount);
+            }
+        }
+        byte[] packet = bytes.toByteArray();
+        this.directory.receive(packet, packet.length);
+    }
+
+    private void delta(final long epoch, final long sequence, final Object... entries) throws IOException {
+        this.receive(DirectoryProtocol.DELTA, epoch, sequence, 0L, false, entries);
+    }
+
+    private void snapshot(final long epoch, final long sequence, final long snapshotStart, final boolean last, final Object... entries) throws IOException {
+        this.receive(DirectoryProtocol.SNAPSHOT, epoch, sequence, snapshotStart, last, entries);
+    }
+
+    @Test
+    public void appliesDeltas() throws IOException {
+        this.delta(1L, 1L, FIRST, 4, SECOND, 6);
+        assertEquals(2, this.directory.getListings().size());
+        assertEquals(4, this.directory.getListing(FIRST).getPlayerCount());
+        assertEquals("alpha", this.directory.getListing(FIRST).getServer());
+
+        this.delta(1L, 2L, FIRST, 5, SECOND, null);
+        assertEquals(5, this.directory.getListing(FIRST).getPlayerCount());
+        assertNull(this.directory.getListing(SECOND));
+    }
+
+    @Test
+    public void dropsPacketsOutOfOrder() throws IOException {
+        this.delta(1L, 2L, FIRST, 8);
+        this.delta(1L, 1L, FIRST, 3);
+        assertEquals("older packet applied", 8, this.directory.getListing(FIRST).getPlayerCount());
+        this.delta(1L, 2L, FIRST, 3);
+        assertEquals("duplicate packet applied", 8, this.directory.getListing(FIRST).getPlayerCount());
+        assertEquals(2L, this.directory.getDroppedPackets());
+    }
+
+    @Test
+    public void restartedServerReplacesItsListings() throws IOException {
+        this.delta(1L, 10L, FIRST, 4);
+        this.delta(2L, 1L, SECOND, 2);
+        assertNull("stale listing kept", this.directory.getListing(FIRST));
+        assertNotNull(this.directory.getListing(SECOND));
+        this.delta(1L, 11L, FIRST, 4);
+        assertNull("packet from before the restart applied", this.directory.getListing(FIRST));
+    }
+
+    @Test
+    public void completeSnapshotRemovesMissingMatches() throws IOException {
+        this.delta(1L, 1L, FIRST, 4, SECOND, 6);
+        this.snapshot(1L, 2L, 2L, false, FIRST, 4);
+        this.snapshot(1L, 3L, 2L, true);
+        assertNotNull(this.directory.getListing(FIRST));
+        assertNull("gone match still listed", this.directory.getListing(SECOND));
+    }
+
+    @Test
+    public void incompleteSnapshotKeepsListings() throws IOException {
+        this.delta(1L, 1L, FIRST, 4, SECOND, 6);
+        //  the snapshot's second packet, sequence 3, was lost
+        this.snapshot(1L, 2L, 2L, false, FIRST, 4);
+        this.snapshot(1L, 4L, 2L, true);
+        assertNotNull(this.directory.getListing(FIRST));
+        assertNotNull("listing removed by an incomplete snapshot", this.directory.getListing(SECOND));
+
+        //  the next snapshot arrives whole
+        this.snapshot(1L, 5L, 5L, true, FIRST, 4);
+        assertNull(this.directory.getListing(SECOND));
+    }
+
+    @Test
+    public void goodbyeRemovesTheServer() throws IOException {
+        this.delta(1L, 1L, FIRST, 4);
+        this.receive(DirectoryProtocol.GOODBYE, 1L, 2L, 0L, false);
+        assertTrue(this.directory.getServers().isEmpty());
+        assertTrue(this.directory.getListings().isEmpty());
+    }
+
+    @Test
+    public void dropsMalformedPackets() {
+        byte[] packet = {1, 2, 3};
+        this.directory.receive(packet, packet.length);
+        assertEquals(1L, this.directory.getDroppedPackets());
+        assertTrue(this.directory.getListings().isEmpty());
+    }
+}
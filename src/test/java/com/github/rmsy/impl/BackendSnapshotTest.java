@@ -0,0 +1,150 @@
+package com.github.rmsy.impl;
+
+import com.github.rmsy.TestServer;
+import com.github.rmsy.stubs.StubServer;
+import org.bukkit.ChatColor;
+import org.bukkit.World;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import tc.oc.api.Player;
+import tc.oc.api.Team;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+
+import static org.junit.Assert.*;
+
+public final class BackendSnapshotTest {
+
+    private StubServer server;
+    private File file;
+    private World world;
+    private SimpleBackend backend;
+    private SimpleMatch match;
+    private SimpleTeam red, blue;
+    private org.bukkit.entity.Player alice, bob, carol;
+
+    @Before
+    public void setUp() throws IOException {
+        this.server = TestServer.get();
+        this.file = File.createTempFile("backend", ".snapshot");
+        this.world = this.server.createWorld("world");
+        this.backend = new SimpleBackend();
+        this.match = this.backend.createMatch(this.world);
+        this.red = this.backend.createTeam("Red Team", ChatColor.RED, true, true, false);
+        this.blue = this.backend.createTeam("Blue Team", ChatColor.BLUE, true, true, false);
+        this.match.addTeam(this.red);
+        this.match.addTeam(this.blue);
+        this.blue.setName("Azure Team");
+        this.blue.setColor(ChatColor.AQUA);
+        this.alice = this.join("alice", this.red);
+        this.bob = this.join("bob", this.blue);
+        this.carol = this.join("carol", this.blue);
+        assertTrue(this.match.start());
+    }
+
+    @After
+    public void tearDown() {
+        this.file.delete();
+    }
+
+    private org.bukkit.entity.Player join(final String name, final SimpleTeam team) {
+        org.bukkit.entity.Player bukkit = this.server.connect(name, this.world);
+        SimplePlayer player = new SimplePlayer(bukkit, team);
+        this.match.join(player, team);
+        this.backend.mapPlayer(bukkit, player);
+        return bukkit;
+    }
+
+    private SimpleTeam team(final SimpleMatch match, final String initialName) {
+        for (Team team : match.getTeams()) {
+            if (((SimpleTeam) team).getInitialName().equals(initialName)) {
+                return (SimpleTeam) team;
+            }
+        }
+        throw new AssertionError("No team " + initialName);
+    }
+
+    @Test
+    public void restoresMatchesTeamsAndMembers() throws IOException {
+        assertEquals(1, BackendSnapshot.save(this.backend, this.file));
+        SimpleBackend restored = new SimpleBackend();
+        assertEquals(1, BackendSnapshot.restore(restored, this.server.getServer(), this.file));
+        assertFalse("snapshot left behind", this.file.exists());
+
+        SimpleMatch match = (SimpleMatch) restored.getMatch(this.world);
+        assertNotNull(match);
+        assertNotSame(this.match, match);
+        assertEquals(this.match.getUUID(), match.getUUID());
+        assertEquals(MatchState.RUNNING, match.getState());
+        assertEquals(this.match.getStartTime(), match.getStartTime());
+        assertEquals(2, match.getTeams().size());
+
+        SimpleTeam blue = this.team(match, "Blue Team");
+        assertEquals("Azure Team", blue.getName());
+        assertEquals(ChatColor.AQUA, blue.getColor());
+        assertEquals(ChatColor.BLUE, blue.getInitialColor());
+        assertTrue(blue.isParticipating());
+        assertEquals(2, blue.getMembers().size());
+
+        Player alice = restored.getPlayer(this.alice);
+        assertNotNull(alice);
+        assertSame(this.team(match, "Red Team"), alice.getTeam());
+        assertSame(blue, restored.getPlayer(this.bob).getTeam());
+        assertEquals(3, match.getPlayers().size());
+    }
+
+    @Test
+    public void skipsPlayersNoLongerOnline() throws IOException {
+        BackendSnapshot.save(this.backend, this.file);
+        this.server.disconnect(this.carol);
+        SimpleBackend restored = new SimpleBackend();
+        assertEquals(1, BackendSnapshot.restore(restored, this.server.getServer(), this.file));
+        assertNull(restored.getPlayer(this.carol));
+        assertEquals(2, restored.getMatch(this.world).getPlayers().size());
+    }
+
+    @Test
+    public void ignoresOldSnapshots() throws IOException {
+        BackendSnapshot.save(this.backend, this.file);
+        //  the save time follows the magic number and the format version
+        RandomAccessFile raf = new RandomAccessFile(this.file, "rw");
+        try {
+            raf.seek(5L);
+            raf.writeLong(System.currentTimeMillis() - BackendSnapshot.MAX_AGE - 1000L);
+        } finally {
+            raf.close();
+        }
+        SimpleBackend restored = new SimpleBackend();
+        assertEquals(0, BackendSnapshot.restore(restored, this.server.getServer(), this.file));
+        assertNull(restored.getMatch(this.world));
+    }
+
+    @Test
+    public void damagedSnapshotLeavesNoMatchBehind() throws IOException {
+        BackendSnapshot.save(this.backend, this.file);
+        RandomAccessFile raf = new RandomAccessFile(this.file, "rw");
+        try {
+            raf.setLength(raf.length() - 4L);
+        } finally {
+            raf.close();
+        }
+        SimpleBackend restored = new SimpleBackend();
+        try {
+            BackendSnapshot.restore(restored, this.server.getServer(), this.file);
+            fail("Damaged snapshot restored");
+        } catch (IOException expected) {
+            //  expected
+        }
+        assertNull(restored.getMatch(this.world));
+        assertEquals(0, restored.getPlayerCount());
+    }
+
+    @Test
+    public void restoresNothingWithoutASnapshot() throws IOException {
+        this.file.delete();
+        assertEquals(0, BackendSnapshot.restore(new SimpleBackend(), this.server.getServer(), this.file));
+    }
+}
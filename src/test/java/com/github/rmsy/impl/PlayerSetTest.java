@@ -0,0 +1,123 @@
+package com.github.rmsy.impl;
+
+import com.github.rmsy.TestServer;
+import com.github.rmsy.stubs.StubServer;
+import org.bukkit.ChatColor;
+import org.bukkit.World;
+import org.junit.Before;
+import org.junit.Test;
+import tc.oc.api.Player;
+
+import java.util.ConcurrentModificationException;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.Set;
+
+import static org.junit.Assert.*;
+
+public final class PlayerSetTest {
+
+    private StubServer server;
+    private World world;
+    private SimpleTeam team;
+    private PlayerSet set;
+
+    @Before
+    public void setUp() {
+        this.server = TestServer.get();
+        this.world = this.server.createWorld("world");
+        this.team = new SimpleTeam("Red Team", ChatColor.RED, true, true, false);
+        this.set = new PlayerSet();
+    }
+
+    private SimplePlayer player(final int i) {
+        return new SimplePlayer(this.server.connect("player" + i, this.world), this.team);
+    }
+
+    @Test
+    public void addsAndRemovesMembers() {
+        SimplePlayer first = this.player(0), second = this.player(1);
+        assertTrue(this.set.add(first));
+        assertFalse("added twice", this.set.add(first));
+        assertTrue(this.set.add(second));
+        assertEquals(2, this.set.size());
+        assertTrue(this.set.contains(first));
+
+        assertTrue(this.set.remove(first));
+        assertFalse("removed twice", this.set.remove(first));
+        assertFalse(this.set.contains(first));
+        assertTrue(this.set.contains(second));
+        assertEquals(1, this.set.size());
+        assertFalse(this.set.remove("not a player"));
+    }
+
+    @Test
+    public void keepsEveryMemberWhileGrowingAndShrinking() {
+        SimplePlayer[] players = new SimplePlayer[1000];
+        for (int i = 0; i < players.length; i++) {
+            players[i] = this.player(i);
+            assertTrue(this.set.add(players[i]));
+        }
+        for (int i = 0; i < players.length; i += 2) {
+            assertTrue(this.set.remove(players[i]));
+        }
+        assertEquals(players.length / 2, this.set.size());
+        for (int i = 0; i < players.length; i++) {
+            assertEquals("member " + i, i % 2 == 1, this.set.contains(players[i]));
+        }
+
+        //  the packed members are exactly the members left
+        Set<Player> packed = new HashSet<Player>();
+        for (int i = 0; i < this.set.size(); i++) {
+            packed.add(this.set.get(i));
+        }
+        assertEquals(this.set.size(), packed.size());
+        for (Player player : packed) {
+            assertTrue(this.set.contains(player));
+        }
+        assertEquals(this.set.size(), this.set.toBukkitArray().length);
+    }
+
+    @Test
+    public void iteratorRemovesEveryMemberOnce() {
+        for (int i = 0; i < 20; i++) {
+            this.set.add(this.player(i));
+        }
+        Set<Player> seen = new HashSet<Player>();
+        for (Iterator<Player> iterator = this.set.iterator(); iterator.hasNext(); ) {
+            Player player = iterator.next();
+            assertTrue("seen twice", seen.add(player));
+            if (seen.size() % 3 == 0) {
+                iterator.remove();
+            }
+        }
+        assertEquals(20, seen.size());
+        assertEquals(20 - 20 / 3, this.set.size());
+    }
+
+    @Test(expected = ConcurrentModificationException.class)
+    public void iteratorDetectsModification() {
+        this.set.add(this.player(0));
+        this.set.add(this.player(1));
+        Iterator<Player> iterator = this.set.iterator();
+        iterator.next();
+        this.set.add(this.player(2));
+        iterator.next();
+    }
+
+    @Test
+    public void clearEmptiesTheSet() {
+        SimplePlayer player = this.player(0);
+        this.set.add(player);
+        this.set.clear();
+        assertEquals(0, this.set.size());
+        assertFalse(this.set.contains(player));
+        assertTrue(this.set.add(player));
+    }
+
+    @Test(expected = IndexOutOfBoundsException.class)
+    public void getRejectsPositionsPastTheEnd() {
+        this.set.add(this.player(0));
+        this.set.get(1);
+    }
+}
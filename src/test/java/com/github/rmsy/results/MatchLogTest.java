@@ -0,0 +1,186 @@
+package com.github.rmsy.results;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import javax.annotation.Nonnull;
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.Assert.*;
+
+public final class MatchLogTest {
+
+    private static final int SEGMENT_SIZE = 1024, MAX_SEGMENTS = 3;
+
+    private File directory;
+    private MatchLog log;
+
+    @Before
+    public void setUp() throws IOException {
+        this.directory = File.createTempFile("matches", "");
+        assertTrue(this.directory.delete());
+        this.log = new MatchLog(this.directory, SEGMENT_SIZE, MAX_SEGMENTS);
+    }
+
+    @After
+    public void tearDown() throws IOException {
+        this.log.close();
+        File[] files = this.directory.listFiles();
+        if (files != null) {
+            for (File file : files) {
+                file.delete();
+            }
+        }
+        this.directory.delete();
+    }
+
+    private static MatchResult result(final int i) {
+        return new MatchResult(UUID.randomUUID(), "world" + i, i, i + 1000L, 0, Arrays.asList(new MatchResult.TeamResult("Red Team", Arrays.asList("alice", "bob")), new MatchResult.TeamResult("Blue Team", Arrays.asList("carol"))));
+    }
+
+    private List<String> replay(final MatchLog log) throws IOException {
+        final List<String> worlds = new ArrayList<String>();
+        log.replay(new MatchResultStore.Handler() {
+            @Override
+            public void handle(@Nonnull MatchResult result) {
+                worlds.add(result.getWorld());
+            }
+        });
+        return worlds;
+    }
+
+    private File[] segments() {
+        File[] segments = this.directory.listFiles();
+        Arrays.sort(segments);
+        return segments;
+    }
+
+    /**
+     * Closes the log and opens it again, as on a restart.
+     */
+    private void reopen() throws IOException {
+        this.log.close();
+        this.log = new MatchLog(this.directory, SEGMENT_SIZE, MAX_SEGMENTS);
+    }
+
+    /**
+     * Finds where a segment's records end.
+     */
+    private static long endOfRecords(@Nonnull final RandomAccessFile segment) throws IOException {
+        long position = 0L;
+        while (position + 4L <= segment.length()) {
+            segment.seek(position);
+            int length = segment.readInt();
+            if (length == 0) {
+                break;
+            }
+            position += 4L + length;
+        }
+        return position;
+    }
+
+    @Test
+    public void replaysRecordsInOrder() throws IOException {
+        for (int i = 0; i < 5; i++) {
+            this.log.record(result(i));
+        }
+        assertEquals(Arrays.asList("world0", "world1", "world2", "world3", "world4"), this.replay(this.log));
+        this.reopen();
+        assertEquals(5, this.replay(this.log).size());
+        assertEquals(0, this.log.getDamagedSegments());
+    }
+
+    @Test
+    public void keepsOnlyTheNewestSegments() throws IOException {
+        for (int i = 0; i < 100; i++) {
+            this.log.record(result(i));
+        }
+        List<String> worlds = this.replay(this.log);
+        assertEquals(MAX_SEGMENTS, this.segments().length);
+        assertEquals("world99", worlds.get(worlds.size() - 1));
+        assertTrue(worlds.size() < 100);
+    }
+
+    @Test
+    public void skipsDamagedTailAndAppendsAfterIt() throws IOException {
+        for (int i = 0; i < 5; i++) {
+            this.log.record(result(i));
+        }
+        this.log.close();
+        //  a torn record: a length running past the end of the segment
+        RandomAccessFile segment = new RandomAccessFile(this.segments()[0], "rw");
+        try {
+            segment.seek(endOfRecords(segment));
+            segment.writeInt(0x7FFF0000);
+            segment.writeInt(12345);
+        } finally {
+            segment.close();
+        }
+
+        this.log = new MatchLog(this.directory, SEGMENT_SIZE, MAX_SEGMENTS);
+        assertEquals(1, this.log.getDamagedSegments());
+        this.log.record(result(5));
+        assertEquals(Arrays.asList("world0", "world1", "world2", "world3", "world4", "world5"), this.replay(this.log));
+    }
+
+    @Test
+    public void skipsTheRestOfASegmentAfterADamagedRecord() throws IOException {
+        for (int i = 0; i < 100; i++) {
+            this.log.record(result(i));
+        }
+        int before = this.replay(this.log).size();
+        this.log.close();
+        //  an unknown format version in the oldest segment's first record
+        RandomAccessFile segment = new RandomAccessFile(this.segments()[0], "rw");
+        int skipped = 0;
+        try {
+            long end = endOfRecords(segment);
+            for (long position = 0L; position < end; skipped++) {
+                segment.seek(position);
+                position += 4L + segment.readInt();
+            }
+            segment.seek(4L);
+            segment.writeByte(99);
+        } finally {
+            segment.close();
+        }
+
+        this.log = new MatchLog(this.directory, SEGMENT_SIZE, MAX_SEGMENTS);
+        assertEquals("newest segment damaged", 0, this.log.getDamagedSegments());
+        assertEquals(before - skipped, this.replay(this.log).size());
+        assertEquals(1, this.log.getDamagedSegments());
+    }
+
+    @Test
+    public void appendsAfterZeroFilledSegments() throws IOException {
+        for (int i = 0; i < 3; i++) {
+            this.log.record(result(i));
+        }
+        this.log.close();
+        //  segments used to be zero-filled to their full size in advance
+        RandomAccessFile segment = new RandomAccessFile(this.segments()[0], "rw");
+        try {
+            segment.setLength(SEGMENT_SIZE);
+        } finally {
+            segment.close();
+        }
+
+        this.log = new MatchLog(this.directory, SEGMENT_SIZE, MAX_SEGMENTS);
+        assertEquals(0, this.log.getDamagedSegments());
+        this.log.record(result(3));
+        assertEquals(Arrays.asList("world0", "world1", "world2", "world3"), this.replay(this.log));
+    }
+
+    @Test(expected = IOException.class)
+    public void rejectsRecordsOnceClosed() throws IOException {
+        this.log.close();
+        this.log.record(result(0));
+    }
+}
@@ -0,0 +1,400 @@
+package com.github.rmsy.stubs;
+
+import com.google.common.base.Preconditions;
+import org.bukkit.Server;
+import org.bukkit.World;
+import org.bukkit.entity.Player;
+import org.bukkit.plugin.Plugin;
+import org.bukkit.plugin.PluginManager;
+import org.bukkit.scheduler.BukkitScheduler;
+import org.bukkit.scheduler.BukkitTask;
+
+import javax.annotation.Nonnull;
+import java.io.File;
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.logging.Logger;
+
+/**
+ * A stand-in for a Bukkit server, with stub worlds and players, shared by the benchmarks and the simulator. Only the
+ * handful of methods PretendGM actually calls do anything; everything else returns a default value. Time only passes
+ * when {@link #tick()} is called, which runs the scheduled tasks that are due, so the caller decides how fast the
+ * server runs, if at all.
+ * <p/>
+ * The thread that creates the server is its main thread: {@link Server#isPrimaryThread()} is only true there, and
+ * {@link #tick()} must be called from it, so that code which must not run off of the main thread is caught doing so.
+ */
+public final class StubServer {
+
+    /**
+     * The logger the server and its plugin log to.
+     */
+    @Nonnull
+    private final Logger logger;
+    /**
+     * The server, scheduler, plugin manager and plugin.
+     */
+    @Nonnull
+    private final Server server;
+    @Nonnull
+    private final BukkitScheduler scheduler;
+    @Nonnull
+    private final PluginManager pluginManager;
+    @Nonnull
+    private final Plugin plugin;
+    /**
+     * The worlds, by unique ID.
+     */
+    @Nonnull
+    private final Map<UUID, World> worlds;
+    /**
+     * The players online, by unique ID.
+     */
+    @Nonnull
+    private final Map<UUID, Player> players;
+    /**
+     * The scheduled tasks, in the order they were scheduled.
+     */
+    @Nonnull
+    private final List<Task> tasks;
+    /**
+     * The total number of messages sent to players.
+     */
+    @Nonnull
+    private final AtomicLong messagesSent;
+    /**
+     * The server's main thread, which created it.
+     */
+    @Nonnull
+    private final Thread primaryThread;
+    /**
+     * The current tick.
+     */
+    private long currentTick;
+    /**
+     * The ID given to the next task, entity or player.
+     */
+    private int nextTaskId, nextEntityId;
+
+    /**
+     * Creates a new server, with no worlds or players.
+     */
+    public StubServer() {
+        this.primaryThread = Thread.currentThread();
+        this.logger = Logger.getLogger("PretendGM-stubs");
+        this.worlds = new LinkedHashMap<UUID, World>();
+        this.players = new LinkedHashMap<UUID, Player>();
+        this.tasks = new ArrayList<Task>();
+        this.messagesSent = new AtomicLong();
+        this.server = this.stub(Server.class, new InvocationHandler() {
+            @Override
+            public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+                String methodName = method.getName();
+                if (methodName.equals("getScheduler")) {
+                    return StubServer.this.scheduler;
+                } else if (methodName.equals("getPluginManager")) {
+                    return StubServer.this.pluginManager;
+                } else if (methodName.equals("getLogger")) {
+                    return StubServer.this.logger;
+                } else if (methodName.equals("getOnlinePlayers")) {
+                    Collection<Player> online = StubServer.this.players.values();
+                    return online.toArray(new Player[online.size()]);
+                } else if (methodName.equals("getWorld") && args[0] instanceof UUID) {
+                    return StubServer.this.worlds.get(args[0]);
+                } else if (methodName.equals("getWorlds")) {
+                    return new ArrayList<World>(StubServer.this.worlds.values());
+                } else if (methodName.equals("isPrimaryThread")) {
+                    return Thread.currentThread() == StubServer.this.primaryThread;
+                } else if (methodName.equals("getName") || methodName.equals("getVersion") || methodName.equals("getBukkitVersion")) {
+                    return "StubServer";
+                }
+                return defaultValue(proxy, method, args);
+            }
+        });
+        this.scheduler = this.stub(BukkitScheduler.class, new InvocationHandler() {
+            @Override
+            public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+                String methodName = method.getName();
+                if (methodName.equals("runTaskTimer")) {
+                    return StubServer.this.schedule((Runnable) args[1], (Long) args[2], (Long) args[3]);
+                } else if (methodName.equals("runTaskLater")) {
+                    return StubServer.this.schedule((Runnable) args[1], (Long) args[2], 0L);
+                } else if (methodName.equals("runTask")) {
+                    return StubServer.this.schedule((Runnable) args[1], 0L, 0L);
+                } else if (methodName.equals("cancelTasks")) {
+                    StubServer.this.tasks.clear();
+                    return null;
+                }
+                return defaultValue(proxy, method, args);
+            }
+        });
+        //  events have no listeners on the simulated server, so calling one does nothing
+        this.pluginManager = this.stub(PluginManager.class, new InvocationHandler() {
+            @Override
+            public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+                return defaultValue(proxy, method, args);
+            }
+        });
+        this.plugin = this.stub(Plugin.class, new InvocationHandler() {
+            @Override
+            public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+                String methodName = method.getName();
+                if (methodName.equals("getServer")) {
+                    return StubServer.this.server;
+                } else if (methodName.equals("getLogger")) {
+                    return StubServer.this.logger;
+                } else if (methodName.equals("getName")) {
+                    return "PretendGM";
+                } else if (methodName.equals("getDataFolder")) {
+                    return new File(System.getProperty("java.io.tmpdir"), "PretendGM-stubs");
+                } else if (methodName.equals("isEnabled")) {
+                    return true;
+                }
+                return defaultValue(proxy, method, args);
+            }
+        });
+    }
+
+    /**
+     * Gets the server.
+     *
+     * @return The server.
+     */
+    @Nonnull
+    public Server getServer() {
+        return this.server;
+    }
+
+    /**
+     * Gets the plugin that PretendGM's services run under.
+     *
+     * @return The plugin.
+     */
+    @Nonnull
+    public Plugin getPlugin() {
+        return this.plugin;
+    }
+
+    /**
+     * Gets the current tick.
+     *
+     * @return The number of ticks run so far.
+     */
+    public long getCurrentTick() {
+        return this.currentTick;
+    }
+
+    /**
+     * Gets the total number of messages sent to players.
+     *
+     * @return The number of messages sent.
+     */
+    public long getMessagesSent() {
+        return this.messagesSent.get();
+    }
+
+    /**
+     * Creates a world.
+     *
+     * @param name The world's name.
+     * @return The world.
+     */
+    @Nonnull
+    public World createWorld(@Nonnull final String name) {
+        final UUID uuid = UUID.randomUUID();
+        World world = this.stub(World.class, new InvocationHandler() {
+            @Override
+            public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+                String methodName = method.getName();
+                if (methodName.equals("getName")) {
+                    return name;
+                } else if (methodName.equals("getUID")) {
+                    return uuid;
+                }
+                return defaultValue(proxy, method, args);
+            }
+        });
+        this.worlds.put(uuid, world);
+        return world;
+    }
+
+    /**
+     * Connects a new player. The caller is responsible for calling the join event.
+     *
+     * @param name  The player's name.
+     * @param world The world the player spawns in.
+     * @return The player.
+     */
+    @Nonnull
+    public Player connect(@Nonnull final String name, @Nonnull final World world) {
+        final UUID uuid = UUID.randomUUID();
+        final int entityId = this.nextEntityId++;
+        Player player = this.stub(Player.class, new InvocationHandler() {
+            @Override
+            public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+                String methodName = method.getName();
+                if (methodName.equals("sendMessage")) {
+                    StubServer.this.messagesSent.incrementAndGet();
+                    return null;
+                } else if (methodName.equals("getName")) {
+                    return name;
+                } else if (methodName.equals("getWorld")) {
+                    return world;
+                } else if (methodName.equals("getUniqueId")) {
+                    return uuid;
+                } else if (methodName.equals("getEntityId")) {
+                    return entityId;
+                } else if (methodName.equals("isOnline")) {
+                    return StubServer.this.players.containsKey(uuid);
+                }
+                return defaultValue(proxy, method, args);
+            }
+        });
+        this.players.put(uuid, player);
+        return player;
+    }
+
+    /**
+     * Disconnects a player. The caller is responsible for calling the quit event.
+     *
+     * @param player The player.
+     */
+    public void disconnect(@Nonnull final Player player) {
+        this.players.remove(player.getUniqueId());
+    }
+
+    /**
+     * Runs one tick: every scheduled task that is due, in the order they were scheduled.
+     *
+     * @throws IllegalStateException If not called from the server's main thread.
+     */
+    public void tick() throws IllegalStateException {
+        Preconditions.checkState(Thread.currentThread() == this.primaryThread, "Server must be ticked from its main thread.");
+        long tick = this.currentTick++;
+        //  tasks may schedule or cancel tasks while running, so run a snapshot
+        for (Task task : new ArrayList<Task>(this.tasks)) {
+            if (!task.cancelled && task.nextRun <= tick) {
+                task.runnable.run();
+                if (task.period > 0L) {
+                    task.nextRun = tick + task.period;
+                } else {
+                    task.cancelled = true;
+                }
+            }
+        }
+        for (Iterator<Task> iterator = this.tasks.iterator(); iterator.hasNext(); ) {
+            if (iterator.next().cancelled) {
+                iterator.remove();
+            }
+        }
+    }
+
+    /**
+     * Schedules a task.
+     *
+     * @param runnable The task.
+     * @param delay    The number of ticks to wait before running it.
+     * @param period   The number of ticks between runs, or zero to run it once.
+     * @return The task.
+     */
+    @Nonnull
+    private BukkitTask schedule(@Nonnull final Runnable runnable, final long delay, final long period) {
+        final Task task = new Task(this.nextTaskId++, Preconditions.checkNotNull(runnable, "runnable"), this.currentTick + Math.max(delay, 0L), period);
+        this.tasks.add(task);
+        return this.stub(BukkitTask.class, new InvocationHandler() {
+            @Override
+            public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+                String methodName = method.getName();
+                if (methodName.equals("cancel")) {
+                    task.cancelled = true;
+                    return null;
+                } else if (methodName.equals("getTaskId")) {
+                    return task.id;
+                }
+                return defaultValue(proxy, method, args);
+            }
+        });
+    }
+
+    /**
+     * Creates a stub implementation of an interface.
+     *
+     * @param type    The interface.
+     * @param handler The handler for calls made on the stub.
+     * @param <T>     The interface.
+     * @return The stub.
+     */
+    @Nonnull
+    private <T> T stub(@Nonnull final Class<T> type, @Nonnull final InvocationHandler handler) {
+        return type.cast(Proxy.newProxyInstance(type.getClassLoader(), new Class<?>[]{type}, handler));
+    }
+
+    /**
+     * Handles a call that a stub does not implement: identity-based equality, like the real thing, and a default value
+     * for everything else.
+     *
+     * @param proxy  The stub.
+     * @param method The method called.
+     * @param args   The arguments.
+     * @return The result.
+     */
+    private static Object defaultValue(@Nonnull final Object proxy, @Nonnull final Method method, final Object[] args) {
+        String methodName = method.getName();
+        if (methodName.equals("hashCode")) {
+            return System.identityHashCode(proxy);
+        } else if (methodName.equals("equals")) {
+            return proxy == args[0];
+        } else if (methodName.equals("toString")) {
+            return "Stub{" + method.getDeclaringClass().getSimpleName() + "@" + Integer.toHexString(System.identityHashCode(proxy)) + "}";
+        }
+
+        Class<?> returnType = method.getReturnType();
+        if (returnType == boolean.class) {
+            return false;
+        } else if (returnType == int.class) {
+            return 0;
+        } else if (returnType == long.class) {
+            return 0L;
+        } else if (returnType == short.class) {
+            return (short) 0;
+        } else if (returnType == byte.class) {
+            return (byte) 0;
+        } else if (returnType == char.class) {
+            return (char) 0;
+        } else if (returnType == float.class) {
+            return 0.0F;
+        } else if (returnType == double.class) {
+            return 0.0D;
+        } else {
+            return null;
+        }
+    }
+
+    /**
+     * A scheduled task.
+     */
+    private static final class Task {
+
+        private final int id;
+        private final Runnable runnable;
+        private final long period;
+        private long nextRun;
+        private boolean cancelled;
+
+        private Task(final int id, @Nonnull final Runnable runnable, final long nextRun, final long period) {
+            this.id = id;
+            this.runnable = runnable;
+            this.nextRun = nextRun;
+            this.period = period;
+        }
+    }
+}